@@ -0,0 +1,265 @@
+package com.kelin.recycleradapter.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * 描述 在编译时为每个被 ItemLayout 注解的ViewHolder生成一个 ViewHolderFactory 的实现类，使适配器在创建ViewHolder时不再需要反射。
+ * <p>生成的类与ViewHolder在同一个包下，类名为ViewHolder的类名加上 <code>$$ViewHolderFactory</code> 后缀，所以只要ViewHolder
+ * 的 <code>(View)</code> 构造方法不是私有的就可以直接调用。无法生成工厂的ViewHolder会在编译时给出警告，运行时仍然通过反射创建。
+ * <p>如果注解中设置了 viewIds，还会生成一个名为ViewHolder的类名加上 <code>$$ViewBinding</code> 后缀的子类，在创建时直接查找这些控件并保存在字段中，
+ * 然后重写 getView(int) 方法通过switch语句返回对应的字段，工厂创建的是这个子类的对象。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午8:05
+ * 版本 v 1.0.0
+ */
+public class ItemLayoutProcessor extends AbstractProcessor {
+
+    private static final String ITEM_LAYOUT = "com.kelin.recycleradapter.holder.ItemLayout";
+    private static final String FACTORY = "com.kelin.recycleradapter.holder.ViewHolderFactory";
+    private static final String VIEW = "android.view.View";
+    private static final String SUFFIX = "$$ViewHolderFactory";
+    private static final String BINDING_SUFFIX = "$$ViewBinding";
+
+    private Elements mElements;
+    private Filer mFiler;
+    private Messager mMessager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        mElements = processingEnv.getElementUtils();
+        mFiler = processingEnv.getFiler();
+        mMessager = processingEnv.getMessager();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ITEM_LAYOUT);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement itemLayout = mElements.getTypeElement(ITEM_LAYOUT);
+        if (itemLayout == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(itemLayout)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                generateFactory((TypeElement) element, itemLayout);
+            }
+        }
+        return false;
+    }
+
+    private void generateFactory(TypeElement holder, TypeElement itemLayout) {
+        if (!canCreate(holder)) {
+            mMessager.printMessage(Diagnostic.Kind.WARNING, "unable to generate the ViewHolderFactory of " + holder.getQualifiedName()
+                    + ", the class must be a non-private, non-abstract top level or static class with a non-private (View) constructor. The reflection will be used instead.", holder);
+            return;
+        }
+        AnnotationValue layoutValue = valueOf(holder, itemLayout, "value");
+        if (layoutValue == null || !(layoutValue.getValue() instanceof Integer)) {
+            return;
+        }
+        int layoutId = (Integer) layoutValue.getValue();
+        String packageName = mElements.getPackageOf(holder).getQualifiedName().toString();
+        String binaryName = mElements.getBinaryName(holder).toString();
+        String simpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        String factoryName = simpleName + SUFFIX;
+        String holderName = holder.getQualifiedName().toString();
+        String createdName = holderName;
+        List<Integer> viewIds = viewIdsOf(holder, itemLayout);
+        if (!viewIds.isEmpty()) {
+            if (holder.getModifiers().contains(Modifier.FINAL)) {
+                mMessager.printMessage(Diagnostic.Kind.WARNING, "unable to generate the ViewBinding of " + holderName
+                        + ", the class must not be final. The viewIds will be ignored.", holder);
+            } else {
+                createdName = simpleName + BINDING_SUFFIX;
+                generateBinding(holder, packageName, createdName, viewIds);
+            }
+        }
+        try {
+            JavaFileObject file = mFiler.createSourceFile(packageName.isEmpty() ? factoryName : packageName + "." + factoryName, holder);
+            Writer writer = file.openWriter();
+            try {
+                if (!packageName.isEmpty()) {
+                    writer.write("package " + packageName + ";\n\n");
+                }
+                writer.write("/**\n * Generated by ItemLayoutProcessor. Do not modify!\n */\n");
+                writer.write("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+                writer.write("public final class " + factoryName + " implements " + FACTORY + "<" + holderName + "> {\n\n");
+                writer.write("    @Override\n");
+                writer.write("    public int getLayoutId() {\n");
+                writer.write("        return " + layoutId + ";\n");
+                writer.write("    }\n\n");
+                writer.write("    @Override\n");
+                writer.write("    public " + holderName + " create(" + VIEW + " itemView) {\n");
+                writer.write("        return new " + createdName + "(itemView);\n");
+                writer.write("    }\n");
+                writer.write("}\n");
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            mMessager.printMessage(Diagnostic.Kind.ERROR, "unable to write the ViewHolderFactory of " + holderName + ": " + e.getMessage(), holder);
+        }
+    }
+
+    /**
+     * 生成ViewHolder的子类，在构造方法中查找所有控件并保存在字段中，通过switch语句返回控件。
+     *
+     * @param holder      ViewHolder的类型。
+     * @param packageName ViewHolder所在的包名。
+     * @param bindingName 要生成的类的类名。
+     * @param viewIds     需要绑定的控件的ID。
+     */
+    private void generateBinding(TypeElement holder, String packageName, String bindingName, List<Integer> viewIds) {
+        String holderName = holder.getQualifiedName().toString();
+        try {
+            JavaFileObject file = mFiler.createSourceFile(packageName.isEmpty() ? bindingName : packageName + "." + bindingName, holder);
+            Writer writer = file.openWriter();
+            try {
+                if (!packageName.isEmpty()) {
+                    writer.write("package " + packageName + ";\n\n");
+                }
+                writer.write("/**\n * Generated by ItemLayoutProcessor. Do not modify!\n */\n");
+                writer.write("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+                writer.write("final class " + bindingName + " extends " + holderName + " {\n\n");
+                for (int i = 0; i < viewIds.size(); i++) {
+                    writer.write("    private final " + VIEW + " mView" + i + ";\n");
+                }
+                writer.write("\n    " + bindingName + "(" + VIEW + " itemView) {\n");
+                writer.write("        super(itemView);\n");
+                for (int i = 0; i < viewIds.size(); i++) {
+                    writer.write("        mView" + i + " = itemView.findViewById(" + viewIds.get(i) + ");\n");
+                }
+                writer.write("    }\n\n");
+                writer.write("    @Override\n");
+                writer.write("    public <T extends " + VIEW + "> T getView(int id) {\n");
+                writer.write("        switch (id) {\n");
+                for (int i = 0; i < viewIds.size(); i++) {
+                    writer.write("            case " + viewIds.get(i) + ":\n");
+                    //父类的构造方法中调用getView时字段还没有被赋值，这时仍然通过父类查找。
+                    writer.write("                if (mView" + i + " != null) {\n");
+                    writer.write("                    return (T) mView" + i + ";\n");
+                    writer.write("                }\n");
+                    writer.write("                break;\n");
+                }
+                writer.write("        }\n");
+                writer.write("        return super.getView(id);\n");
+                writer.write("    }\n");
+                writer.write("}\n");
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            mMessager.printMessage(Diagnostic.Kind.ERROR, "unable to write the ViewBinding of " + holderName + ": " + e.getMessage(), holder);
+        }
+    }
+
+    /**
+     * 判断是否可以在生成的工厂中直接创建ViewHolder。
+     *
+     * @param holder ViewHolder的类型。
+     */
+    private boolean canCreate(TypeElement holder) {
+        Set<Modifier> modifiers = holder.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT) || !holder.getTypeParameters().isEmpty()) {
+            return false;
+        }
+        for (Element e = holder; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            TypeElement type = (TypeElement) e;
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            NestingKind kind = type.getNestingKind();
+            if (kind == NestingKind.LOCAL || kind == NestingKind.ANONYMOUS) {
+                return false;
+            }
+            if (kind == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(holder.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PRIVATE) && constructor.getParameters().size() == 1) {
+                VariableElement parameter = constructor.getParameters().get(0);
+                if (VIEW.equals(parameter.asType().toString())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 读取ItemLayout注解中的某个属性，没有显式设置的属性返回null。
+     *
+     * @param holder     ViewHolder的类型。
+     * @param itemLayout ItemLayout注解的类型。
+     * @param name       属性名。
+     */
+    private AnnotationValue valueOf(TypeElement holder, TypeElement itemLayout, String name) {
+        for (AnnotationMirror mirror : holder.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().asElement().equals(itemLayout)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals(name)) {
+                        return entry.getValue();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 读取ItemLayout注解中需要绑定的控件的ID，重复的ID只保留一个。
+     *
+     * @param holder     ViewHolder的类型。
+     * @param itemLayout ItemLayout注解的类型。
+     */
+    private List<Integer> viewIdsOf(TypeElement holder, TypeElement itemLayout) {
+        AnnotationValue value = valueOf(holder, itemLayout, "viewIds");
+        Set<Integer> ids = new LinkedHashSet<>();
+        if (value != null && value.getValue() instanceof List) {
+            for (Object item : (List<?>) value.getValue()) {
+                Object id = item instanceof AnnotationValue ? ((AnnotationValue) item).getValue() : item;
+                if (id instanceof Integer) {
+                    ids.add((Integer) id);
+                }
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+}
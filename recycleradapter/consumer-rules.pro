@@ -0,0 +1,9 @@
+# 由 recycleradapter-compiler 生成的ViewHolder工厂是通过类名查找的。
+-keep class * implements com.kelin.recycleradapter.holder.ViewHolderFactory {
+    <init>();
+}
+-keepnames class * extends com.kelin.recycleradapter.holder.ItemViewHolder
+# 没有生成工厂时会通过反射调用ViewHolder的(View)构造方法。
+-keepclassmembers class * extends com.kelin.recycleradapter.holder.ItemViewHolder {
+    <init>(android.view.View);
+}
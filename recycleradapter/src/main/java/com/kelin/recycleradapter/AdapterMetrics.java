@@ -0,0 +1,192 @@
+package com.kelin.recycleradapter;
+
+import android.os.Build;
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
+import android.support.annotation.Size;
+import android.util.SparseArray;
+
+/**
+ * 描述 适配器的耗时统计。
+ * <p>通过 {@link SuperAdapter#setAdapterMetrics(AdapterMetrics)} 设置给适配器后，会按条目类型(也就是 @ItemLayout 中的布局资源ID)
+ * 记录创建ViewHolder和绑定数据的耗时以及局部绑定的次数，同时记录比较新旧数据的耗时、分发比较结果的耗时和
+ * {@link MultiTypeAdapter} 根据位置查找子Adapter的次数。可以定期通过 {@link LatencyHistogram#getPercentileNanos(float)}
+ * 取出P50、P99等数据上报，用来找出线上比较慢的ViewHolder。
+ * <p>同一个对象可以设置给多个适配器。比较的耗时在后台线程记录，其他的数据都在主线程记录，查询可以在任意线程进行。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:58
+ * 版本 v 1.0.0
+ */
+public final class AdapterMetrics {
+
+    /**
+     * 每个统计默认保留的最近的耗时的个数。
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+    private final int mCapacity;
+    /**
+     * 每种条目类型的统计，以条目类型为键。
+     */
+    private final SparseArray<TypeMetrics> mTypeMetrics = new SparseArray<>();
+    private final LatencyHistogram mDiffLatency;
+    private final LatencyHistogram mDispatchLatency;
+    private volatile long mChildLookupCount;
+
+    public AdapterMetrics() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 构造方法。
+     *
+     * @param capacity 每个统计保留的最近的耗时的个数，百分位数是根据这些耗时计算的。
+     */
+    public AdapterMetrics(@Size(min = 1) int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("the capacity argument must be an integer greater than zero");
+        }
+        mCapacity = capacity;
+        mDiffLatency = new LatencyHistogram(capacity);
+        mDispatchLatency = new LatencyHistogram(capacity);
+    }
+
+    /**
+     * 获取当前时间，单位纳秒，只用来计算耗时。
+     */
+    static long now() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1 ? SystemClock.elapsedRealtimeNanos() : System.nanoTime();
+    }
+
+    /**
+     * 获取所有已经记录过的条目类型。
+     */
+    public int[] getViewTypes() {
+        synchronized (mTypeMetrics) {
+            int[] viewTypes = new int[mTypeMetrics.size()];
+            for (int i = 0; i < viewTypes.length; i++) {
+                viewTypes[i] = mTypeMetrics.keyAt(i);
+            }
+            return viewTypes;
+        }
+    }
+
+    /**
+     * 获取某种条目创建ViewHolder的耗时。
+     *
+     * @param viewType 条目类型，也就是布局资源ID。
+     * @return 没有记录过该条目类型时返回null。
+     */
+    @Nullable
+    public LatencyHistogram getCreateLatency(int viewType) {
+        TypeMetrics metrics = getTypeMetrics(viewType, false);
+        return metrics == null ? null : metrics.createLatency;
+    }
+
+    /**
+     * 获取某种条目绑定数据的耗时，包括完整绑定和局部绑定。
+     *
+     * @param viewType 条目类型，也就是布局资源ID。
+     * @return 没有记录过该条目类型时返回null。
+     */
+    @Nullable
+    public LatencyHistogram getBindLatency(int viewType) {
+        TypeMetrics metrics = getTypeMetrics(viewType, false);
+        return metrics == null ? null : metrics.bindLatency;
+    }
+
+    /**
+     * 获取某种条目局部绑定的次数。
+     *
+     * @param viewType 条目类型，也就是布局资源ID。
+     */
+    public long getPartialBindCount(int viewType) {
+        TypeMetrics metrics = getTypeMetrics(viewType, false);
+        return metrics == null ? 0 : metrics.partialBindCount;
+    }
+
+    /**
+     * 获取在后台线程比较新旧数据的耗时。
+     */
+    public LatencyHistogram getDiffLatency() {
+        return mDiffLatency;
+    }
+
+    /**
+     * 获取在主线程把比较结果分发给列表的耗时，不包括之后列表重新布局和绑定的耗时。
+     */
+    public LatencyHistogram getDispatchLatency() {
+        return mDispatchLatency;
+    }
+
+    /**
+     * 获取 {@link MultiTypeAdapter} 根据位置查找子Adapter的次数。
+     */
+    public long getChildLookupCount() {
+        return mChildLookupCount;
+    }
+
+    /**
+     * 清空所有的统计。
+     */
+    public void reset() {
+        synchronized (mTypeMetrics) {
+            mTypeMetrics.clear();
+        }
+        mDiffLatency.reset();
+        mDispatchLatency.reset();
+        mChildLookupCount = 0;
+    }
+
+    void recordCreate(int viewType, long nanos) {
+        getTypeMetrics(viewType, true).createLatency.record(nanos);
+    }
+
+    void recordBind(int viewType, long nanos, boolean partial) {
+        TypeMetrics metrics = getTypeMetrics(viewType, true);
+        metrics.bindLatency.record(nanos);
+        if (partial) {
+            metrics.partialBindCount++;
+        }
+    }
+
+    void recordDiff(long nanos) {
+        mDiffLatency.record(nanos);
+    }
+
+    void recordDispatch(long nanos) {
+        mDispatchLatency.record(nanos);
+    }
+
+    /**
+     * 只在主线程调用，所以不需要原子操作。
+     */
+    void countChildLookup() {
+        mChildLookupCount++;
+    }
+
+    private TypeMetrics getTypeMetrics(int viewType, boolean create) {
+        synchronized (mTypeMetrics) {
+            TypeMetrics metrics = mTypeMetrics.get(viewType);
+            if (metrics == null && create) {
+                //每种条目类型只会在第一次记录时创建一次。
+                metrics = new TypeMetrics(mCapacity);
+                mTypeMetrics.put(viewType, metrics);
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * 一种条目类型的统计。
+     */
+    private static final class TypeMetrics {
+        final LatencyHistogram createLatency;
+        final LatencyHistogram bindLatency;
+        volatile long partialBindCount;
+
+        TypeMetrics(int capacity) {
+            createLatency = new LatencyHistogram(capacity);
+            bindLatency = new LatencyHistogram(capacity);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.kelin.recycleradapter;
+
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * 描述 缓存了每个位置的占屏值的 {@link GridLayoutManager.SpanSizeLookup}。
+ * <p>{@link GridLayoutManager} 在一次布局中会多次查询同一个位置的占屏值，并且默认每次计算所在列都要从第0个位置开始累加。
+ * 这里同时缓存占屏值和所在列，适配器的数据发生任何变化时都会清空缓存，所以布局的开销只和可见的条目数有关。
+ * 需要把 {@link #getInvalidationObserver()} 注册给适配器才能在数据变化时清空缓存。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:30
+ * 版本 v 1.0.0
+ */
+abstract class CachedSpanSizeLookup extends GridLayoutManager.SpanSizeLookup {
+
+    /**
+     * 已经计算过的占屏值，以位置为下标。
+     */
+    private int[] mSpanSizes = new int[16];
+    /**
+     * 每个位置的占屏值是在哪一代缓存中计算的，与 {@link #mGeneration} 不同则表示已经失效了，这样清空缓存时不需要遍历数组。
+     */
+    private int[] mStamps = new int[16];
+    private int mGeneration = 1;
+    private final RecyclerView.AdapterDataObserver mInvalidationObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            invalidate();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            invalidate();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            invalidate();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            invalidate();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            invalidate();
+        }
+    };
+
+    CachedSpanSizeLookup() {
+        setSpanIndexCacheEnabled(true);
+    }
+
+    /**
+     * 计算某个位置的占屏值，每个位置在两次清空缓存之间只会计算一次。
+     *
+     * @param position 条目的位置。
+     */
+    abstract int computeSpanSize(int position);
+
+    /**
+     * 获取数据变化时清空缓存的观察者。
+     */
+    RecyclerView.AdapterDataObserver getInvalidationObserver() {
+        return mInvalidationObserver;
+    }
+
+    @Override
+    public int getSpanSize(int position) {
+        if (position < 0) {
+            return computeSpanSize(position);
+        }
+        if (position >= mSpanSizes.length) {
+            int capacity = Math.max(position + 1, mSpanSizes.length << 1);
+            mSpanSizes = Arrays.copyOf(mSpanSizes, capacity);
+            mStamps = Arrays.copyOf(mStamps, capacity);
+        }
+        if (mStamps[position] != mGeneration) {
+            mSpanSizes[position] = computeSpanSize(position);
+            mStamps[position] = mGeneration;
+        }
+        return mSpanSizes[position];
+    }
+
+    /**
+     * 清空所有缓存的占屏值和所在列。
+     */
+    void invalidate() {
+        if (++mGeneration == 0) {
+            //溢出后回到0，0是数组的初始值，所以要真正清空一次。
+            Arrays.fill(mStamps, 0);
+            mGeneration = 1;
+        }
+        invalidateSpanIndexCache();
+    }
+}
@@ -0,0 +1,389 @@
+package com.kelin.recycleradapter;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 描述 列表数据的不可变快照，用来作为DiffUtil比较时的旧数据。
+ * <p>快照由若干个数据块组成，每个数据块只是对某个数组中一段连续区域的引用。对快照的任何修改都会返回一个新的快照，
+ * 新旧快照之间共享所有没有被修改的数据块，所以修改时只需要复制被修改的那一个数据块以及O(n/{@link #CHUNK_SIZE})大小的索引，
+ * 而后台线程可以在不加锁也不复制的情况下安全的读取任何一个快照。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午2:05
+ * 版本 v 1.0.0
+ */
+final class DataSnapshot<E> extends AbstractList<E> {
+
+    /**
+     * 每个数据块的标准长度。
+     */
+    static final int CHUNK_SIZE = 64;
+    private static final DataSnapshot EMPTY = new DataSnapshot(new Object[0][], new int[0], new int[1], null, null);
+    /**
+     * 每个数据块所引用的数组，不同的数据块可以引用同一个数组。
+     */
+    private final Object[][] mArrays;
+    /**
+     * 每个数据块在其引用的数组中的起始位置。
+     */
+    private final int[] mStarts;
+    /**
+     * 每个数据块在快照中的起始位置，最后一个元素为快照的长度。
+     */
+    private final int[] mOffsets;
+    /**
+     * 快照中每一段数据的长度，例如 {@link MultiTypeAdapter} 中每个子Adapter的条目数。修改后的快照不会保留分段信息。
+     */
+    private final int[] mSegments;
+    /**
+     * 每一段数据的所有者，例如 {@link MultiTypeAdapter} 中的子Adapter。
+     */
+    private final Object[] mSegmentOwners;
+    /**
+     * 缓存的每个条目的唯一标识。快照是不可变的，所以唯一标识只需要计算一次，快照在下一次刷新时作为旧数据时可以直接使用。
+     */
+    private volatile long[] mKeys;
+    /**
+     * 缓存的每个条目的数据类型。不同类型的条目的唯一标识可能相同，所以唯一标识相同时还要比较数据类型。
+     * 总是在 {@link #mKeys} 之前写入，所以读到 {@link #mKeys} 后一定能读到它。
+     */
+    private volatile Class<?>[] mKeyTypes;
+
+    private DataSnapshot(Object[][] arrays, int[] starts, int[] offsets, int[] segments, Object[] segmentOwners) {
+        mArrays = arrays;
+        mStarts = starts;
+        mOffsets = offsets;
+        mSegments = segments;
+        mSegmentOwners = segmentOwners;
+    }
+
+    /**
+     * 获取一个空的快照。
+     */
+    @SuppressWarnings("unchecked")
+    static <E> DataSnapshot<E> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 为一个列表创建快照。只会对列表进行一次 {@link List#toArray()}，所有数据块都引用这一个数组。
+     *
+     * @param list 要创建快照的列表。
+     */
+    static <E> DataSnapshot<E> of(List<? extends E> list) {
+        if (list == null || list.isEmpty()) {
+            return empty();
+        }
+        return slices(list.toArray());
+    }
+
+    /**
+     * 为一个由多段数据拼接而成的列表创建快照，并记录每一段数据的长度和所有者。
+     *
+     * @param list          要创建快照的列表。
+     * @param segments      每一段数据的长度。
+     * @param segmentOwners 每一段数据的所有者。
+     */
+    static <E> DataSnapshot<E> of(List<? extends E> list, int[] segments, Object[] segmentOwners) {
+        return DataSnapshot.<E>of(list).withSegments(segments, segmentOwners);
+    }
+
+    /**
+     * 获取带有分段信息的快照，两个快照共享所有数据。
+     *
+     * @param segments      每一段数据的长度，长度之和必须与快照的长度相同。
+     * @param segmentOwners 每一段数据的所有者。
+     */
+    DataSnapshot<E> withSegments(int[] segments, Object[] segmentOwners) {
+        DataSnapshot<E> snapshot = new DataSnapshot<>(mArrays, mStarts, mOffsets, segments, segmentOwners);
+        snapshot.mKeyTypes = mKeyTypes;
+        snapshot.mKeys = mKeys;
+        return snapshot;
+    }
+
+    /**
+     * 获取快照中每一段数据的长度。
+     *
+     * @return 如果快照没有分段信息则返回null。
+     */
+    int[] segments() {
+        return mSegments;
+    }
+
+    /**
+     * 获取快照中每一段数据的所有者。
+     *
+     * @return 如果快照没有分段信息则返回null。
+     */
+    Object[] segmentOwners() {
+        return mSegmentOwners;
+    }
+
+    /**
+     * 获取缓存的每个条目的唯一标识。
+     *
+     * @return 如果还没有缓存过则返回null。
+     */
+    long[] keys() {
+        return mKeys;
+    }
+
+    /**
+     * 获取缓存的每个条目的数据类型，在 {@link #keys()} 返回不为null时才有效。
+     */
+    Class<?>[] keyTypes() {
+        return mKeyTypes;
+    }
+
+    /**
+     * 缓存每个条目的唯一标识和数据类型。
+     *
+     * @param keys  每个条目的唯一标识，长度必须与快照的长度相同。
+     * @param types 每个条目的数据类型，长度必须与快照的长度相同。
+     */
+    void setKeys(long[] keys, Class<?>[] types) {
+        mKeyTypes = types;
+        mKeys = keys;
+    }
+
+    private static <E> DataSnapshot<E> slices(Object[] array) {
+        Builder builder = new Builder((array.length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        builder.addSlices(array, 0, array.length);
+        return builder.build();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int chunk = chunkOf(index);
+        return (E) mArrays[chunk][mStarts[chunk] + index - mOffsets[chunk]];
+    }
+
+    @Override
+    public int size() {
+        return mOffsets[mArrays.length];
+    }
+
+    /**
+     * 获取在指定位置插入数据后的快照。
+     *
+     * @param index 插入的位置。
+     * @param items 要插入的数据。
+     * @return 返回新的快照，当前快照不会被修改。
+     */
+    DataSnapshot<E> withInserted(int index, Collection<? extends E> items) {
+        int size = size();
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (items.isEmpty()) {
+            return this;
+        }
+        Object[] inserted = items.toArray();
+        int count = mArrays.length;
+        int chunk = index == size ? count - 1 : chunkOf(index);
+        if (chunk < 0) {
+            return slices(inserted);
+        }
+        Builder builder = new Builder(count + 2 + inserted.length / CHUNK_SIZE);
+        builder.addChunks(this, 0, chunk);
+        int start = mStarts[chunk];
+        int length = lengthOf(chunk);
+        int split = index - mOffsets[chunk];
+        if (length + inserted.length <= CHUNK_SIZE << 1) {
+            //插入的数据不多时直接与所在的数据块合并，避免数据块越来越碎。
+            Object[] merged = new Object[length + inserted.length];
+            System.arraycopy(mArrays[chunk], start, merged, 0, split);
+            System.arraycopy(inserted, 0, merged, split, inserted.length);
+            System.arraycopy(mArrays[chunk], start + split, merged, split + inserted.length, length - split);
+            builder.addSlice(merged, 0, merged.length);
+        } else {
+            builder.addSlice(mArrays[chunk], start, split);
+            builder.addSlices(inserted, 0, inserted.length);
+            builder.addSlice(mArrays[chunk], start + split, length - split);
+        }
+        builder.addChunks(this, chunk + 1, count);
+        return builder.build();
+    }
+
+    /**
+     * 获取移除指定区域的数据后的快照。
+     *
+     * @param index     开始移除的位置。
+     * @param itemCount 要移除的条目数。
+     * @return 返回新的快照，当前快照不会被修改。
+     */
+    DataSnapshot<E> withRemoved(int index, int itemCount) {
+        int size = size();
+        if (index < 0 || itemCount < 0 || index + itemCount > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", ItemCount: " + itemCount + ", Size: " + size);
+        }
+        if (itemCount == 0) {
+            return this;
+        }
+        if (itemCount == size) {
+            return empty();
+        }
+        int end = index + itemCount;
+        int first = chunkOf(index);
+        int last = chunkOf(end - 1);
+        Builder builder = new Builder(mArrays.length + 1);
+        builder.addChunks(this, 0, first);
+        int headLength = index - mOffsets[first];
+        int tailStart = end - mOffsets[last];
+        int tailLength = lengthOf(last) - tailStart;
+        if (headLength + tailLength <= CHUNK_SIZE) {
+            //被截断的首尾两个数据块剩余的部分不多时合并为一个数据块。
+            Object[] merged = new Object[headLength + tailLength];
+            System.arraycopy(mArrays[first], mStarts[first], merged, 0, headLength);
+            System.arraycopy(mArrays[last], mStarts[last] + tailStart, merged, headLength, tailLength);
+            builder.addSlice(merged, 0, merged.length);
+        } else {
+            builder.addSlice(mArrays[first], mStarts[first], headLength);
+            builder.addSlice(mArrays[last], mStarts[last] + tailStart, tailLength);
+        }
+        builder.addChunks(this, last + 1, mArrays.length);
+        return builder.build();
+    }
+
+    /**
+     * 获取替换指定位置的数据后的快照。
+     *
+     * @param index 要替换的位置。
+     * @param item  新的数据。
+     * @return 返回新的快照，当前快照不会被修改。
+     */
+    DataSnapshot<E> withReplaced(int index, E item) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int chunk = chunkOf(index);
+        int length = lengthOf(chunk);
+        Object[] copy = new Object[length];
+        System.arraycopy(mArrays[chunk], mStarts[chunk], copy, 0, length);
+        copy[index - mOffsets[chunk]] = item;
+        Object[][] arrays = mArrays.clone();
+        int[] starts = mStarts.clone();
+        arrays[chunk] = copy;
+        starts[chunk] = 0;
+        return new DataSnapshot<>(arrays, starts, mOffsets, null, null);
+    }
+
+    /**
+     * 获取交换两个位置的数据后的快照。
+     *
+     * @param i 第一个位置。
+     * @param j 第二个位置。
+     * @return 返回新的快照，当前快照不会被修改。
+     */
+    DataSnapshot<E> withSwapped(int i, int j) {
+        if (i == j) {
+            return this;
+        }
+        E item = get(i);
+        return withReplaced(i, get(j)).withReplaced(j, item);
+    }
+
+    /**
+     * 获取将数据从一个位置移动到另一个位置后的快照，两个位置之间的数据会依次向前或向后挪动一位。
+     *
+     * @param fromPosition 移动前的位置。
+     * @param toPosition   移动后的位置。
+     * @return 返回新的快照，当前快照不会被修改。
+     */
+    DataSnapshot<E> withMoved(int fromPosition, int toPosition) {
+        if (fromPosition == toPosition) {
+            return this;
+        }
+        if (Math.abs(fromPosition - toPosition) == 1) {
+            //相邻位置的移动就是交换，只需要复制所在的数据块，不需要重建偏移量，拖拽时绝大多数的移动都是这种情况。
+            return withSwapped(fromPosition, toPosition);
+        }
+        E item = get(fromPosition);
+        return withRemoved(fromPosition, 1).withInserted(toPosition, Collections.singletonList(item));
+    }
+
+    private int lengthOf(int chunk) {
+        return mOffsets[chunk + 1] - mOffsets[chunk];
+    }
+
+    /**
+     * 二分查找指定位置所在的数据块。
+     */
+    private int chunkOf(int index) {
+        int low = 0;
+        int high = mArrays.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mOffsets[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 用来拼装新快照的数据块索引。
+     */
+    private static class Builder {
+        private Object[][] arrays;
+        private int[] starts;
+        private int[] offsets;
+        private int count;
+
+        Builder(int capacity) {
+            capacity = Math.max(capacity, 4);
+            arrays = new Object[capacity][];
+            starts = new int[capacity];
+            offsets = new int[capacity + 1];
+        }
+
+        void addChunks(DataSnapshot<?> snapshot, int from, int to) {
+            for (int i = from; i < to; i++) {
+                addSlice(snapshot.mArrays[i], snapshot.mStarts[i], snapshot.lengthOf(i));
+            }
+        }
+
+        void addSlices(Object[] array, int start, int length) {
+            for (int i = 0; i < length; i += CHUNK_SIZE) {
+                addSlice(array, start + i, Math.min(CHUNK_SIZE, length - i));
+            }
+        }
+
+        void addSlice(Object[] array, int start, int length) {
+            if (length <= 0) {
+                return;
+            }
+            if (count == arrays.length) {
+                arrays = Arrays.copyOf(arrays, count << 1);
+                starts = Arrays.copyOf(starts, count << 1);
+                offsets = Arrays.copyOf(offsets, (count << 1) + 1);
+            }
+            arrays[count] = array;
+            starts[count] = start;
+            offsets[count + 1] = offsets[count] + length;
+            count++;
+        }
+
+        @SuppressWarnings("unchecked")
+        <E> DataSnapshot<E> build() {
+            if (count == 0) {
+                return empty();
+            }
+            if (count < arrays.length) {
+                arrays = Arrays.copyOf(arrays, count);
+                starts = Arrays.copyOf(starts, count);
+                offsets = Arrays.copyOf(offsets, count + 1);
+            }
+            return new DataSnapshot<>(arrays, starts, offsets, null, null);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.kelin.recycleradapter;
+
+import android.os.Process;
+import android.support.annotation.NonNull;
+import android.support.annotation.Size;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 描述 所有适配器共用的用来执行DiffUtil比较任务的线程池。
+ * <p>无论有多少个适配器，线程数都不会超过构造时指定的数量，线程会以后台优先级运行并且在空闲一段时间后自动退出。
+ * 每个适配器通过 {@link #newSerialExecutor()} 获取自己的串行队列，同一个适配器的任务总是按顺序执行的。
+ * <p>默认使用 {@link #getDefault()} 返回的全局实例，可以通过 {@link #setDefault(DiffExecutor)} 修改全局实例，
+ * 也可以通过 {@link SuperAdapter#setDiffExecutor(DiffExecutor)} 为某个适配器单独指定。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午4:30
+ * 版本 v 1.0.0
+ */
+public final class DiffExecutor {
+
+    /**
+     * 空闲线程的存活时间。
+     */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+    private static volatile DiffExecutor sDefault;
+    private final ThreadPoolExecutor mExecutor;
+    private final int mThreadCount;
+
+    /**
+     * 构造方法。线程以 {@link Process#THREAD_PRIORITY_BACKGROUND} 优先级运行。
+     *
+     * @param threadCount 最大线程数。
+     */
+    public DiffExecutor(@Size(min = 1) int threadCount) {
+        this(threadCount, Process.THREAD_PRIORITY_BACKGROUND);
+    }
+
+    /**
+     * 构造方法。
+     *
+     * @param threadCount    最大线程数。
+     * @param threadPriority 线程的优先级，取值为 {@link Process} 中的 THREAD_PRIORITY_* 常量。
+     */
+    public DiffExecutor(@Size(min = 1) int threadCount, final int threadPriority) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("the threadCount argument must be an integer greater than zero");
+        }
+        mExecutor = new ThreadPoolExecutor(threadCount, threadCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger mCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NonNull final Runnable r) {
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(threadPriority);
+                        r.run();
+                    }
+                }, "DiffExecutor #" + mCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        mExecutor.allowCoreThreadTimeOut(true);
+        mThreadCount = threadCount;
+    }
+
+    /**
+     * 获取全局的实例，如果没有设置过则创建一个线程数为CPU核心数的一半(至少为1)的实例。
+     */
+    public static DiffExecutor getDefault() {
+        DiffExecutor executor = sDefault;
+        if (executor == null) {
+            synchronized (DiffExecutor.class) {
+                executor = sDefault;
+                if (executor == null) {
+                    sDefault = executor = new DiffExecutor(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 设置全局的实例，只会影响在这之后创建的适配器。
+     *
+     * @param executor 新的全局实例。
+     */
+    public static void setDefault(@NonNull DiffExecutor executor) {
+        sDefault = executor;
+    }
+
+    /**
+     * 获取最大线程数。
+     */
+    int getThreadCount() {
+        return mThreadCount;
+    }
+
+    /**
+     * 直接在线程池中执行一个任务，不经过任何串行队列。
+     *
+     * @param task 要执行的任务。
+     */
+    void execute(Runnable task) {
+        mExecutor.execute(task);
+    }
+
+    /**
+     * 创建一个串行队列，提交到该队列中的任务会在线程池中按顺序逐个执行。
+     */
+    Executor newSerialExecutor() {
+        return new SerialExecutor();
+    }
+
+    /**
+     * 串行队列，任何时候最多只有一个任务被提交到线程池中。
+     */
+    private class SerialExecutor implements Executor {
+        private final ArrayDeque<Runnable> mTasks = new ArrayDeque<>();
+        private Runnable mActive;
+
+        @Override
+        public synchronized void execute(@NonNull final Runnable r) {
+            mTasks.offer(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        r.run();
+                    } finally {
+                        scheduleNext();
+                    }
+                }
+            });
+            if (mActive == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            if ((mActive = mTasks.poll()) != null) {
+                mExecutor.execute(mActive);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.kelin.recycleradapter;
+
+/**
+ * 描述 一次条目拖拽过程中的位置映射。
+ * <p>{@link android.support.v7.widget.helper.ItemTouchHelper} 每次只会移动被拖拽的那一个条目，其他条目之间的相对顺序不会改变，
+ * 所以只需要记录被拖拽条目的起始位置和当前位置就可以算出列表中任意位置所对应的数据索引。拖拽过程中数据集合保持不变，
+ * 松手后再通过一次移动把最终的顺序写入数据集合。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:10
+ * 版本 v 1.0.0
+ */
+final class DragSession {
+
+    /**
+     * 被拖拽的条目在数据集合中的位置。
+     */
+    private final int mFromPosition;
+    /**
+     * 被拖拽的条目在列表中的当前位置。
+     */
+    private int mToPosition;
+
+    DragSession(int position) {
+        mFromPosition = position;
+        mToPosition = position;
+    }
+
+    /**
+     * 记录一次移动。
+     *
+     * @param fromPosition 移动前的位置。
+     * @param toPosition   移动后的位置。
+     * @return 如果移动的不是被拖拽的条目则返回false，这时记录不会被修改。
+     */
+    boolean move(int fromPosition, int toPosition) {
+        if (fromPosition != mToPosition) {
+            return false;
+        }
+        mToPosition = toPosition;
+        return true;
+    }
+
+    /**
+     * 被拖拽的条目是否离开了起始位置。
+     */
+    boolean isMoved() {
+        return mFromPosition != mToPosition;
+    }
+
+    int getFromPosition() {
+        return mFromPosition;
+    }
+
+    int getToPosition() {
+        return mToPosition;
+    }
+
+    /**
+     * 获取列表中某个位置的条目在数据集合中的索引。
+     *
+     * @param position 列表中的位置。
+     */
+    int indexOf(int position) {
+        if (position == mToPosition) {
+            return mFromPosition;
+        }
+        if (mFromPosition < mToPosition && position >= mFromPosition && position < mToPosition) {
+            return position + 1;
+        }
+        if (mToPosition < mFromPosition && position > mToPosition && position <= mFromPosition) {
+            return position - 1;
+        }
+        return position;
+    }
+}
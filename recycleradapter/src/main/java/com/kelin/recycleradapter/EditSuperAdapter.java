@@ -3,24 +3,26 @@ package com.kelin.recycleradapter;
 import android.os.Bundle;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.annotation.Size;
 import android.support.v7.widget.RecyclerView;
-import android.view.LayoutInflater;
-import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.LinearLayout;
 
-import com.kelin.recycleradapter.holder.ItemLayout;
+import com.kelin.recycleradapter.callback.ChangePayload;
+import com.kelin.recycleradapter.callback.RenderModelPreparer;
 import com.kelin.recycleradapter.holder.ItemViewHolder;
+import com.kelin.recycleradapter.holder.ViewHolderFactory;
 import com.kelin.recycleradapter.interfaces.AdapterEdit;
 import com.kelin.recycleradapter.interfaces.EventBindInterceptor;
 import com.kelin.recycleradapter.interfaces.EventInterceptor;
 import com.kelin.recycleradapter.interfaces.Orientation;
+import com.kelin.recycleradapter.interfaces.PageSource;
 
-import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -37,6 +39,10 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
      * 当前适配器中的ViewHolder对象。
      */
     private VH mViewHolder;
+    /**
+     * 用来创建ViewHolder的工厂。
+     */
+    private ViewHolderFactory<VH> mHolderFactory;
     /**
      * 用来存放ViewHolder的字节码对象。
      */
@@ -66,12 +72,8 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
         }
         mItemSpanSize = spanSize <= 0 ? SPAN_SIZE_FULL_SCREEN : spanSize;
         mHolderClass = holderClass;
-        ItemLayout annotation = holderClass.getAnnotation(ItemLayout.class);
-        if (annotation != null) {
-            mRootLayoutId = annotation.value();
-        } else {
-            throw new RuntimeException("view holder's root layout is not found! You must use \"@ItemLayout(rootLayoutId = @LayoutRes int)\" notes on your ItemViewHolder class");
-        }
+        mHolderFactory = ViewHolderFactories.of(holderClass);
+        mRootLayoutId = mHolderFactory.getLayoutId();
 
         setDataList(list);
     }
@@ -86,17 +88,53 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
         return mRootLayoutId;
     }
 
+    /**
+     * 进入分页模式，列表的数据由 {@link PageSource} 分页提供，之前的数据会被清空，然后立即加载第一页。
+     * <p>滑动到列表末尾时会通过加载更多的方式加载下一页，所以必须先调用 setLoadMoreView 方法设置加载更多的布局，
+     * 这时 {@link OnLoadMoreListener} 不会再被回调，加载中、失败重试和没有更多数据的状态都由适配器自动处理。
+     * <p>内存中最多只保留可见页附近的 maxPagesInMemory 页数据，其余页中的条目会以null占位，重新靠近可见区域时再重新加载，
+     * 所以ViewHolder的 onBindData 方法需要能够处理null。分页模式下不能再通过 addItem、removeItem 等方法直接修改数据，
+     * 调用 {@link #setDataList(List)} 会退出分页模式。
+     *
+     * @param source           分页的数据源。
+     * @param maxPagesInMemory 内存中最多保留的页数，最少为3页。
+     */
+    public <K> void setPageSource(@NonNull PageSource<K, D> source, @Size(min = 3) int maxPagesInMemory) {
+        setPagedDataList(new PagedDataList<>(this, source, maxPagesInMemory));
+    }
+
+    /**
+     * 设置渲染模型的计算器，用来把绑定数据时比较耗时的工作放到后台线程。
+     * <p>数据通过 addItem、addAll 加入后会在后台线程为这些条目调用 {@link RenderModelPreparer#prepare(Object)}，
+     * {@link #notifyRefresh()} 的比较完成后以及列表滑动时则是为可见区域附近的条目调用。
+     * 绑定时ViewHolder的 onBindPreparedData 方法会收到对应的渲染模型，
+     * 局部绑定(onBindPartData)不会收到渲染模型。渲染模型按条目缓存，条目的数据被替换后只有 {@link #areContentsTheSame(Object, Object)}
+     * 返回false时才会重新计算，所以如果直接修改了某个数据对象的内容，需要通过新的对象替换它。渲染模型以
+     * {@link RenderModelPreparer#getItemKey(Object)} 为键缓存，最多缓存 1024 个条目，条目被移除时对应的渲染模型会被丢弃。
+     *
+     * @param preparer 渲染模型的计算器，为null时恢复为直接调用ViewHolder的 onBindData 方法。
+     */
+    public void setRenderModelPreparer(@Nullable RenderModelPreparer<D, ?> preparer) {
+        super.setRenderModelPreparer(preparer);
+    }
+
+    /**
+     * 在后台线程预先加载条目布局，之后创建ViewHolder时会优先使用预先加载好的布局。适合在设置数据之前调用，
+     * 可以通过 {@link #getPrewarmHitCount()} 和 {@link #getPrewarmMissCount()} 查看效果。
+     *
+     * @param count 希望预先加载的个数，一般为一屏能够显示的条目数。
+     */
+    public void prewarmViewHolders(@Size(min = 1) int count) {
+        prewarmItemView(mRootLayoutId, count);
+    }
+
     @Override
     public VH onCreateViewHolder(ViewGroup parent, int viewType) {
+        long start = startTrace();
         VH holder;
-        View itemView = viewType == TYPE_EMPTY_ITEM ? getEmptyView() : mLMM != null && viewType == mLMM.getItemLayoutId() ? mLMM.getLayoutView(parent, getLoadMoreRetryClickListener()) : LayoutInflater.from(parent.getContext()).inflate(viewType, parent, false);
-        try {
-            Constructor<? extends VH> constructor = mHolderClass.getDeclaredConstructor(View.class);
-            constructor.setAccessible(true);
-            holder = constructor.newInstance(itemView);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        View itemView = viewType == TYPE_EMPTY_ITEM ? getEmptyView() : mLMM != null && viewType == mLMM.getItemLayoutId() ? mLMM.getLayoutView(parent, getLoadMoreRetryClickListener()) : inflateItemView(parent, viewType);
+        holder = mHolderFactory.create(itemView);
+        markViewHolderOwner(holder);
         if (viewType != TYPE_EMPTY_ITEM) {
             if (holder != null) {
                 mViewHolder = holder;
@@ -106,9 +144,23 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
                 throw new RuntimeException("view holder's root layout is not found! You must use \"@ItemLayout(rootLayoutId = @LayoutRes int)\" notes on your ItemViewHolder class");
             }
         }
+        traceCreate(viewType, start);
         return holder;
     }
 
+    @Override
+    boolean registerViewTypes(SharedViewPool pool) {
+        return pool.register(mRootLayoutId, mHolderClass);
+    }
+
+    @Override
+    void onViewHolderAdopted(VH holder) {
+        if (mViewHolder == null) {
+            mViewHolder = holder;
+        }
+        bindItemClickEvent(holder);
+    }
+
     /**
      * 设置事件绑定拦截器。
      *
@@ -119,7 +171,7 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
         mEventInterceptor = interceptor;
     }
 
-    private void bindItemClickEvent(final VH viewHolder) {
+    private void bindItemClickEvent(VH viewHolder) {
         View.OnClickListener onClickListener = onGetClickListener(viewHolder);
 
         View clickView;
@@ -141,15 +193,7 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
 
         //悬浮条目不允许拖拽，只有item==viewHolder才不是悬浮条的监听。
         if (viewHolder.getDragHandleViewId() != 0) {
-            viewHolder.getView(viewHolder.getDragHandleViewId()).setOnTouchListener(new View.OnTouchListener() {
-                @Override
-                public boolean onTouch(View v, MotionEvent event) {
-                    if (v.getId() == viewHolder.getDragHandleViewId()) {
-                        startDrag(viewHolder);
-                    }
-                    return false;
-                }
-            });
+            viewHolder.getView(viewHolder.getDragHandleViewId()).setOnTouchListener(getDragHandleTouchListener());
         }
     }
 
@@ -176,6 +220,8 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
 
     /**
      * 当需要给ViewHolder绑定事件的时候调用。
+     * <p>每创建一个ViewHolder都会调用一次，可以为所有的ViewHolder返回同一个监听，在监听中通过 {@link RecyclerView#findContainingViewHolder(View)}
+     * 找到被点击的ViewHolder，这样就不需要为每个ViewHolder都创建监听对象了。
      * @param viewHolder 当前要绑定事件的ViewHolder对象。
      */
     protected abstract View.OnClickListener onGetClickListener(VH viewHolder);
@@ -185,7 +231,8 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
 
     @Override
     protected boolean areContentsTheSame(D oldItemData, D newItemData) {
-        return mViewHolder.areContentsTheSame(oldItemData, newItemData);
+        //渲染模型可能在创建任何ViewHolder之前就在后台计算了，这时无法比较，当作内容不同处理。
+        return mViewHolder != null && mViewHolder.areContentsTheSame(oldItemData, newItemData);
     }
 
     @Override
@@ -198,6 +245,16 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
         mViewHolder.getChangePayload(oldItemData, newItemData, bundle);
     }
 
+    @Override
+    protected void getChangePayload(D oldItemData, D newItemData, ChangePayload payload) {
+        mViewHolder.getChangePayload(oldItemData, newItemData, payload);
+    }
+
+    @Override
+    protected long getItemKey(D d) {
+        return mViewHolder == null ? RecyclerView.NO_ID : mViewHolder.getStableId(d);
+    }
+
     /**
      * 在列表的末尾处添加一个条目。
      *
@@ -240,6 +297,7 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
     @Override
     public void addItem(int position, @NonNull D object, boolean refresh) {
         getDataList().add(position, object);
+        prepareRenderModels(Collections.singletonList(object));
         if (refresh) {
             notifyItemInserted(position);
         }
@@ -292,6 +350,7 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
         }
         boolean addAll = getDataList().addAll(positionStart, datum);
         if (addAll) {
+            prepareRenderModels(datum);
             if (refresh) {
                 notifyItemRangeInserted(positionStart, datum.size());
             }
@@ -322,6 +381,7 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
         if (!isEmptyList()) {
             D d = getDataList().remove(position);
             if (d != null) {
+                evictRenderModels(Collections.singletonList(d));
                 if (refresh) {
                     notifyItemRemoved(position);
                 }
@@ -359,6 +419,7 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
             if (position != -1) {
                 boolean remove = dataList.remove(object);
                 if (remove) {
+                    evictRenderModels(Collections.singletonList(object));
                     if (refresh) {
                         notifyItemRemoved(position);
                     }
@@ -400,6 +461,7 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
             }
             boolean removeAll = dataList.removeAll(temp);
             if (removeAll) {
+                evictRenderModels(temp);
                 if (refresh) {
                     notifyItemRangeRemoved(positionStart, itemCount);
                 }
@@ -432,6 +494,7 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
             int positionStart = dataList.indexOf(d);
             boolean removeAll = dataList.removeAll(datum);
             if (removeAll) {
+                evictRenderModels(datum);
                 if (refresh) {
                     notifyItemRangeRemoved(positionStart, datum.size());
                 }
@@ -457,6 +520,7 @@ public abstract class EditSuperAdapter<D, VH extends ItemViewHolder<D>> extends
         if (!isEmptyList()) {
             List<D> dataList = getDataList();
             int itemCount = dataList.size();
+            evictRenderModels(dataList);
             dataList.clear();
             if (refresh) {
                 notifyItemRangeRemoved(0, itemCount);
@@ -3,6 +3,7 @@ package com.kelin.recycleradapter;
 import android.os.Bundle;
 import android.support.annotation.NonNull;
 
+import com.kelin.recycleradapter.callback.ChangePayload;
 import com.kelin.recycleradapter.holder.ItemViewHolder;
 import com.kelin.recycleradapter.holder.ViewHelper;
 
@@ -36,6 +37,7 @@ public class FloatItemAdapter<D> extends SuperItemAdapter<D> {
     public void setItemData(D d, boolean refresh) {
         getDataList().clear();
         getDataList().add(d);
+        mAdapterDataObservable.reset();
         if (refresh) {
             mapNotifyItemChanged(0);
         }
@@ -54,16 +56,62 @@ public class FloatItemAdapter<D> extends SuperItemAdapter<D> {
         }
     }
 
+    @Override
+    public void onBindViewHolder(ItemViewHolder<D> holder, int position, @NonNull ChangePayload payload) {
+        super.onBindViewHolder(holder, position, payload);
+        if (mFloatLayoutBinder == null) {
+            mFloatLayoutBinder = holder;
+        }
+    }
+
     @Override
     public int getItemSpanSize() {
         return SPAN_SIZE_FULL_SCREEN;
     }
 
+    /**
+     * 获取用来为悬浮条绑定数据的ViewHolder。
+     */
+    ItemViewHolder<D> getFloatLayoutBinder() {
+        return mFloatLayoutBinder;
+    }
+
+    /**
+     * 为悬浮条绑定数据。
+     *
+     * @param floatViewHelper 悬浮条的帮助对象。
+     * @param d               要绑定的数据。
+     */
     void onBindFloatViewData(ViewHelper floatViewHelper, D d) {
         mFloatLayoutBinder.onBindFloatLayoutData(floatViewHelper, d);
+    }
+
+    /**
+     * 为悬浮条绑定事件，同一个悬浮布局只需要绑定一次，因为事件触发时会根据悬浮条当前的位置查找数据。
+     *
+     * @param floatViewHelper 悬浮条的帮助对象。
+     */
+    void bindFloatViewEvent(ViewHelper floatViewHelper) {
         bindItemClickEvent(floatViewHelper, mFloatLayoutBinder);
     }
 
+    /**
+     * 判断悬浮条上已经绑定的数据和要绑定的数据显示出来是否一样。
+     *
+     * @param bound 悬浮条上已经绑定的数据，可能是其他悬浮条目的数据。
+     * @param d     要绑定的数据。
+     */
+    @SuppressWarnings("unchecked")
+    boolean isSameFloatViewData(Object bound, D d) {
+        if (bound == d) {
+            return bound != null;
+        }
+        if (bound == null || d == null || bound.getClass() != d.getClass()) {
+            return false;
+        }
+        return mFloatLayoutBinder.areItemsTheSame((D) bound, d) && mFloatLayoutBinder.areContentsTheSame((D) bound, d);
+    }
+
     @Override
     public int getItemCount() {
         return 1;
@@ -9,7 +9,6 @@ import com.kelin.recycleradapter.interfaces.AdapterEdit;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -61,6 +60,9 @@ public class ItemAdapter<D> extends SuperItemAdapter<D> implements AdapterEdit<D
      */
     public void setDataList(List<D> list) {
         mDataList = list != null ? list : new ArrayList<D>();
+        //新的数据与拖拽前的数据没有关系，未完成的拖拽直接丢弃。
+        mDragSession = null;
+        mAdapterDataObservable.reset();
     }
 
     /**
@@ -105,7 +107,7 @@ public class ItemAdapter<D> extends SuperItemAdapter<D> implements AdapterEdit<D
     @Override
     public void addItem(int position, @NonNull D object, boolean refresh) {
         getDataList().add(position, object);
-        mAdapterDataObservable.add(position, object);
+        mAdapterDataObservable.add(position, 1);
         if (refresh) {
             mapNotifyItemInserted(position);
         }
@@ -158,7 +160,7 @@ public class ItemAdapter<D> extends SuperItemAdapter<D> implements AdapterEdit<D
         }
         boolean addAll = getDataList().addAll(positionStart, datum);
         if (addAll) {
-            mAdapterDataObservable.addAll(positionStart, datum);
+            mAdapterDataObservable.add(positionStart, datum.size());
             if (refresh) {
                 mapNotifyItemRangeInserted(positionStart, datum.size());
             }
@@ -189,7 +191,7 @@ public class ItemAdapter<D> extends SuperItemAdapter<D> implements AdapterEdit<D
         if (!isEmptyList()) {
             D d = getDataList().remove(position);
             if (d != null) {
-                mAdapterDataObservable.remove(d);
+                mAdapterDataObservable.remove(position, 1);
                 if (refresh) {
                     mapNotifyItemRemoved(position);
                 }
@@ -225,12 +227,10 @@ public class ItemAdapter<D> extends SuperItemAdapter<D> implements AdapterEdit<D
             List<D> dataList = getDataList();
             position = dataList.indexOf(object);
             if (position != -1) {
-                boolean remove = dataList.remove(object);
-                if (remove) {
-                    mAdapterDataObservable.remove(object);
-                    if (refresh) {
-                        mapNotifyItemRemoved(position);
-                    }
+                dataList.remove(position);
+                mAdapterDataObservable.remove(position, 1);
+                if (refresh) {
+                    mapNotifyItemRemoved(position);
                 }
             }
             return position;
@@ -263,14 +263,11 @@ public class ItemAdapter<D> extends SuperItemAdapter<D> implements AdapterEdit<D
             throw new IllegalArgumentException("the positionStart Arguments or itemCount Arguments must is greater than 0 integer");
         if (!isEmptyList()) {
             List<D> dataList = getDataList();
-            int positionEnd = positionStart + (itemCount = itemCount > dataList.size() ? dataList.size() : itemCount);
-            List<D> temp = new ArrayList<>();
-            for (int i = positionStart; i < positionEnd; i++) {
-                temp.add(dataList.get(i));
-            }
-            boolean removeAll = dataList.removeAll(temp);
-            if (removeAll) {
-                mAdapterDataObservable.removeAll(temp);
+            int positionEnd = Math.min(positionStart + itemCount, dataList.size());
+            if (positionEnd > positionStart) {
+                itemCount = positionEnd - positionStart;
+                dataList.subList(positionStart, positionEnd).clear();
+                mAdapterDataObservable.remove(positionStart, itemCount);
                 if (refresh) {
                     mapNotifyItemRangeRemoved(positionStart, itemCount);
                 }
@@ -298,14 +295,24 @@ public class ItemAdapter<D> extends SuperItemAdapter<D> implements AdapterEdit<D
     public void removeAll(@NonNull Collection<D> datum, boolean refresh) {
         if (!isEmptyList() && !datum.isEmpty()) {
             List<D> dataList = getDataList();
-            Iterator<D> iterator = datum.iterator();
-            D d = iterator.next();
-            int positionStart = dataList.indexOf(d);
-            boolean removeAll = dataList.removeAll(datum);
-            if (removeAll) {
-                mAdapterDataObservable.removeAll(datum);
-                if (refresh) {
-                    mapNotifyItemRangeRemoved(positionStart, datum.size());
+            //从后往前按连续的区间移除，这样每一段区间的位置都不会受到之前移除操作的影响。
+            int positionEnd = dataList.size();
+            while (positionEnd > 0) {
+                while (positionEnd > 0 && !datum.contains(dataList.get(positionEnd - 1))) {
+                    positionEnd--;
+                }
+                int positionStart = positionEnd;
+                while (positionStart > 0 && datum.contains(dataList.get(positionStart - 1))) {
+                    positionStart--;
+                }
+                if (positionEnd > positionStart) {
+                    int itemCount = positionEnd - positionStart;
+                    dataList.subList(positionStart, positionEnd).clear();
+                    mAdapterDataObservable.remove(positionStart, itemCount);
+                    if (refresh) {
+                        mapNotifyItemRangeRemoved(positionStart, itemCount);
+                    }
+                    positionEnd = positionStart;
                 }
             }
         }
@@ -328,10 +335,11 @@ public class ItemAdapter<D> extends SuperItemAdapter<D> implements AdapterEdit<D
     public void clear(boolean refresh) {
         if (!isEmptyList()) {
             List<D> dataList = getDataList();
+            int itemCount = dataList.size();
             dataList.clear();
-            mAdapterDataObservable.removeAll(dataList);
+            mAdapterDataObservable.remove(0, itemCount);
             if (refresh) {
-                mapNotifyItemRangeRemoved(0, dataList.size());
+                mapNotifyItemRangeRemoved(0, itemCount);
             }
         }
     }
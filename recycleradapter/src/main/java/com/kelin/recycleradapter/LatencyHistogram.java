@@ -0,0 +1,89 @@
+package com.kelin.recycleradapter;
+
+import android.support.annotation.FloatRange;
+
+import java.util.Arrays;
+
+/**
+ * 描述 耗时的统计，以环形缓冲区保存最近的若干次耗时，单位纳秒。
+ * <p>记录耗时不会创建任何对象，只有在查询百分位数时才会复制一份最近的耗时并排序，所以适合在绑定这样的高频路径上记录，
+ * 再在空闲时查询并上报。所有方法都是线程安全的。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:58
+ * 版本 v 1.0.0
+ */
+public final class LatencyHistogram {
+
+    private final long[] mSamples;
+    /**
+     * 下一次记录的耗时在缓冲区中的位置。
+     */
+    private int mNext;
+    /**
+     * 一共记录过的次数，包括已经被覆盖掉的。
+     */
+    private long mCount;
+    /**
+     * 一共记录过的耗时的总和，包括已经被覆盖掉的。
+     */
+    private long mTotalNanos;
+
+    LatencyHistogram(int capacity) {
+        mSamples = new long[capacity];
+    }
+
+    /**
+     * 记录一次耗时。
+     *
+     * @param nanos 耗时，单位纳秒。
+     */
+    synchronized void record(long nanos) {
+        mSamples[mNext] = nanos;
+        mNext = mNext + 1 == mSamples.length ? 0 : mNext + 1;
+        mCount++;
+        mTotalNanos += nanos;
+    }
+
+    /**
+     * 获取一共记录过的次数。
+     */
+    public synchronized long getCount() {
+        return mCount;
+    }
+
+    /**
+     * 获取所有记录过的耗时的平均值，单位纳秒。
+     */
+    public synchronized long getMeanNanos() {
+        return mCount == 0 ? 0 : mTotalNanos / mCount;
+    }
+
+    /**
+     * 获取最近的耗时的百分位数，例如0.5表示中位数，0.99表示P99。
+     *
+     * @param percentile 百分位，取值为0~1之间(包含)。
+     * @return 返回耗时，单位纳秒，没有记录过时返回0。
+     */
+    public long getPercentileNanos(@FloatRange(from = 0, to = 1) float percentile) {
+        long[] samples;
+        synchronized (this) {
+            int size = (int) Math.min(mCount, mSamples.length);
+            if (size == 0) {
+                return 0;
+            }
+            samples = Arrays.copyOf(mSamples, size);
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(Math.max(0, Math.min(1, percentile)) * samples.length) - 1;
+        return samples[Math.max(index, 0)];
+    }
+
+    /**
+     * 清空所有记录。
+     */
+    synchronized void reset() {
+        mNext = 0;
+        mCount = 0;
+        mTotalNanos = 0;
+    }
+}
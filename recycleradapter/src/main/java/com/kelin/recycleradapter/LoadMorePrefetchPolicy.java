@@ -0,0 +1,81 @@
+package com.kelin.recycleradapter;
+
+import android.os.SystemClock;
+
+/**
+ * 描述 根据滚动速度预测何时触发加载更多的策略。
+ * <p>根据最近的滚动速度和可见条目的平均尺寸估算滚动到列表末尾还需要多长时间，当这个时间不超过设置的提前量时就触发加载更多，
+ * 这样快速滑动时会更早地开始加载，慢速滑动时也不会过早地加载。所有方法都必须在主线程调用。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午10:20
+ * 版本 v 1.0.0
+ */
+final class LoadMorePrefetchPolicy {
+
+    /**
+     * 速度的平滑系数，越大越依赖最近一次的速度。
+     */
+    private static final float SMOOTHING = 0.3f;
+    /**
+     * 希望提前多长时间触发加载更多，单位毫秒。
+     */
+    private final long mLeadTimeMillis;
+    /**
+     * 平滑后的滚动速度，单位像素/毫秒，正数表示向列表末尾滚动。
+     */
+    private float mVelocity;
+    private long mLastScrollTime;
+
+    LoadMorePrefetchPolicy(long leadTimeMillis) {
+        mLeadTimeMillis = leadTimeMillis;
+    }
+
+    /**
+     * 列表滚动时调用，用来更新滚动速度。
+     *
+     * @param delta 本次滚动的距离，正数表示向列表末尾滚动。
+     */
+    void onScrolled(int delta) {
+        //布局时也会回调滚动事件，这时的距离为0，不能算作速度。
+        if (delta == 0) {
+            return;
+        }
+        long now = SystemClock.uptimeMillis();
+        if (mLastScrollTime != 0) {
+            float velocity = (float) delta / Math.max(now - mLastScrollTime, 1);
+            mVelocity = mVelocity == 0 ? velocity : mVelocity + (velocity - mVelocity) * SMOOTHING;
+        }
+        mLastScrollTime = now;
+    }
+
+    /**
+     * 列表停止滚动时调用。
+     */
+    void onScrollIdle() {
+        mVelocity = 0;
+        mLastScrollTime = 0;
+    }
+
+    /**
+     * 是否正在向列表末尾滚动。
+     */
+    boolean isScrollingToEnd() {
+        return mVelocity > 0;
+    }
+
+    /**
+     * 判断按照当前的速度是否已经需要触发加载更多了。
+     *
+     * @param remainingCount    最后一个可见条目之后还有多少个条目。
+     * @param extentPerPosition 平均每个条目占用的像素数。
+     */
+    boolean shouldLoadMore(int remainingCount, float extentPerPosition) {
+        if (remainingCount <= 0) {
+            return true;
+        }
+        if (mVelocity <= 0 || extentPerPosition <= 0) {
+            return false;
+        }
+        return remainingCount * extentPerPosition / mVelocity <= mLeadTimeMillis;
+    }
+}
@@ -0,0 +1,45 @@
+package com.kelin.recycleradapter;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 描述 把任务切换到主线程执行的执行器。
+ * <p>需要在后台线程计算、在主线程交付结果的组件通过构造参数接收一个 {@link Executor}，默认传入该类的实例，
+ * 这样单元测试中就可以换成同步或手动执行的执行器。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:40
+ * 版本 v 1.0.0
+ */
+final class MainThreadExecutor implements Executor {
+
+    private static volatile MainThreadExecutor sInstance;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private MainThreadExecutor() {
+    }
+
+    /**
+     * 获取全局共用的实例。
+     */
+    static MainThreadExecutor get() {
+        MainThreadExecutor executor = sInstance;
+        if (executor == null) {
+            synchronized (MainThreadExecutor.class) {
+                executor = sInstance;
+                if (executor == null) {
+                    sInstance = executor = new MainThreadExecutor();
+                }
+            }
+        }
+        return executor;
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        mHandler.post(command);
+    }
+}
@@ -5,24 +5,31 @@ import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.GradientDrawable;
 import android.os.Bundle;
-import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.annotation.Size;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.helper.ItemTouchHelper;
+import android.util.Log;
+import android.util.SparseArray;
+import android.view.Choreographer;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.LinearLayout;
 
+import com.kelin.recycleradapter.callback.ChangePayload;
+import com.kelin.recycleradapter.callback.RenderModelPreparer;
+import com.kelin.recycleradapter.diff.DiffCallback;
+import com.kelin.recycleradapter.diff.DiffResult;
 import com.kelin.recycleradapter.holder.CommonNoDataViewHolder;
 import com.kelin.recycleradapter.holder.ItemViewHolder;
 import com.kelin.recycleradapter.holder.ViewHelper;
 import com.kelin.recycleradapter.interfaces.Orientation;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,10 +43,30 @@ import java.util.Map;
 
 public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object>> {
 
+    private static final String TAG = "MultiTypeAdapter";
     /**
      * 用来存放不同数据模型的 {@link ItemViewHolder}。不同数据模型的 {@link ItemViewHolder} 只会被存储一份，且是最初创建的那个。
      */
     private Map<Class, ItemViewHolder> mItemViewHolderMap = new HashMap<>();
+    /**
+     * 稳定ID中留给数据模型自己的稳定ID的位数，其余的高位(符号位除外)用来存放子Adapter的条目类型的编号。
+     * <p>55位的稳定ID加上8位的类型编号正好用完63位，所以生成的ID总是非负数，不会与 {@link RecyclerView#NO_ID}、
+     * {@link #ID_EMPTY_ITEM} 以及 {@link #ID_LOAD_MORE_ITEM} 重复。
+     */
+    private static final int STABLE_ID_BITS = 55;
+    /**
+     * 数据模型的稳定ID的最大值。
+     */
+    private static final long MAX_STABLE_ID = (1L << STABLE_ID_BITS) - 1;
+    /**
+     * 启用稳定ID时最多支持的条目类型数。
+     */
+    private static final int MAX_TYPE_COUNT = 1 << (63 - STABLE_ID_BITS);
+    /**
+     * 已经编号的条目类型，下标就是类型的编号。只在添加子Adapter时读写。
+     */
+    private int[] mItemViewTypes = new int[8];
+    private int mItemViewTypeCount;
     /**
      * 子条目数据变化的观察者。
      */
@@ -68,7 +95,36 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
      * 子条目的对象池。
      */
     private ChildAdapterPool mPool = new ChildAdapterPool();
+    /**
+     * 是否按子Adapter分段比较新旧数据。
+     */
+    private volatile boolean mPartitionedDiffEnabled;
     private FloatLayout.OnSizeChangedListener mFloatLayoutSizeChangedListener;
+    /**
+     * 每个悬浮布局的绑定状态，以布局资源ID为键。
+     */
+    private SparseArray<FloatBindState> mFloatBindStates = new SparseArray<>();
+    /**
+     * 等待在下一帧绑定事件的悬浮布局的绑定状态。
+     */
+    private FloatBindState mPendingFloatBindState;
+    /**
+     * 正在拖拽的条目所在的子Adapter。
+     */
+    private SuperItemAdapter mDragAdapter;
+    private boolean mFloatEventCallbackPosted;
+    private Choreographer.FrameCallback mFloatEventCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mFloatEventCallbackPosted = false;
+            FloatBindState state = mPendingFloatBindState;
+            mPendingFloatBindState = null;
+            if (state != null && !state.eventBound) {
+                state.eventBound = true;
+                state.adapter.bindFloatViewEvent(mFloatViewHelper);
+            }
+        }
+    };
 
     /**
      * 构造方法。
@@ -104,6 +160,7 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
      */
     public MultiTypeAdapter(@NonNull RecyclerView recyclerView, @Size(min = 1, max = 100) int totalSpanSize, @Orientation int orientation) {
         super(recyclerView, totalSpanSize, orientation);
+        setDataList(new ChildDataList());
         ViewGroup parent = (ViewGroup) recyclerView.getParent();
         int childCount = parent.getChildCount();
         if (childCount > 1) {
@@ -178,17 +235,35 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
     public boolean onItemMove(int fromPosition, int toPosition) {
         if (mDragEnable) {
             SuperItemAdapter itemAdapter = getChildAdapterByPosition(fromPosition);
-            return toPosition >= itemAdapter.firstItemPosition && toPosition <= itemAdapter.lastItemPosition && itemAdapter.onItemMove(fromPosition - itemAdapter.firstItemPosition, toPosition - itemAdapter.firstItemPosition);
+            int firstItemPosition = itemAdapter.getFirstItemPosition();
+            return toPosition >= firstItemPosition && toPosition <= itemAdapter.getLastItemPosition() && itemAdapter.onItemMove(fromPosition - firstItemPosition, toPosition - firstItemPosition);
         } else {
             return false;
         }
     }
 
+    @Override
+    void startDragSession(int position) {
+        commitDragSession();
+        SuperItemAdapter itemAdapter = getChildAdapterByPosition(position);
+        itemAdapter.startDragSession(position - itemAdapter.getFirstItemPosition());
+        mDragAdapter = itemAdapter;
+    }
+
+    @Override
+    void commitDragSession() {
+        if (mDragAdapter != null) {
+            SuperItemAdapter itemAdapter = mDragAdapter;
+            mDragAdapter = null;
+            itemAdapter.commitDragSession();
+        }
+    }
+
     @Override
     public void onItemDismiss(int position) {
         if (mSwipedEnable) {
             SuperItemAdapter itemAdapter = getChildAdapterByPosition(position);
-            itemAdapter.onItemDismiss(position - itemAdapter.firstItemPosition);
+            itemAdapter.onItemDismiss(position - itemAdapter.getFirstItemPosition());
         }
     }
 
@@ -233,6 +308,8 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
 
     /**
      * 添加条目适配器 {@link SuperItemAdapter}。
+     * <p>如果当前使用了共用的池子，而新添加的子Adapter的条目类型与池子中已经注册的ViewHolder冲突，则会停止使用共用的池子并输出
+     * 一条警告日志，添加之后可以通过 {@link #isViewPoolShared()} 检查。
      *
      * @param adapters {@link SuperItemAdapter} 对象。
      * @see SuperItemAdapter#SuperItemAdapter(Class)
@@ -243,13 +320,16 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
     public MultiTypeAdapter addAdapter(@NonNull SuperItemAdapter... adapters) {
         for (SuperItemAdapter adapter : adapters) {
             adapter.registerObserver(mAdapterDataObserver);
-            mPool.release(adapter);
+            //加载更多的过程中添加的数据不同步到副本中，而是等到刷新的时候再通过比较新旧数据来插入。
+            mPool.release(adapter, mLMM == null || !mLMM.isInTheLoadMore());
+            adapter.typeIndex = indexOfItemViewType(adapter.getItemViewType());
             adapter.isAdded = true;
-            adapter.firstItemPosition = getDataList().size();
-            addDataList(adapter.getDataList());
-            adapter.lastItemPosition = getDataList().size() - 1;
             adapter.setParent(this);
         }
+        if (isViewPoolShared() && !registerViewTypes(SharedViewPool.getInstance(), Arrays.asList(adapters))) {
+            setViewPoolShared(false);
+            Log.w(TAG, "the view types of the added adapters conflict with the shared view pool, the shared view pool is disabled");
+        }
         return this;
     }
 
@@ -273,15 +353,35 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
      */
     public boolean removeAdapter(@NonNull SuperItemAdapter child, boolean refresh) {
         child.isAdded = false;
-        getDataList().removeAll(child.getDataList());
-        getOldDataList().removeAll(child.getDataList());
         boolean remove = mPool.remove(child);
         if (refresh && remove) {
-            notifyItemRangeChanged(child.firstItemPosition, child.getDataList().size());
+            notifyItemRangeChanged(child.detachedPosition, child.getDataList().size());
         }
         return remove;
     }
 
+    /**
+     * 在后台线程为所有已经添加的子Adapter预先加载条目布局，之后创建ViewHolder时会优先使用预先加载好的布局。
+     * 可以通过 {@link #getPrewarmHitCount()} 和 {@link #getPrewarmMissCount()} 查看效果。
+     *
+     * @param countPerType 每种条目希望预先加载的个数。
+     */
+    public void prewarmViewHolders(@Size(min = 1) int countPerType) {
+        for (SuperItemAdapter adapter : mPool.acquireAll()) {
+            prewarmItemView(adapter.getItemViewType(), countPerType);
+        }
+    }
+
+    /**
+     * 在后台线程为指定的ViewHolder预先加载条目布局，之后创建ViewHolder时会优先使用预先加载好的布局。
+     *
+     * @param holderClass ViewHolder的字节码对象。
+     * @param count       希望预先加载的个数。
+     */
+    public void prewarmViewHolders(@NonNull Class<? extends ItemViewHolder<?>> holderClass, @Size(min = 1) int count) {
+        prewarmItemView(ViewHolderFactories.of(holderClass).getLayoutId(), count);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public ItemViewHolder<Object> onCreateViewHolder(ViewGroup parent, int viewType) {
@@ -294,28 +394,43 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
         }
         SuperItemAdapter itemAdapter = mPool.acquireByType(viewType);
         if (itemAdapter != null) {
+            long start = startTrace();
             ItemViewHolder holder = itemAdapter.onCreateViewHolder(parent, viewType);
-            if (mFloatLayout != null && isFloatAdapter(itemAdapter)) {
-                if (mFloatLayoutSizeChangedListener == null) {
-                    mFloatLayoutSizeChangedListener = new FloatLayout.OnSizeChangedListener() {
-                        @Override
-                        public void onSizeChanged(int width, int height) {
-                            mFloatLayoutHeight = height;
-                        }
-                    };
-                    mFloatLayout.setOnSizeChangedListener(mFloatLayoutSizeChangedListener);
-                }
-                mFloatLayout.setFloatContent(viewType);
-            }
-            Class itemModelClass = itemAdapter.getItemModelClass();
-            if (!mItemViewHolderMap.containsKey(itemModelClass)) {
-                mItemViewHolderMap.put(itemModelClass, holder);
-            }
+            markViewHolderOwner(holder);
+            onChildViewHolderCreated(itemAdapter, holder, viewType);
+            traceCreate(viewType, start);
             return holder;
         }
         throw new RuntimeException("the viewType: " + viewType + " not found !");
     }
 
+    /**
+     * 当子Adapter创建了ViewHolder或者从共用的池子中取到了由其他适配器创建的ViewHolder时调用。
+     *
+     * @param itemAdapter ViewHolder所属的子Adapter。
+     * @param holder      ViewHolder对象。
+     * @param viewType    条目类型。
+     */
+    @SuppressWarnings("unchecked")
+    private void onChildViewHolderCreated(SuperItemAdapter itemAdapter, ItemViewHolder holder, int viewType) {
+        if (mFloatLayout != null && isFloatAdapter(itemAdapter)) {
+            if (mFloatLayoutSizeChangedListener == null) {
+                mFloatLayoutSizeChangedListener = new FloatLayout.OnSizeChangedListener() {
+                    @Override
+                    public void onSizeChanged(int width, int height) {
+                        mFloatLayoutHeight = height;
+                    }
+                };
+                mFloatLayout.setOnSizeChangedListener(mFloatLayoutSizeChangedListener);
+            }
+            mFloatLayout.setFloatContent(viewType);
+        }
+        Class itemModelClass = itemAdapter.getItemModelClass();
+        if (!mItemViewHolderMap.containsKey(itemModelClass)) {
+            mItemViewHolderMap.put(itemModelClass, holder);
+        }
+    }
+
     private boolean isFloatAdapter(SuperItemAdapter adapter) {
         return adapter instanceof FloatItemAdapter;
     }
@@ -336,9 +451,9 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
     @Override
     protected void onRecyclerViewScrolled(RecyclerView recyclerView, int dx, int dy, LinearLayoutManager lm) {
         //如果没有设置悬浮控件就不获取子适配器，这这里的逻辑就不会执行。
-        SuperItemAdapter itemAdapter = mFloatLayout == null ? null : getAdjacentChildAdapterByPosition(mCurPosition, true, false);
+        SuperItemAdapter itemAdapter = mFloatLayout == null ? null : mPool.acquireNextOf(mCurPosition);
         if (itemAdapter != null && isFloatAdapter(itemAdapter) && dy != 0) {
-            View view = lm.findViewByPosition(itemAdapter.firstItemPosition);
+            View view = lm.findViewByPosition(itemAdapter.getFirstItemPosition());
             if (view != null) {
                 if (isFirstFloatAbleChildAdapter(mCurPosition + 1) && isFloatLayoutShowing()) {
                     setFloatLayoutVisibility(false);
@@ -370,16 +485,12 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
         if (mCurPosition != first) {
             int max = Math.max(mCurPosition, first);
             int min = Math.min(mCurPosition, first);
-            //如果本次的位置和上一次的位置不是相邻的，那么就循环将跳过的位置进行更新。否则直接更新。
+            //如果本次的位置和上一次的位置不是相邻的，那么只有跳过的位置中最后一个需要绑定悬浮数据的条目才会生效，所以直接查找它。否则直接更新。
             if (max - min > 1) {
                 if (dy < 0) {
-                    for (int i = max - 1; i >= min; i--) {
-                        updateFloatLayout(dy, i);
-                    }
+                    updateFloatLayout(dy, min);
                 } else {
-                    for (int i = min + 1; i <= max; i++) {
-                        updateFloatLayout(dy, i);
-                    }
+                    bindFloatLayout(dy, mPool.acquireLastFloatAbleChildInRange(min + 1, max));
                 }
             } else {
                 updateFloatLayout(dy, first);
@@ -388,22 +499,83 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
         }
     }
 
-    @SuppressWarnings("unchecked")
     private void updateFloatLayout(int dy, int position) {
         SuperItemAdapter itemAdapter;
         if (dy < 0) {
-            itemAdapter = getAdjacentChildAdapterByPosition(position + 1, false, true);
+            itemAdapter = mPool.acquirePreviousFloatAbleChild(position + 1);
         } else {
             itemAdapter = getChildAdapterByPosition(position);
         }
-        if (itemAdapter != null && isFloatAdapter(itemAdapter) && mLastBindPosition != itemAdapter.firstItemPosition) {
+        bindFloatLayout(dy, itemAdapter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void bindFloatLayout(int dy, SuperItemAdapter itemAdapter) {
+        if (itemAdapter != null && isFloatAdapter(itemAdapter) && mLastBindPosition != itemAdapter.getFirstItemPosition()) {
             if (dy < 0) {
                 mFloatLayout.setY(-mFloatLayoutHeight);
             }
-            mLastBindPosition = itemAdapter.firstItemPosition;
+            mLastBindPosition = itemAdapter.getFirstItemPosition();
             mFloatLayout.upDateContentView(itemAdapter.getItemViewType()); //更新悬浮布局。
             mFloatLayout.setLayoutPosition(mLastBindPosition);
-            ((FloatItemAdapter) itemAdapter).onBindFloatViewData(mFloatViewHelper, getObject(mLastBindPosition));
+            renderFloatLayout((FloatItemAdapter) itemAdapter, getObject(mLastBindPosition), false);
+        }
+    }
+
+    /**
+     * 为悬浮条绑定数据和事件。
+     * <p>每个悬浮布局都会记录自己当前显示的数据，如果要绑定的数据显示出来是一样的就不再重新绑定，所以快速滑动时切换悬浮条
+     * 通常只需要切换布局。事件只有在悬浮布局第一次被某个子Adapter使用时才需要绑定，并且会推迟到下一帧再绑定，不占用当前帧的时间。
+     *
+     * @param itemAdapter 悬浮条目的子Adapter。
+     * @param d           要绑定的数据。
+     * @param force       是否忽略已经绑定的数据强制重新绑定。
+     */
+    @SuppressWarnings("unchecked")
+    private void renderFloatLayout(FloatItemAdapter itemAdapter, Object d, boolean force) {
+        ItemViewHolder binder = itemAdapter.getFloatLayoutBinder();
+        if (binder == null) {
+            return;
+        }
+        int layoutId = itemAdapter.getItemViewType();
+        FloatBindState state = mFloatBindStates.get(layoutId);
+        if (state == null) {
+            state = new FloatBindState();
+            mFloatBindStates.put(layoutId, state);
+        }
+        if (state.adapter != itemAdapter || state.binder != binder) {
+            state.adapter = itemAdapter;
+            state.binder = binder;
+            state.data = null;
+            state.eventBound = false;
+        }
+        if (force || !itemAdapter.isSameFloatViewData(state.data, d)) {
+            itemAdapter.onBindFloatViewData(mFloatViewHelper, d);
+            state.data = d;
+        }
+        //只有当前显示的悬浮布局才能绑定事件，所以只需要记录最后一个。
+        mPendingFloatBindState = state.eventBound ? null : state;
+        if (mPendingFloatBindState != null && !mFloatEventCallbackPosted) {
+            mFloatEventCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(mFloatEventCallback);
+        }
+    }
+
+    /**
+     * 使所有悬浮布局记录的数据失效，下一次显示时会重新绑定。
+     */
+    private void invalidateFloatBindStates() {
+        for (int i = 0; i < mFloatBindStates.size(); i++) {
+            mFloatBindStates.valueAt(i).data = null;
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (mFloatEventCallbackPosted) {
+            mFloatEventCallbackPosted = false;
+            Choreographer.getInstance().removeFrameCallback(mFloatEventCallback);
         }
     }
 
@@ -412,17 +584,33 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
     public void onBindViewHolder(ItemViewHolder<Object> holder, int position, List<Object> payloads) {
         //如果当前条目是LoadMoreItem或者是EmptyItem则不绑定数据。
         if (isEmptyItem(position) || isLoadMoreItem(position)) return;
+        long start = startTrace();
         SuperItemAdapter itemAdapter = mPool.acquireFromLayoutPosition(position);
-        if (payloads != null && !payloads.isEmpty() && payloads.get(0) instanceof Bundle) {
-            itemAdapter.onBindViewHolder(holder, position - itemAdapter.firstItemPosition, (Bundle) payloads.get(0));
+        if (adoptViewHolder(holder)) {
+            itemAdapter.bindItemClickEvent(null, holder);
+            onChildViewHolderCreated(itemAdapter, holder, holder.getItemViewType());
+        }
+        int firstItemPosition = itemAdapter.getFirstItemPosition();
+        boolean partial = false;
+        ChangePayload payload;
+        if (payloads == null || payloads.isEmpty()) {
+            itemAdapter.onBindViewHolder(holder, position - firstItemPosition, (Bundle) null);
+        } else if ((payload = ChangePayload.merge(payloads)) != null) {
+            itemAdapter.onBindViewHolder(holder, position - firstItemPosition, payload);
+            payload.recycle();
+            partial = true;
+        } else if (payloads.get(0) instanceof Bundle) {
+            itemAdapter.onBindViewHolder(holder, position - firstItemPosition, (Bundle) payloads.get(0));
+            partial = true;
         } else {
-            itemAdapter.onBindViewHolder(holder, position - itemAdapter.firstItemPosition, null);
+            itemAdapter.onBindViewHolder(holder, position - firstItemPosition, (Bundle) null);
         }
         if (mFloatLayout != null && position == 0 && isFloatAdapter(itemAdapter)) {
             mFloatLayout.setLayoutPosition(position);
             setFloatLayoutVisibility(true);
-            ((FloatItemAdapter) itemAdapter).onBindFloatViewData(mFloatViewHelper, getObject(itemAdapter.firstItemPosition));
+            renderFloatLayout((FloatItemAdapter) itemAdapter, getObject(firstItemPosition), true);
         }
+        traceBind(holder.getItemViewType(), start, partial);
     }
 
     @Override
@@ -456,7 +644,27 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
      * @param position 当前 {@link RecyclerView} 的position。
      */
     int getItemAdapterPosition(int position) {
-        return position - mPool.acquireFromLayoutPosition(position).firstItemPosition;
+        return position - mPool.acquireFromLayoutPosition(position).getFirstItemPosition();
+    }
+
+    /**
+     * 获取子适配器在列表中的起始位置。
+     *
+     * @param child 子适配器。
+     * @return 如果子适配器已经被移除了则返回它被移除时的起始位置。
+     */
+    int getChildFirstItemPosition(SuperItemAdapter child) {
+        return child.poolIndex < 0 ? child.detachedPosition : mPool.offsetOf(child.poolIndex);
+    }
+
+    /**
+     * 获取子适配器在列表中的结束位置。
+     *
+     * @param child 子适配器。
+     */
+    int getChildLastItemPosition(SuperItemAdapter child) {
+        int first = getChildFirstItemPosition(child);
+        return child.poolIndex < 0 ? first - 1 : first + mPool.sizeOf(child.poolIndex) - 1;
     }
 
     @Override
@@ -491,6 +699,71 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
         }
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void getChangePayload(Object oldItemData, Object newItemData, ChangePayload payload) {
+        if (oldItemData.getClass() != newItemData.getClass()) {
+            return;
+        }
+        ItemViewHolder viewHolder = getViewHolder(oldItemData.getClass());
+        if (viewHolder != null) {
+            viewHolder.getChangePayload(oldItemData, newItemData, payload);
+        }
+    }
+
+    /**
+     * 获取条目的唯一标识，也就是 {@link ItemViewHolder#getStableId(Object)} 的返回值。不同类型的数据模型的稳定ID可能会相同，
+     * 比较数据时唯一标识相同的条目还会比较数据模型的类型。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected long getItemKey(Object o) {
+        ItemViewHolder viewHolder = getViewHolder(o.getClass());
+        return viewHolder == null ? RecyclerView.NO_ID : viewHolder.getStableId(o);
+    }
+
+    /**
+     * 获取条目的稳定ID。不同类型的数据模型的稳定ID可能会相同，所以把子Adapter的条目类型的编号放在高8位，
+     * {@link ItemViewHolder#getStableId(Object)} 的返回值放在低55位，不需要额外的映射表。
+     * <p>稳定ID需要调用 {@link #setHasStableIds(boolean)} 手动启用，启用前请确保所有的 {@link ItemViewHolder} 都重写了
+     * {@link ItemViewHolder#getStableId(Object)} 方法并且返回值在 [0, 2^55) 之内，条目类型不超过256种。
+     *
+     * @param position 条目的位置。
+     */
+    @Override
+    public long getItemId(int position) {
+        long stableId = super.getItemId(position);
+        if (stableId == RecyclerView.NO_ID || stableId == ID_EMPTY_ITEM || stableId == ID_LOAD_MORE_ITEM) {
+            return stableId;
+        }
+        if (stableId < 0 || stableId > MAX_STABLE_ID) {
+            throw new IllegalArgumentException("the stable id must be in [0, 2^" + STABLE_ID_BITS + "), but was " + stableId);
+        }
+        int typeIndex = mPool.acquireFromLayoutPosition(position).typeIndex;
+        if (typeIndex >= MAX_TYPE_COUNT) {
+            throw new IllegalArgumentException("stable ids support at most " + MAX_TYPE_COUNT + " item view types");
+        }
+        return (long) typeIndex << STABLE_ID_BITS | stableId;
+    }
+
+    /**
+     * 获取条目类型的编号，没有编号的类型会分配一个新的编号。
+     *
+     * @param viewType 条目类型。
+     */
+    private int indexOfItemViewType(int viewType) {
+        for (int i = 0; i < mItemViewTypeCount; i++) {
+            if (mItemViewTypes[i] == viewType) {
+                return i;
+            }
+        }
+        if (mItemViewTypeCount == mItemViewTypes.length) {
+            mItemViewTypes = Arrays.copyOf(mItemViewTypes, mItemViewTypeCount * 2);
+        }
+        mItemViewTypes[mItemViewTypeCount] = viewType;
+        return mItemViewTypeCount++;
+    }
+
     /**
      * 根据Holder的数据模型类型获取 {@link ItemViewHolder} 对象。
      *
@@ -504,153 +777,239 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
     }
 
     /**
-     * 根据position获取相邻的子条目的Adapter。具体是获取前一个还是后一个由next参数决定。是否只获取可悬浮的由floatAble参数决定。
+     * 根据布局位置判断是否是第一个可悬浮的子Adapter。
+     *
+     * @param position 要判断的位置。
+     */
+    private boolean isFirstFloatAbleChildAdapter(int position) {
+        SuperItemAdapter itemAdapter = mPool.acquireFirstFloatAbleChild();
+        return itemAdapter != null && itemAdapter.getFirstItemPosition() <= position && itemAdapter.getLastItemPosition() >= position;
+    }
+
+    /**
+     * 设置渲染模型的计算器，用来把绑定数据时比较耗时的工作放到后台线程。
+     * <p>所有子Adapter共用同一个计算器，需要时可以在 {@link RenderModelPreparer#prepare(Object)} 中根据数据的类型分别处理。
+     * 刷新完成后以及滑动时会在后台为可见区域附近的条目计算渲染模型，完整绑定时ViewHolder的 onBindPreparedData 方法会收到
+     * 对应的渲染模型，局部绑定不会收到。渲染模型以 {@link RenderModelPreparer#getItemKey(Object)} 为键缓存，最多缓存 1024 个条目，
+     * 不同类型的数据的键也不应该相同，否则它们会在缓存中互相替换。
+     *
+     * @param preparer 渲染模型的计算器，为null时恢复为直接调用ViewHolder的 onBindData 方法。
+     */
+    public void setRenderModelPreparer(@Nullable RenderModelPreparer<Object, ?> preparer) {
+        super.setRenderModelPreparer(preparer);
+    }
+
+    /**
+     * 设置是否按子Adapter分段比较新旧数据，默认为不分段。
+     * <p>分段后每个子Adapter的数据会在 {@link DiffExecutor} 中并行比较，每一段的比较规模都只有该子Adapter的条目数，
+     * 适合子Adapter较多并且数据量较大的列表。只有当刷新前后所有的子Adapter都还在原来的位置上(允许在末尾追加新的子Adapter)时
+     * 才会分段比较，否则仍然整体比较。分段比较时跨越子Adapter的移动会被当作移除和插入。
+     *
+     * @param enabled 是否分段比较。
+     */
+    public void setPartitionedDiffEnabled(boolean enabled) {
+        mPartitionedDiffEnabled = enabled;
+    }
+
+    @Override
+    boolean registerViewTypes(SharedViewPool pool) {
+        return registerViewTypes(pool, mPool.acquireAll());
+    }
+
+    /**
+     * 将一组子Adapter的条目类型和ViewHolder注册到共用的池子中，有任何一个冲突时都不会注册。
      *
-     * @param position  当前的position索引。
-     * @param next      是否是获取后一个，true表示获取后一个，false表示获取前一个。
-     * @param floatAble 是否获取可悬浮的。
-     */
-    @CheckResult
-    private SuperItemAdapter getAdjacentChildAdapterByPosition(int position, boolean next, boolean floatAble) {
-        SuperItemAdapter adapter;
-        SuperItemAdapter lastFloatAbleAdapter = null;
-        boolean isContinue = false;
-        for (int i = 0; i < mPool.size(); i++) {
-            adapter = mPool.acquire(i);
-            if (isContinue && isFloatAdapter(adapter)) {
-                return adapter;
+     * @param pool     共用的池子。
+     * @param adapters 要注册的子Adapter。
+     * @return 如果有任何一个条目类型与已经注册的ViewHolder冲突则返回false。
+     */
+    private static boolean registerViewTypes(SharedViewPool pool, List<SuperItemAdapter> adapters) {
+        int[] viewTypes = new int[adapters.size()];
+        Class<?>[] holderClasses = new Class<?>[adapters.size()];
+        for (int i = 0; i < viewTypes.length; i++) {
+            viewTypes[i] = adapters.get(i).getItemViewType();
+            holderClasses[i] = adapters.get(i).getHolderClass();
+        }
+        return pool.register(viewTypes, holderClasses);
+    }
+
+    @Override
+    DataSnapshot<Object> createSnapshot() {
+        int[] segments = new int[mPool.size()];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = mPool.sizeOf(i);
+        }
+        return DataSnapshot.of(getDataList(), segments, mPool.owners());
+    }
+
+    @Override
+    DiffResult calculateDiff(DataSnapshot<Object> oldSnapshot, DataSnapshot<Object> newSnapshot, DiffCallback callback) {
+        if (mPartitionedDiffEnabled) {
+            int[] oldSegments = oldSnapshot.segments();
+            int[] newSegments = newSnapshot.segments();
+            Object[] oldOwners = oldSnapshot.segmentOwners();
+            Object[] newOwners = newSnapshot.segmentOwners();
+            if (oldSegments != null && newSegments != null && isPrefixOf(oldOwners, newOwners)) {
+                //在末尾追加的子Adapter在旧数据中的条目数都为0。
+                int[] oldSizes = Arrays.copyOf(oldSegments, newSegments.length);
+                return PartitionedDiff.calculateDiff(getDiffStrategy(), getDiffExecutor(), callback, oldSizes, newSegments);
             }
-            if (adapter.firstItemPosition <= position && adapter.lastItemPosition >= position) {
-                if (floatAble) {
-                    if (next) {
-                        isContinue = true;
-                        continue;
-                    } else {
-                        return lastFloatAbleAdapter;
-                    }
-                }
-                if (next) {
-                    if (i == mPool.size() - 1) {
-                        return null;
-                    } else {
-                        return mPool.acquire(i + 1);
-                    }
-                } else {
-                    if (i == 0) {
-                        return null;
-                    } else {
-                        return mPool.acquire(i - 1);
-                    }
-                }
-            } else {
-                if (isFloatAdapter(adapter)) {
-                    lastFloatAbleAdapter = adapter;
-                }
+        }
+        return super.calculateDiff(oldSnapshot, newSnapshot, callback);
+    }
+
+    private static boolean isPrefixOf(Object[] prefix, Object[] array) {
+        if (prefix.length > array.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (prefix[i] != array[i]) {
+                return false;
             }
         }
-        return null;
+        return true;
     }
 
     /**
-     * 根据布局位置判断是否是第一个可悬浮的子Adapter。
+     * 修改副本数据，并为其附加每个子Adapter在副本中的条目数，所以在调用之前必须先更新子Adapter在副本中的条目数。
      *
-     * @param position 要判断的位置。
+     * @param snapshot 修改后的副本。
      */
-    private boolean isFirstFloatAbleChildAdapter(int position) {
-        SuperItemAdapter itemAdapter = mPool.acquireFirstFloatAbleChild();
-        return itemAdapter != null && itemAdapter.firstItemPosition <= position && itemAdapter.lastItemPosition >= position;
+    private void setOldSnapshotWithSegments(DataSnapshot<Object> snapshot) {
+        setOldSnapshot(snapshot.withSegments(mPool.oldSegments(), mPool.owners()));
     }
 
-    private class ItemAdapterDataObserver implements SuperItemAdapter.AdapterDataObserver {
+    @Override
+    void onSnapshotDispatched(DataSnapshot<Object> snapshot) {
+        mPool.syncOldSizes(snapshot.segments());
+    }
+
+    /**
+     * 由所有子Adapter的数据集合拼接而成的只读视图，父Adapter不再单独保存一份数据，而是根据布局位置直接从对应的子Adapter中读取。
+     */
+    private class ChildDataList extends AbstractList<Object> {
 
         @Override
-        public void add(int position, Object o, SuperItemAdapter adapter) {
-            getDataList().add(position + adapter.firstItemPosition, o);
-            getOldDataList().add(position + adapter.firstItemPosition, o);
-            updateFirstAndLastPosition(adapter, 1, true);
+        public Object get(int index) {
+            int childIndex = mPool.indexOfLayoutPosition(index);
+            if (childIndex >= mPool.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            //拖拽过程中读取数据不能结束拖拽，所以不通过getDataList()读取。
+            return mPool.acquire(childIndex).getItem(index - mPool.offsetOf(childIndex));
+        }
+
+        @Override
+        public int size() {
+            return mPool.totalSize();
         }
 
         @Override
-        public void addAll(int firstPosition, Collection dataList, SuperItemAdapter adapter) {
-            boolean addAll = getDataList().addAll(firstPosition + adapter.firstItemPosition, dataList);
-            boolean oldAddAll = getOldDataList().addAll(firstPosition + adapter.firstItemPosition, dataList);
-            if (addAll && oldAddAll) {
-                updateFirstAndLastPosition(adapter, dataList.size(), true);
+        public Object[] toArray() {
+            Object[] array = new Object[size()];
+            int offset = 0;
+            for (int i = 0; i < mPool.size(); i++) {
+                List dataList = mPool.acquire(i).getDataList();
+                int size = mPool.sizeOf(i);
+                for (int j = 0; j < size; j++) {
+                    array[offset + j] = dataList.get(j);
+                }
+                offset += size;
             }
+            return array;
         }
+    }
+
+    /**
+     * 子Adapter数据变化的观察者。当前数据集直接由子Adapter提供，所以这里只需要更新子Adapter的条目数，并将变化同步到副本中。
+     */
+    private class ItemAdapterDataObserver implements SuperItemAdapter.AdapterDataObserver {
 
         @Override
-        public void remove(Object o, SuperItemAdapter adapter) {
-            boolean remove = getDataList().remove(o);
-            boolean oldRemove = getOldDataList().remove(o);
-            if (remove && oldRemove) {
-                updateFirstAndLastPosition(adapter, 1, false);
+        public void add(int positionStart, int itemCount, SuperItemAdapter adapter) {
+            mPool.updateSize(adapter);
+            int index = adapter.poolIndex;
+            if (index >= 0) {
+                int oldSize = mPool.oldSizeOf(index);
+                int position = mPool.oldOffsetOf(index) + Math.min(positionStart, oldSize);
+                mPool.setOldSize(index, oldSize + itemCount);
+                setOldSnapshotWithSegments(getOldSnapshot().withInserted(position, adapter.getDataList().subList(positionStart, positionStart + itemCount)));
             }
         }
 
         @Override
-        public void removeAll(Collection dataList, SuperItemAdapter adapter) {
-            boolean removeAll = getDataList().removeAll(dataList);
-            boolean oldRemoveAll = getOldDataList().removeAll(dataList);
-            if (removeAll && oldRemoveAll) {
-                updateFirstAndLastPosition(adapter, dataList.size(), false);
+        public void remove(int positionStart, int itemCount, SuperItemAdapter adapter) {
+            mPool.updateSize(adapter);
+            int index = adapter.poolIndex;
+            if (index < 0) {
+                return;
+            }
+            int oldSize = mPool.oldSizeOf(index);
+            int start = Math.min(positionStart, oldSize);
+            int end = Math.min(positionStart + itemCount, oldSize);
+            if (end > start) {
+                int offset = mPool.oldOffsetOf(index);
+                mPool.setOldSize(index, oldSize - (end - start));
+                setOldSnapshotWithSegments(getOldSnapshot().withRemoved(offset + start, end - start));
+            }
+            if (adapter.isEmptyList()) {
+                adapter.unregisterAll();
+                removeAdapter(adapter, false);
+                adapter.isAdded = false;
             }
         }
 
         @Override
         public void move(int fromPosition, int toPosition, SuperItemAdapter adapter) {
-            fromPosition += adapter.firstItemPosition;
-            toPosition += adapter.firstItemPosition;
-            if (getTotalSpanSize() > 1) {
-                List<Object> dataList = getDataList();
-                List<Object> oldDataList = getOldDataList();
-                if (fromPosition < toPosition) {
-                    for (int i = fromPosition; i < toPosition; i++) {
-                        Collections.swap(dataList, i, i + 1);
-                        Collections.swap(oldDataList, i, i + 1);
-                    }
-                } else {
-                    for (int i = fromPosition; i > toPosition; i--) {
-                        Collections.swap(dataList, i, i - 1);
-                        Collections.swap(oldDataList, i, i - 1);
-                    }
-                }
-            } else {
-                Collections.swap(getDataList(), fromPosition, toPosition);
-                Collections.swap(getOldDataList(), fromPosition, toPosition);
+            int index = adapter.poolIndex;
+            int oldSize = index < 0 ? 0 : mPool.oldSizeOf(index);
+            if (fromPosition >= oldSize || toPosition >= oldSize) {
+                return;
             }
+            int firstItemPosition = mPool.oldOffsetOf(index);
+            fromPosition += firstItemPosition;
+            toPosition += firstItemPosition;
+            //这里的移动方式必须和子Adapter中的移动方式保持一致。
+            setOldSnapshotWithSegments(getOldSnapshot().withMoved(fromPosition, toPosition));
         }
 
-        private void updateFirstAndLastPosition(SuperItemAdapter current, int updateSize, boolean isAdd) {
-            if (isAdd) {
-                int index = mPool.indexOf(current) + 1;
-                current.lastItemPosition += updateSize;
-                for (int i = index; i < mPool.size(); i++) {
-                    current = mPool.acquire(i);
-                    current.firstItemPosition += updateSize;
-                    current.lastItemPosition += updateSize;
-                }
-            } else {
-                int index = mPool.indexOf(current);
-                current.lastItemPosition -= updateSize;
-                if (current.isEmptyList()) {
-                    current.unregisterAll();
-                    removeAdapter(current, false);
-                    current.isAdded = false;
-                } else {
-                    index += 1;
-                }
-                for (int i = index; i < mPool.size(); i++) {
-                    current = mPool.acquire(i);
-                    current.firstItemPosition -= updateSize;
-                    current.lastItemPosition -= updateSize;
-                }
+        @Override
+        public void reset(SuperItemAdapter adapter) {
+            //整体替换的数据不同步到副本中，等到下一次刷新时由新旧数据的比较结果来决定如何更新列表。
+            mPool.updateSize(adapter);
+            //替换的数据可能是被修改过的同一个对象，所以悬浮条必须重新绑定。
+            if (isFloatAdapter(adapter)) {
+                invalidateFloatBindStates();
             }
         }
     }
 
+    /**
+     * 悬浮布局的绑定状态。
+     */
+    private static class FloatBindState {
+        /**
+         * 最后一次使用该悬浮布局的子Adapter。
+         */
+        FloatItemAdapter adapter;
+        /**
+         * 为该悬浮布局绑定数据的ViewHolder。
+         */
+        ItemViewHolder binder;
+        /**
+         * 该悬浮布局当前显示的数据。
+         */
+        Object data;
+        /**
+         * 是否已经绑定了事件。
+         */
+        boolean eventBound;
+    }
+
     /**
      * 子Adapter的对象池。
+     * <p>除了子Adapter本身以外还通过 {@link OffsetTree} 记录了每个子Adapter的条目数，子Adapter的起始位置是在需要的时候
+     * 计算出来的，所以任何一个子Adapter中条目的增删都只需要O(log n)的时间来更新，而不需要逐个修改其后所有子Adapter的位置。
      */
     private class ChildAdapterPool {
 
@@ -658,6 +1017,22 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
          * 用来存放所有的子条目对象。
          */
         private List<SuperItemAdapter> adapters = new ArrayList<>();
+        /**
+         * 用来记录每个子条目对象的条目数。
+         */
+        private OffsetTree sizes = new OffsetTree();
+        /**
+         * 用来记录每个子条目对象在副本数据中的条目数。
+         */
+        private OffsetTree oldSizes = new OffsetTree();
+        /**
+         * 所有子条目对象组成的数组的缓存，子条目对象增减时会被清空。
+         */
+        private Object[] owners;
+        /**
+         * 所有可悬浮的子条目对象的位置组成的有序数组的缓存，子条目对象增减时会被清空。
+         */
+        private int[] floatIndexes;
 
 
         /**
@@ -687,28 +1062,104 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
          * 获取第一个可悬浮的子Adapter。
          */
         SuperItemAdapter acquireFirstFloatAbleChild() {
-            for (SuperItemAdapter adapter : adapters) {
-                if (isFloatAdapter(adapter)) {
-                    return adapter;
+            int[] indexes = floatIndexes();
+            return indexes.length == 0 ? null : adapters.get(indexes[0]);
+        }
+
+        /**
+         * 获取布局位置所在的对象的下一个对象。时间复杂度为O(log n)。
+         *
+         * @param layoutPosition 布局位置。
+         * @return 如果布局位置超出了范围或者所在的对象已经是最后一个了则返回null。
+         */
+        SuperItemAdapter acquireNextOf(int layoutPosition) {
+            int index = sizes.indexOf(layoutPosition) + 1;
+            return index < adapters.size() ? adapters.get(index) : null;
+        }
+
+        /**
+         * 获取布局位置所在的对象之前的最后一个有条目的可悬浮的对象。时间复杂度为O(log n)。
+         *
+         * @param layoutPosition 布局位置。
+         * @return 如果布局位置超出了范围或者之前没有可悬浮的对象则返回null。
+         */
+        SuperItemAdapter acquirePreviousFloatAbleChild(int layoutPosition) {
+            int index = sizes.indexOf(layoutPosition);
+            return index < adapters.size() ? acquireFloatAbleChildAtOrBefore(index - 1) : null;
+        }
+
+        /**
+         * 获取布局位置在某个区间内的最后一个可悬浮的对象。时间复杂度为O(log n)。
+         *
+         * @param startPosition 区间的起始布局位置(包含)。
+         * @param endPosition   区间的结束布局位置(包含)。
+         * @return 如果区间内没有可悬浮的对象则返回null。
+         */
+        SuperItemAdapter acquireLastFloatAbleChildInRange(int startPosition, int endPosition) {
+            int index = Math.min(sizes.indexOf(endPosition), adapters.size() - 1);
+            SuperItemAdapter adapter = acquireFloatAbleChildAtOrBefore(index);
+            return adapter != null && offsetOf(adapter.poolIndex) + sizeOf(adapter.poolIndex) > startPosition ? adapter : null;
+        }
+
+        /**
+         * 获取位置不大于index的最后一个有条目的可悬浮的对象，通过二分查找可悬浮对象的位置数组实现。
+         *
+         * @param index 对象的位置。
+         */
+        private SuperItemAdapter acquireFloatAbleChildAtOrBefore(int index) {
+            int[] indexes = floatIndexes();
+            int i = Arrays.binarySearch(indexes, index);
+            for (i = i >= 0 ? i : -i - 2; i >= 0; i--) {
+                //没有条目的对象不会显示在列表中，所以跳过。
+                if (sizes.get(indexes[i]) > 0) {
+                    return adapters.get(indexes[i]);
                 }
             }
             return null;
         }
 
         /**
-         * 根据布局位置获取对象。
+         * 获取所有可悬浮的对象的位置组成的有序数组。
+         */
+        private int[] floatIndexes() {
+            if (floatIndexes == null) {
+                int count = 0;
+                int[] indexes = new int[adapters.size()];
+                for (int i = 0; i < adapters.size(); i++) {
+                    if (isFloatAdapter(adapters.get(i))) {
+                        indexes[count++] = i;
+                    }
+                }
+                floatIndexes = Arrays.copyOf(indexes, count);
+            }
+            return floatIndexes;
+        }
+
+        /**
+         * 根据布局位置获取对象。时间复杂度为O(log n)。
          *
          * @param layoutPosition 要获取的对象的布局位置。
          */
         SuperItemAdapter acquireFromLayoutPosition(int layoutPosition) {
-            for (SuperItemAdapter adapter : adapters) {
-                if (adapter.firstItemPosition <= layoutPosition && adapter.lastItemPosition >= layoutPosition) {
-                    return adapter;
-                }
+            traceChildLookup();
+            int index = sizes.indexOf(layoutPosition);
+            if (index < adapters.size()) {
+                return adapters.get(index);
             }
             throw new RuntimeException("SuperItemAdapter not found from layout position: " + layoutPosition);
         }
 
+        /**
+         * 根据布局位置获取对象的位置。时间复杂度为O(log n)。
+         *
+         * @param layoutPosition 布局位置。
+         * @return 如果布局位置超出了范围则返回 {@link #size()}。
+         */
+        int indexOfLayoutPosition(int layoutPosition) {
+            traceChildLookup();
+            return sizes.indexOf(layoutPosition);
+        }
+
         /**
          * 获取全部对象。
          */
@@ -716,8 +1167,27 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
             return adapters;
         }
 
-        void release(SuperItemAdapter instance) {
+        /**
+         * 发布一个对象到池子中。
+         *
+         * @param instance 要发布的对象。
+         * @param syncOld  是否将对象的数据同步到副本中。
+         */
+        void release(SuperItemAdapter instance, boolean syncOld) {
+            List dataList = instance.getDataList();
+            instance.poolIndex = adapters.size();
             adapters.add(instance);
+            owners = null;
+            floatIndexes = null;
+            sizes.add(dataList.size());
+            invalidateSpanSizeCache();
+            if (syncOld) {
+                oldSizes.add(dataList.size());
+                setOldSnapshotWithSegments(getOldSnapshot().withInserted(getOldSnapshot().size(), dataList));
+            } else {
+                oldSizes.add(0);
+                setOldSnapshotWithSegments(getOldSnapshot());
+            }
         }
 
         /**
@@ -733,7 +1203,107 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
          * @param instance 要获取位置的对象。
          */
         int indexOf(SuperItemAdapter instance) {
-            return adapters.indexOf(instance);
+            return instance.poolIndex;
+        }
+
+        /**
+         * 获取指定位置的对象的起始布局位置。
+         *
+         * @param index 对象的位置。
+         */
+        int offsetOf(int index) {
+            return sizes.offsetOf(index);
+        }
+
+        /**
+         * 获取指定位置的对象的条目数。
+         *
+         * @param index 对象的位置。
+         */
+        int sizeOf(int index) {
+            return sizes.get(index);
+        }
+
+        /**
+         * 获取所有对象的条目数之和。
+         */
+        int totalSize() {
+            return sizes.total();
+        }
+
+        /**
+         * 获取指定位置的对象在副本数据中的起始位置。
+         *
+         * @param index 对象的位置。
+         */
+        int oldOffsetOf(int index) {
+            return oldSizes.offsetOf(index);
+        }
+
+        /**
+         * 获取指定位置的对象在副本数据中的条目数。
+         *
+         * @param index 对象的位置。
+         */
+        int oldSizeOf(int index) {
+            return oldSizes.get(index);
+        }
+
+        /**
+         * 修改指定位置的对象在副本数据中的条目数。
+         *
+         * @param index 对象的位置。
+         * @param size  新的条目数。
+         */
+        void setOldSize(int index, int size) {
+            oldSizes.set(index, size);
+        }
+
+        /**
+         * 获取所有的对象，用作快照中每一段数据的所有者。
+         */
+        Object[] owners() {
+            if (owners == null) {
+                owners = adapters.toArray();
+            }
+            return owners;
+        }
+
+        /**
+         * 获取每个对象在副本数据中的条目数。
+         */
+        int[] oldSegments() {
+            int[] segments = new int[oldSizes.count()];
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = oldSizes.get(i);
+            }
+            return segments;
+        }
+
+        /**
+         * 刷新结果被分发后调用，使副本中的条目数与刷新时所使用的快照保持一致。
+         *
+         * @param segments 刷新时每个对象的条目数，在这之后才被添加进来的对象在副本中的条目数都为0。
+         */
+        void syncOldSizes(int[] segments) {
+            oldSizes.clear();
+            int count = segments == null ? 0 : Math.min(segments.length, adapters.size());
+            for (int i = 0; i < adapters.size(); i++) {
+                oldSizes.add(i < count ? segments[i] : 0);
+            }
+        }
+
+        /**
+         * 根据对象当前的数据重新记录它的条目数。
+         *
+         * @param instance 数据发生了变化的对象。
+         */
+        void updateSize(SuperItemAdapter instance) {
+            if (instance.poolIndex >= 0) {
+                sizes.set(instance.poolIndex, instance.getItemCount());
+                //后面所有条目所属的子Adapter都可能变了，占屏值也就跟着变了。
+                invalidateSpanSizeCache();
+            }
         }
 
         /**
@@ -742,7 +1312,25 @@ public class MultiTypeAdapter extends SuperAdapter<Object, ItemViewHolder<Object
          * @param instance 要移除的对象。
          */
         boolean remove(SuperItemAdapter instance) {
-            return adapters.remove(instance);
+            int index = instance.poolIndex;
+            if (index < 0 || index >= adapters.size() || adapters.get(index) != instance) {
+                return false;
+            }
+            int oldOffset = oldSizes.offsetOf(index);
+            int oldSize = oldSizes.get(index);
+            instance.detachedPosition = sizes.offsetOf(index);
+            instance.poolIndex = -1;
+            adapters.remove(index);
+            owners = null;
+            floatIndexes = null;
+            sizes.remove(index);
+            oldSizes.remove(index);
+            invalidateSpanSizeCache();
+            for (int i = index; i < adapters.size(); i++) {
+                adapters.get(i).poolIndex = i;
+            }
+            setOldSnapshotWithSegments(getOldSnapshot().withRemoved(oldOffset, oldSize));
+            return true;
         }
     }
 }
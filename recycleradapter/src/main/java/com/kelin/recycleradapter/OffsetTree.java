@@ -0,0 +1,151 @@
+package com.kelin.recycleradapter;
+
+import java.util.Arrays;
+
+/**
+ * 描述 以树状数组(Fenwick tree)维护一组连续区间长度的索引，用来计算 {@link MultiTypeAdapter} 中每个子Adapter的起始位置。
+ * <p>修改某个区间的长度、查询某个区间的起始位置以及根据布局位置查找所在区间都是O(log n)的，只有在中间移除区间的时候需要O(n)重建。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  上午10:12
+ * 版本 v 1.0.0
+ */
+final class OffsetTree {
+
+    /**
+     * 每个区间的长度。
+     */
+    private int[] mSizes;
+    /**
+     * 树状数组，下标从1开始。
+     */
+    private int[] mTree;
+    /**
+     * 区间的个数。
+     */
+    private int mCount;
+
+    OffsetTree() {
+        mSizes = new int[16];
+        mTree = new int[17];
+    }
+
+    /**
+     * 获取区间的个数。
+     */
+    int count() {
+        return mCount;
+    }
+
+    /**
+     * 获取所有区间的长度之和。
+     */
+    int total() {
+        return offsetOf(mCount);
+    }
+
+    /**
+     * 获取指定区间的长度。
+     *
+     * @param index 区间的索引。
+     */
+    int get(int index) {
+        return mSizes[index];
+    }
+
+    /**
+     * 在末尾追加一个区间。
+     *
+     * @param size 区间的长度。
+     */
+    void add(int size) {
+        if (mCount == mSizes.length) {
+            mSizes = Arrays.copyOf(mSizes, mCount << 1);
+            mTree = Arrays.copyOf(mTree, (mCount << 1) + 1);
+        }
+        int i = mCount + 1;
+        mSizes[mCount] = size;
+        //新节点所覆盖的区间是(i - lowBit(i), i]，除了自身以外其余部分都是已存在的区间。
+        mTree[i] = size + offsetOf(mCount) - offsetOf(i - (i & -i));
+        mCount++;
+    }
+
+    /**
+     * 修改指定区间的长度。
+     *
+     * @param index 区间的索引。
+     * @param size  新的长度。
+     */
+    void set(int index, int size) {
+        int delta = size - mSizes[index];
+        if (delta != 0) {
+            mSizes[index] = size;
+            for (int i = index + 1; i <= mCount; i += i & -i) {
+                mTree[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * 移除指定的区间，之后的区间索引都会减一。由于树状数组无法直接删除中间节点，所以这里会进行O(n)的重建。
+     *
+     * @param index 要移除的区间的索引。
+     */
+    void remove(int index) {
+        System.arraycopy(mSizes, index + 1, mSizes, index, mCount - index - 1);
+        mCount--;
+        rebuild();
+    }
+
+    /**
+     * 移除所有的区间。
+     */
+    void clear() {
+        mCount = 0;
+    }
+
+    /**
+     * 获取指定区间的起始位置，也就是它之前所有区间的长度之和。
+     *
+     * @param index 区间的索引。
+     */
+    int offsetOf(int index) {
+        int sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += mTree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 根据位置查找该位置所在的区间。长度为0的区间永远不会被命中。
+     *
+     * @param position 要查找的位置。
+     * @return 返回区间的索引，如果位置超出了所有区间的范围则返回 {@link #count()}。
+     */
+    int indexOf(int position) {
+        if (position < 0) {
+            return mCount;
+        }
+        int index = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(Math.max(mCount, 1)); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= mCount && mTree[next] <= remaining) {
+                index = next;
+                remaining -= mTree[next];
+            }
+        }
+        return index;
+    }
+
+    private void rebuild() {
+        Arrays.fill(mTree, 0);
+        for (int i = 1; i <= mCount; i++) {
+            mTree[i] += mSizes[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= mCount) {
+                mTree[parent] += mTree[i];
+            }
+        }
+    }
+}
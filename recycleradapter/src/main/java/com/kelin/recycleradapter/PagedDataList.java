@@ -0,0 +1,417 @@
+package com.kelin.recycleradapter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.kelin.recycleradapter.interfaces.PageSource;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 描述 分页模式下适配器的数据集合。
+ * <p>数据按页保存，内存中最多只保留可见页附近的若干页，其余的页只记录条目数，对应的位置上是占位的null，
+ * 当这些页重新靠近可见区域或者被绑定时再通过 {@link PageSource} 重新加载，{@link #get(int)} 本身只返回占位的null，不会触发加载。
+ * 加载下一页的过程复用适配器的加载更多的状态。
+ * 所有方法都必须在主线程调用，{@link PageSource} 的回调会被切换到主线程处理。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午10:45
+ * 版本 v 1.0.0
+ */
+final class PagedDataList<K, D> extends AbstractList<D> {
+
+    /**
+     * 内存中最少保留的页数，可见区域通常会跨越两页，再加上前后各一页。
+     */
+    static final int MIN_PAGES_IN_MEMORY = 3;
+    /**
+     * 用来把 {@link PageSource} 的回调切换到主线程的执行器。
+     */
+    private final Executor mMainExecutor;
+    private final Target<D> mTarget;
+    private final PageSource<K, D> mSource;
+    private final int mMaxPagesInMemory;
+    private final List<Page<K, D>> mPages = new ArrayList<>();
+    /**
+     * 每一页的条目数。
+     */
+    private final OffsetTree mSizes = new OffsetTree();
+    /**
+     * 下一页的键，为null表示没有更多数据了。
+     */
+    private K mNextKey;
+    private boolean mLoadingNext;
+    /**
+     * 被释放后所有的回调都会被忽略，例如适配器重新设置了数据。
+     */
+    private boolean mReleased;
+    private int mFirstVisiblePage = -1;
+    private int mLastVisiblePage = -1;
+
+    PagedDataList(@NonNull final SuperAdapter<D, ?> adapter, @NonNull PageSource<K, D> source, int maxPagesInMemory) {
+        this(new Target<D>() {
+            @Override
+            public void notifyDataSetChanged() {
+                adapter.notifyDataSetChanged();
+            }
+
+            @Override
+            public void notifyItemRangeInserted(int positionStart, int itemCount) {
+                adapter.notifyItemRangeInserted(positionStart, itemCount);
+            }
+
+            @Override
+            public void notifyItemRangeChanged(int positionStart, int itemCount) {
+                adapter.notifyItemRangeChanged(positionStart, itemCount);
+            }
+
+            @Override
+            public void notifyItemRangeRemoved(int positionStart, int itemCount) {
+                adapter.notifyItemRangeRemoved(positionStart, itemCount);
+            }
+
+            @Override
+            public void setLoadMoreFinished() {
+                adapter.setLoadMoreFinished();
+            }
+
+            @Override
+            public void setLoadMoreFailed() {
+                adapter.setLoadMoreFailed();
+            }
+
+            @Override
+            public void setNoMoreData() {
+                adapter.setNoMoreData();
+            }
+        }, source, maxPagesInMemory, MainThreadExecutor.get());
+    }
+
+    /**
+     * 构造方法。
+     *
+     * @param target           接收数据变化通知的适配器。
+     * @param source           分页的数据源。
+     * @param maxPagesInMemory 内存中最多保留的页数。
+     * @param mainExecutor     用来把 {@link PageSource} 的回调切换到主线程的执行器。
+     */
+    PagedDataList(@NonNull Target<D> target, @NonNull PageSource<K, D> source, int maxPagesInMemory, @NonNull Executor mainExecutor) {
+        mTarget = target;
+        mMainExecutor = mainExecutor;
+        mSource = source;
+        mMaxPagesInMemory = Math.max(maxPagesInMemory, MIN_PAGES_IN_MEMORY);
+        mNextKey = source.getFirstKey();
+    }
+
+    /**
+     * 获取指定位置的数据，如果所在的页已经被释放了则返回占位的null。
+     * <p>该方法也会在比较数据、查找数据等与显示无关的时候被调用，所以不会重新加载页，重新加载只由
+     * {@link #onItemBound(int)} 和 {@link #onVisibleRangeChanged(int, int)} 触发。
+     */
+    @Override
+    public D get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int pageIndex = mSizes.indexOf(index);
+        List<D> items = mPages.get(pageIndex).items;
+        return items == null ? null : items.get(index - mSizes.offsetOf(pageIndex));
+    }
+
+    @Override
+    public int size() {
+        return mSizes.total();
+    }
+
+    /**
+     * 只在内存中保留了数据的页中查找，不会因为查找而重新加载已经被释放的页。
+     */
+    @Override
+    public int indexOf(Object o) {
+        for (int i = 0; i < mPages.size(); i++) {
+            List<D> items = mPages.get(i).items;
+            int index = items == null ? -1 : items.indexOf(o);
+            if (index >= 0) {
+                return mSizes.offsetOf(i) + index;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * 已经被释放的页以null填充，不会因为创建快照而重新加载所有的页。
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[size()];
+        for (int i = 0; i < mPages.size(); i++) {
+            List<D> items = mPages.get(i).items;
+            if (items != null) {
+                int offset = mSizes.offsetOf(i);
+                for (int j = 0; j < items.size(); j++) {
+                    array[offset + j] = items.get(j);
+                }
+            }
+        }
+        return array;
+    }
+
+    /**
+     * 获取内存中保留了数据的页数。
+     */
+    int getLoadedPageCount() {
+        int count = 0;
+        for (Page<K, D> page : mPages) {
+            if (page.items != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 是否还有下一页。
+     */
+    boolean hasMore() {
+        return mNextKey != null;
+    }
+
+    /**
+     * 加载下一页，加载结果会通过适配器的加载更多的状态表现出来。
+     */
+    void loadNext() {
+        if (mReleased || mLoadingNext || mNextKey == null) {
+            return;
+        }
+        mLoadingNext = true;
+        final K key = mNextKey;
+        mSource.loadPage(key, new MainThreadCallback() {
+            @Override
+            void onLoaded(List<D> items, K nextKey) {
+                mLoadingNext = false;
+                int positionStart = size();
+                Page<K, D> page = new Page<>(key);
+                page.items = new ArrayList<>(items);
+                mPages.add(page);
+                mSizes.add(items.size());
+                mNextKey = nextKey;
+                if (positionStart == 0) {
+                    //第一页之前列表显示的可能是空布局，所以整体刷新。
+                    mTarget.notifyDataSetChanged();
+                } else {
+                    mTarget.notifyItemRangeInserted(positionStart, items.size());
+                }
+                mTarget.setLoadMoreFinished();
+                if (nextKey == null) {
+                    mTarget.setNoMoreData();
+                }
+                trimPages();
+            }
+
+            @Override
+            void onFailed() {
+                mLoadingNext = false;
+                mTarget.setLoadMoreFailed();
+            }
+        });
+    }
+
+    /**
+     * 列表的可见区域发生变化时调用，用来释放远离可见区域的页并预先加载靠近可见区域的页。
+     *
+     * @param firstVisiblePosition 第一个可见条目的位置。
+     * @param lastVisiblePosition  最后一个可见条目的位置。
+     */
+    void onVisibleRangeChanged(int firstVisiblePosition, int lastVisiblePosition) {
+        int size = size();
+        if (size == 0 || firstVisiblePosition < 0) {
+            return;
+        }
+        int firstPage = mSizes.indexOf(Math.min(firstVisiblePosition, size - 1));
+        int lastPage = mSizes.indexOf(Math.min(Math.max(lastVisiblePosition, firstVisiblePosition), size - 1));
+        if (firstPage != mFirstVisiblePage || lastPage != mLastVisiblePage) {
+            mFirstVisiblePage = firstPage;
+            mLastVisiblePage = lastPage;
+            trimPages();
+        }
+    }
+
+    /**
+     * 条目被绑定时调用，如果条目所在的页已经被释放了则重新加载该页，加载完成前条目显示的是占位的null。
+     *
+     * @param position 被绑定的条目的位置。
+     */
+    void onItemBound(int position) {
+        if (position < 0 || position >= size()) {
+            return;
+        }
+        int pageIndex = mSizes.indexOf(position);
+        if (mPages.get(pageIndex).items == null) {
+            reloadPage(pageIndex);
+        }
+    }
+
+    /**
+     * 释放后所有还没有完成的加载结果都会被忽略。
+     */
+    void release() {
+        mReleased = true;
+    }
+
+    /**
+     * 释放窗口之外的页，重新加载窗口之内已经被释放的页。窗口以可见的页为中心，前后平分剩余的页数。
+     */
+    private void trimPages() {
+        if (mFirstVisiblePage < 0 || mPages.isEmpty()) {
+            return;
+        }
+        int lastVisiblePage = Math.min(mLastVisiblePage, mPages.size() - 1);
+        int extra = Math.max(mMaxPagesInMemory - (lastVisiblePage - mFirstVisiblePage + 1), 0);
+        int windowStart = mFirstVisiblePage - extra / 2;
+        int windowEnd = lastVisiblePage + (extra - extra / 2);
+        //窗口碰到列表的两端时向另一侧平移，保证总能保留 mMaxPagesInMemory 页。
+        if (windowStart < 0) {
+            windowEnd -= windowStart;
+            windowStart = 0;
+        } else if (windowEnd >= mPages.size()) {
+            windowStart = Math.max(windowStart - (windowEnd - mPages.size() + 1), 0);
+        }
+        for (int i = 0; i < mPages.size(); i++) {
+            Page<K, D> page = mPages.get(i);
+            if (i < windowStart || i > windowEnd) {
+                if (page.items != null || page.loading) {
+                    //被释放的页中的条目已经不在屏幕上了，所以不需要通知列表。正在重新加载的结果也要丢弃，否则会被重新放回内存中。
+                    page.items = null;
+                    page.loading = false;
+                    page.generation++;
+                }
+            } else if (page.items == null) {
+                reloadPage(i);
+            }
+        }
+    }
+
+    /**
+     * 重新加载一个已经被释放的页。
+     *
+     * @param pageIndex 页的索引。
+     */
+    private void reloadPage(final int pageIndex) {
+        final Page<K, D> page = mPages.get(pageIndex);
+        if (mReleased || page.loading) {
+            return;
+        }
+        page.loading = true;
+        final int generation = page.generation;
+        mSource.loadPage(page.key, new MainThreadCallback() {
+            @Override
+            void onLoaded(List<D> items, K nextKey) {
+                if (generation != page.generation) {
+                    //加载期间该页已经移出了窗口并被释放了。
+                    return;
+                }
+                page.loading = false;
+                page.items = new ArrayList<>(items);
+                int positionStart = mSizes.offsetOf(pageIndex);
+                int oldSize = mSizes.get(pageIndex);
+                int newSize = items.size();
+                mSizes.set(pageIndex, newSize);
+                mTarget.notifyItemRangeChanged(positionStart, Math.min(oldSize, newSize));
+                if (newSize > oldSize) {
+                    mTarget.notifyItemRangeInserted(positionStart + oldSize, newSize - oldSize);
+                } else if (newSize < oldSize) {
+                    mTarget.notifyItemRangeRemoved(positionStart + newSize, oldSize - newSize);
+                }
+            }
+
+            @Override
+            void onFailed() {
+                //保持占位状态，下一次被绑定或者靠近可见区域时再重试。
+                if (generation == page.generation) {
+                    page.loading = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * 将 {@link PageSource} 的回调切换到主线程，并忽略列表被释放之后的回调。
+     */
+    private abstract class MainThreadCallback implements PageSource.LoadCallback<K, D> {
+
+        @Override
+        public void onPageLoaded(@NonNull final List<D> page, @Nullable final K nextKey) {
+            mMainExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (!mReleased) {
+                        onLoaded(page, nextKey);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onPageFailed() {
+            mMainExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (!mReleased) {
+                        onFailed();
+                    }
+                }
+            });
+        }
+
+        abstract void onLoaded(List<D> items, K nextKey);
+
+        abstract void onFailed();
+    }
+
+    /**
+     * 接收数据变化通知的目标，也就是使用分页模式的适配器，各个方法与 {@link SuperAdapter} 中的同名方法一致。
+     */
+    interface Target<D> {
+
+        void notifyDataSetChanged();
+
+        void notifyItemRangeInserted(int positionStart, int itemCount);
+
+        void notifyItemRangeChanged(int positionStart, int itemCount);
+
+        void notifyItemRangeRemoved(int positionStart, int itemCount);
+
+        void setLoadMoreFinished();
+
+        void setLoadMoreFailed();
+
+        void setNoMoreData();
+    }
+
+    /**
+     * 一页数据。
+     */
+    private static final class Page<K, D> {
+        final K key;
+        /**
+         * 页中的数据，被释放后为null。
+         */
+        List<D> items;
+        boolean loading;
+        /**
+         * 每次释放页都会加一，用来丢弃释放之前发起的重新加载的结果。
+         */
+        int generation;
+
+        Page(K key) {
+            this.key = key;
+        }
+    }
+}
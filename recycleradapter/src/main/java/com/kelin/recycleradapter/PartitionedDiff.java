@@ -0,0 +1,243 @@
+package com.kelin.recycleradapter;
+
+import android.support.annotation.NonNull;
+import android.support.v7.util.ListUpdateCallback;
+
+import com.kelin.recycleradapter.diff.DiffCallback;
+import com.kelin.recycleradapter.diff.DiffResult;
+import com.kelin.recycleradapter.diff.DiffStrategy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 描述 将列表按分段(例如 {@link MultiTypeAdapter} 中的每个子Adapter)分别进行比较，然后将各分段的结果按偏移量合并为一个结果。
+ * <p>各分段之间是相互独立的，所以会在 {@link DiffExecutor} 中并行比较，发起比较的线程本身也会参与比较，
+ * 所以即使线程池中没有空闲的线程也不会因为等待而死锁。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午7:20
+ * 版本 v 1.0.0
+ */
+final class PartitionedDiff {
+
+    private final DiffStrategy mStrategy;
+    private final DiffCallback mCallback;
+    private final int[] mOldOffsets;
+    private final int[] mOldSizes;
+    private final int[] mNewOffsets;
+    private final int[] mNewSizes;
+    private final DiffResult[] mResults;
+    /**
+     * 下一个要被领取的分段的索引。
+     */
+    private final AtomicInteger mNext = new AtomicInteger();
+    /**
+     * 已经比较完成的分段的个数。
+     */
+    private int mCompleted;
+    /**
+     * 比较过程中出现的第一个异常。
+     */
+    private volatile RuntimeException mError;
+
+    /**
+     * 构造方法。
+     *
+     * @param strategy 每个分段所使用的比较策略。
+     * @param callback 比较整个列表的回调。
+     * @param oldSizes 旧数据中每个分段的长度。
+     * @param newSizes 新数据中每个分段的长度，与旧数据的分段一一对应。
+     */
+    private PartitionedDiff(DiffStrategy strategy, DiffCallback callback, int[] oldSizes, int[] newSizes) {
+        mStrategy = strategy;
+        mCallback = callback;
+        mOldSizes = oldSizes;
+        mNewSizes = newSizes;
+        mOldOffsets = offsetsOf(oldSizes);
+        mNewOffsets = offsetsOf(newSizes);
+        mResults = new DiffResult[oldSizes.length];
+    }
+
+    /**
+     * 分段比较两组数据。
+     *
+     * @param strategy 每个分段所使用的比较策略。
+     * @param executor 用来并行比较的线程池。
+     * @param callback 比较整个列表的回调。
+     * @param oldSizes 旧数据中每个分段的长度。
+     * @param newSizes 新数据中每个分段的长度，与旧数据的分段一一对应。
+     */
+    static DiffResult calculateDiff(DiffStrategy strategy, DiffExecutor executor, DiffCallback callback, int[] oldSizes, int[] newSizes) {
+        final PartitionedDiff diff = new PartitionedDiff(strategy, callback, oldSizes, newSizes);
+        int helpers = Math.min(executor.getThreadCount(), oldSizes.length) - 1;
+        for (int i = 0; i < helpers; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    diff.work();
+                }
+            });
+        }
+        diff.work();
+        diff.awaitCompletion();
+        return new MergedResult(diff.mResults, newSizes);
+    }
+
+    private static int[] offsetsOf(int[] sizes) {
+        int[] offsets = new int[sizes.length];
+        for (int i = 1; i < sizes.length; i++) {
+            offsets[i] = offsets[i - 1] + sizes[i - 1];
+        }
+        return offsets;
+    }
+
+    /**
+     * 不断领取并比较还没有被比较的分段，直到所有分段都被领取或者出现了异常。
+     */
+    private void work() {
+        int index;
+        while (mError == null && (index = mNext.getAndIncrement()) < mResults.length) {
+            try {
+                if (mOldSizes[index] != 0 || mNewSizes[index] != 0) {
+                    mResults[index] = mStrategy.calculateDiff(new SliceCallback(index));
+                }
+            } catch (RuntimeException e) {
+                mError = e;
+            } finally {
+                synchronized (this) {
+                    mCompleted++;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * 等待所有被领取的分段比较完成，没有被领取的分段在这之前已经被当前线程比较过了。
+     */
+    private synchronized void awaitCompletion() {
+        int claimed = Math.min(mNext.get(), mResults.length);
+        boolean interrupted = false;
+        while (mCompleted < claimed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            claimed = Math.min(mNext.get(), mResults.length);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (mError != null) {
+            throw mError;
+        }
+    }
+
+    /**
+     * 只比较其中一个分段的回调，将分段内的位置转换为整个列表中的位置。
+     */
+    private class SliceCallback extends DiffCallback {
+        private final int oldOffset;
+        private final int newOffset;
+        private final int index;
+
+        SliceCallback(int index) {
+            this.index = index;
+            oldOffset = mOldOffsets[index];
+            newOffset = mNewOffsets[index];
+        }
+
+        @Override
+        public int getOldListSize() {
+            return mOldSizes[index];
+        }
+
+        @Override
+        public int getNewListSize() {
+            return mNewSizes[index];
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return mCallback.areItemsTheSame(oldOffset + oldItemPosition, newOffset + newItemPosition);
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return mCallback.areContentsTheSame(oldOffset + oldItemPosition, newOffset + newItemPosition);
+        }
+
+        @Override
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            return mCallback.getChangePayload(oldOffset + oldItemPosition, newOffset + newItemPosition);
+        }
+
+        @Override
+        public long getOldItemKey(int oldItemPosition) {
+            return mCallback.getOldItemKey(oldOffset + oldItemPosition);
+        }
+
+        @Override
+        public long getNewItemKey(int newItemPosition) {
+            return mCallback.getNewItemKey(newOffset + newItemPosition);
+        }
+    }
+
+    /**
+     * 合并后的结果。按顺序分发每个分段的结果，分发到某个分段时它之前的分段都已经是新数据了，
+     * 而它之后的分段还是旧数据，所以它的偏移量就是之前所有分段的新长度之和。
+     */
+    private static class MergedResult extends DiffResult {
+        private final DiffResult[] results;
+        private final int[] newSizes;
+
+        MergedResult(DiffResult[] results, int[] newSizes) {
+            this.results = results;
+            this.newSizes = newSizes;
+        }
+
+        @Override
+        public void dispatchUpdatesTo(@NonNull final ListUpdateCallback callback) {
+            int offset = 0;
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] != null) {
+                    results[i].dispatchUpdatesTo(new OffsetCallback(callback, offset));
+                }
+                offset += newSizes[i];
+            }
+        }
+    }
+
+    /**
+     * 为所有位置加上偏移量的回调。
+     */
+    private static class OffsetCallback implements ListUpdateCallback {
+        private final ListUpdateCallback callback;
+        private final int offset;
+
+        OffsetCallback(ListUpdateCallback callback, int offset) {
+            this.callback = callback;
+            this.offset = offset;
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            callback.onInserted(position + offset, count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            callback.onRemoved(position + offset, count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            callback.onMoved(fromPosition + offset, toPosition + offset);
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            callback.onChanged(position + offset, count, payload);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.kelin.recycleradapter;
+
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.AsyncLayoutInflater;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayDeque;
+
+/**
+ * 描述 预先在后台线程加载好的条目布局的池子。
+ * <p>通过 {@link AsyncLayoutInflater} 在后台线程加载布局，加载完成后放入池子中，创建ViewHolder时优先从池子中取出布局，
+ * 池子中没有时才在主线程加载。所有方法都必须在主线程调用。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午8:30
+ * 版本 v 1.0.0
+ */
+final class PrewarmedViewPool {
+
+    /**
+     * 同时提交给 {@link AsyncLayoutInflater} 的最大任务数。它的任务队列容量有限，队列满了以后会阻塞主线程，所以要分批提交。
+     */
+    private static final int MAX_IN_FLIGHT = 4;
+    private final RecyclerView mRecyclerView;
+    private AsyncLayoutInflater mAsyncInflater;
+    /**
+     * 已经加载好的布局，以布局资源ID为键。
+     */
+    private final SparseArray<ArrayDeque<View>> mViews = new SparseArray<>();
+    /**
+     * 还没有提交给 {@link AsyncLayoutInflater} 的布局资源ID。
+     */
+    private final ArrayDeque<Integer> mQueue = new ArrayDeque<>();
+    /**
+     * 每个布局还在排队或正在加载的个数。
+     */
+    private final SparseIntArray mPending = new SparseIntArray();
+    /**
+     * 已经提交但还没有加载完成的任务数。
+     */
+    private int mInFlight;
+    /**
+     * 每次清空池子都会加一，用来丢弃清空之前提交的任务的结果。
+     */
+    private int mGeneration;
+    private long mHitCount;
+    private long mMissCount;
+
+    PrewarmedViewPool(@NonNull RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+    }
+
+    /**
+     * 在后台线程预先加载布局，已经加载好的和正在加载的布局都会计算在内。
+     *
+     * @param layoutId 布局资源ID。
+     * @param count    希望池子中有多少个该布局。
+     */
+    void prewarm(@LayoutRes int layoutId, int count) {
+        int pending = mPending.get(layoutId);
+        for (int i = sizeOf(layoutId) + pending; i < count; i++) {
+            mQueue.offer(layoutId);
+            pending++;
+        }
+        mPending.put(layoutId, pending);
+        submit();
+    }
+
+    /**
+     * 获取一个布局，池子中没有时在当前线程加载。
+     *
+     * @param parent   布局的父容器。
+     * @param layoutId 布局资源ID。
+     */
+    View obtain(ViewGroup parent, @LayoutRes int layoutId) {
+        ArrayDeque<View> views = mViews.get(layoutId);
+        View view = views == null ? null : views.poll();
+        if (view != null) {
+            mHitCount++;
+            return view;
+        }
+        mMissCount++;
+        return LayoutInflater.from(parent.getContext()).inflate(layoutId, parent, false);
+    }
+
+    /**
+     * 清空池子并丢弃所有还没有加载完成的任务。
+     */
+    void clear() {
+        mGeneration++;
+        mQueue.clear();
+        mPending.clear();
+        mViews.clear();
+    }
+
+    /**
+     * 获取从池子中取到布局的次数。
+     */
+    long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * 获取池子中没有布局而只能在主线程加载的次数。
+     */
+    long getMissCount() {
+        return mMissCount;
+    }
+
+    private int sizeOf(int layoutId) {
+        ArrayDeque<View> views = mViews.get(layoutId);
+        return views == null ? 0 : views.size();
+    }
+
+    private void submit() {
+        if (mAsyncInflater == null && !mQueue.isEmpty()) {
+            mAsyncInflater = new AsyncLayoutInflater(mRecyclerView.getContext());
+        }
+        while (mInFlight < MAX_IN_FLIGHT && !mQueue.isEmpty()) {
+            mInFlight++;
+            mAsyncInflater.inflate(mQueue.poll(), mRecyclerView, new InflateCallback(mGeneration));
+        }
+    }
+
+    /**
+     * 后台加载完成后在主线程回调。
+     */
+    private class InflateCallback implements AsyncLayoutInflater.OnInflateFinishedListener {
+        private final int generation;
+
+        InflateCallback(int generation) {
+            this.generation = generation;
+        }
+
+        @Override
+        public void onInflateFinished(@NonNull View view, int resid, @Nullable ViewGroup parent) {
+            mInFlight--;
+            if (generation == mGeneration) {
+                mPending.put(resid, mPending.get(resid) - 1);
+                ArrayDeque<View> views = mViews.get(resid);
+                if (views == null) {
+                    views = new ArrayDeque<>();
+                    mViews.put(resid, views);
+                }
+                views.offer(view);
+            }
+            submit();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.kelin.recycleradapter;
+
+import com.kelin.recycleradapter.diff.DiffCallback;
+import com.kelin.recycleradapter.diff.DiffResult;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 描述 {@link SuperAdapter#notifyRefresh()} 的调度器。
+ * <p>还没开始执行的刷新请求会被合并为一个，只比较最新的数据；正在比较的过程中如果又有新的刷新请求则会中断当前的比较；
+ * 主线程只会分发最新的一次刷新的结果。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午3:40
+ * 版本 v 1.0.0
+ */
+final class RefreshScheduler<D> {
+
+    private final Target<D> mTarget;
+    /**
+     * 用来执行比较任务的串行队列。
+     */
+    private volatile Executor mExecutor;
+    /**
+     * 用来在主线程分发比较结果的执行器。
+     */
+    private final Executor mMainExecutor;
+    /**
+     * 刷新请求的代数，每次请求都会加一，只有与最新代数相同的结果才会被分发。
+     */
+    private final AtomicInteger mGeneration = new AtomicInteger();
+    /**
+     * 被合并掉的刷新请求的次数。
+     */
+    private final AtomicLong mCoalescedCount = new AtomicLong();
+    /**
+     * 被中断或丢弃的比较的次数，包括比较完成后因为旧数据的快照已经过期而被丢弃的结果。
+     */
+    private final AtomicLong mCancelledCount = new AtomicLong();
+    private final Object mLock = new Object();
+    /**
+     * 等待比较的最新数据的快照，为null表示没有等待中的请求。
+     */
+    private DataSnapshot<D> mPendingSnapshot;
+    /**
+     * 等待比较的请求的代数。
+     */
+    private int mPendingGeneration;
+    /**
+     * 是否已经向执行器提交了比较任务并且该任务还没有开始执行。
+     */
+    private boolean mScheduled;
+    /**
+     * 比较任务，每次只比较当前等待中的最新的数据。
+     */
+    private final Runnable mWorker = new Runnable() {
+        @Override
+        public void run() {
+            DataSnapshot<D> newSnapshot;
+            int generation;
+            synchronized (mLock) {
+                newSnapshot = mPendingSnapshot;
+                generation = mPendingGeneration;
+                mPendingSnapshot = null;
+                mScheduled = false;
+            }
+            if (newSnapshot == null) {
+                return;
+            }
+            DataSnapshot<D> oldSnapshot = mTarget.getOldSnapshot();
+            DiffResult diffResult;
+            try {
+                DiffCallback callback = new CancelableCallback(mTarget.createDiffCallback(oldSnapshot, newSnapshot), generation);
+                diffResult = mTarget.calculateDiff(oldSnapshot, newSnapshot, callback);
+            } catch (CancelledException e) {
+                mCancelledCount.incrementAndGet();
+                return;
+            }
+            mMainExecutor.execute(new Result(generation, oldSnapshot, newSnapshot, diffResult));
+        }
+    };
+
+    RefreshScheduler(Target<D> target, Executor executor) {
+        this(target, executor, MainThreadExecutor.get());
+    }
+
+    /**
+     * 构造方法。
+     *
+     * @param target       刷新的目标。
+     * @param executor     用来执行比较任务的串行队列。
+     * @param mainExecutor 用来在主线程分发比较结果的执行器。
+     */
+    RefreshScheduler(Target<D> target, Executor executor, Executor mainExecutor) {
+        mTarget = target;
+        mExecutor = executor;
+        mMainExecutor = mainExecutor;
+    }
+
+    /**
+     * 设置用来执行比较任务的串行队列，只影响之后提交的任务。
+     *
+     * @param executor 串行队列。
+     */
+    void setExecutor(Executor executor) {
+        mExecutor = executor;
+    }
+
+    /**
+     * 请求一次刷新。
+     *
+     * @param snapshot 最新数据的快照。
+     */
+    void schedule(DataSnapshot<D> snapshot) {
+        int generation = mGeneration.incrementAndGet();
+        synchronized (mLock) {
+            if (mPendingSnapshot != null) {
+                mCoalescedCount.incrementAndGet();
+            }
+            mPendingSnapshot = snapshot;
+            mPendingGeneration = generation;
+            if (!mScheduled) {
+                mScheduled = true;
+                mExecutor.execute(mWorker);
+            }
+        }
+    }
+
+    /**
+     * 取消所有等待中和正在进行中的刷新，已经计算完成但还没有分发的结果也会被丢弃。
+     */
+    void cancel() {
+        mGeneration.incrementAndGet();
+        synchronized (mLock) {
+            mPendingSnapshot = null;
+        }
+    }
+
+    /**
+     * 获取被合并掉的刷新请求的次数。
+     */
+    long getCoalescedCount() {
+        return mCoalescedCount.get();
+    }
+
+    /**
+     * 获取被中断或丢弃的比较的次数。
+     */
+    long getCancelledCount() {
+        return mCancelledCount.get();
+    }
+
+    /**
+     * 刷新的目标，也就是需要刷新的适配器。
+     */
+    interface Target<D> {
+
+        /**
+         * 获取列表当前所展示的数据的快照，会在后台线程调用。
+         */
+        DataSnapshot<D> getOldSnapshot();
+
+        /**
+         * 创建比较两个快照的回调，会在后台线程调用。
+         *
+         * @param oldSnapshot 旧数据的快照。
+         * @param newSnapshot 新数据的快照。
+         */
+        DiffCallback createDiffCallback(DataSnapshot<D> oldSnapshot, DataSnapshot<D> newSnapshot);
+
+        /**
+         * 比较两个快照，会在后台线程调用。
+         *
+         * @param oldSnapshot 旧数据的快照。
+         * @param newSnapshot 新数据的快照。
+         * @param callback    比较两个快照的回调，比较时必须通过这个回调来读取数据，否则无法被中断。
+         */
+        DiffResult calculateDiff(DataSnapshot<D> oldSnapshot, DataSnapshot<D> newSnapshot, DiffCallback callback);
+
+        /**
+         * 最新的一次比较完成后在主线程调用。
+         *
+         * @param oldSnapshot 比较时所使用的旧数据的快照。
+         * @param newSnapshot 比较时所使用的新数据的快照。
+         * @param diffResult  比较的结果。
+         * @return 如果结果已经分发给了列表则返回true；如果比较期间旧数据已经变了，结果被丢弃则返回false。
+         */
+        boolean onDiffCalculated(DataSnapshot<D> oldSnapshot, DataSnapshot<D> newSnapshot, DiffResult diffResult);
+    }
+
+    /**
+     * 一次比较的结果，在主线程执行时负责分发自己。
+     */
+    private class Result implements Runnable {
+        final int generation;
+        final DataSnapshot<D> oldSnapshot;
+        final DataSnapshot<D> newSnapshot;
+        final DiffResult diffResult;
+
+        Result(int generation, DataSnapshot<D> oldSnapshot, DataSnapshot<D> newSnapshot, DiffResult diffResult) {
+            this.generation = generation;
+            this.oldSnapshot = oldSnapshot;
+            this.newSnapshot = newSnapshot;
+            this.diffResult = diffResult;
+        }
+
+        @Override
+        public void run() {
+            if (generation != mGeneration.get() || !mTarget.onDiffCalculated(oldSnapshot, newSnapshot, diffResult)) {
+                mCancelledCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 可以被中断的比较回调。比较策略本身不支持中断，所以在比较的过程中一旦发现有了更新的请求就抛出异常来结束比较。
+     */
+    private class CancelableCallback extends DiffCallback {
+        private final DiffCallback callback;
+        private final int generation;
+
+        CancelableCallback(DiffCallback callback, int generation) {
+            this.callback = callback;
+            this.generation = generation;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return callback.getOldListSize();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return callback.getNewListSize();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            checkCancelled();
+            return callback.areItemsTheSame(oldItemPosition, newItemPosition);
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            checkCancelled();
+            return callback.areContentsTheSame(oldItemPosition, newItemPosition);
+        }
+
+        @Override
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            return callback.getChangePayload(oldItemPosition, newItemPosition);
+        }
+
+        @Override
+        public long getOldItemKey(int oldItemPosition) {
+            return callback.getOldItemKey(oldItemPosition);
+        }
+
+        @Override
+        public long getNewItemKey(int newItemPosition) {
+            return callback.getNewItemKey(newItemPosition);
+        }
+
+        private void checkCancelled() {
+            if (generation != mGeneration.get()) {
+                throw new CancelledException();
+            }
+        }
+    }
+
+    /**
+     * 比较被中断时抛出的异常，不需要记录调用栈。
+     */
+    private static class CancelledException extends RuntimeException {
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.kelin.recycleradapter;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+
+import com.kelin.recycleradapter.callback.RenderModelPreparer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * 描述 条目渲染模型的缓存。
+ * <p>数据进入适配器后在后台线程通过 {@link RenderModelPreparer} 计算渲染模型，绑定时直接从缓存中取。缓存以
+ * {@link RenderModelPreparer#getItemKey(Object)} 返回的唯一标识为键，没有唯一标识的以数据本身为键；命中的条目如果数据对象不同
+ * 则通过 areContentsTheSame 判断渲染模型是否还能用。绑定时如果渲染模型还没有准备好则在主线程计算，保证绑定的结果总是正确的。
+ * <p>缓存最多保留 {@link #DEFAULT_CAPACITY} 个条目，超出时丢弃最久没有用到的，所以分页模式下不会无限增长。刷新或者滑动时只为
+ * 可见区域附近的条目计算渲染模型，计算结果合并到缓存中而不是替换整个缓存，所以屏幕上的条目不会因为列表很长而丢失渲染模型。
+ * 条目被移除或者数据被整体替换时对应的渲染模型会被丢弃。
+ * <p>缓存本身只在主线程读写，后台任务拿到的是提交时的副本，计算完成后再回到主线程合并。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:50
+ * 版本 v 1.0.0
+ */
+final class RenderModelCache<D> {
+
+    /**
+     * 默认最多缓存的条目数。
+     */
+    static final int DEFAULT_CAPACITY = 1024;
+    private final Target<D> mTarget;
+    private final RenderModelPreparer<D, ?> mPreparer;
+    /**
+     * 用来执行计算任务的串行队列。
+     */
+    private Executor mWorkerExecutor;
+    /**
+     * 用来把计算结果切换回主线程的执行器。
+     */
+    private final Executor mMainExecutor;
+    private final int mCapacity;
+    private final LruEntries<D> mEntries;
+    /**
+     * 每次丢弃整个缓存都会加一，用来丢弃在这之前提交的任务的结果。
+     */
+    private int mGeneration;
+    /**
+     * 已经提交的任务的序号，每提交一个任务加一。
+     */
+    private int mBatchSequence;
+    /**
+     * 还没有合并结果的任务数。
+     */
+    private int mPendingBatches;
+    /**
+     * 被丢弃的条目的键，值为丢弃时最后一个已经提交的任务的序号，序号不大于它的任务中该条目的结果都不能再合并。
+     * 没有未完成的任务时清空。
+     */
+    private final Map<Object, Integer> mEvictedKeys = new HashMap<>();
+    /**
+     * 最近一次计算的窗口在列表中的范围，包含开始不包含结束。
+     */
+    private int mWindowStart;
+    private int mWindowEnd;
+    /**
+     * 被释放后所有还没有完成的任务的结果都会被丢弃。
+     */
+    private boolean mReleased;
+
+    /**
+     * 构造方法。
+     *
+     * @param target         缓存所属的适配器。
+     * @param preparer       渲染模型的计算器。
+     * @param workerExecutor 用来执行计算任务的串行队列。
+     * @param mainExecutor   用来把计算结果切换回主线程的执行器。
+     * @param capacity       最多缓存的条目数。
+     */
+    RenderModelCache(@NonNull Target<D> target, @NonNull RenderModelPreparer<D, ?> preparer, @NonNull Executor workerExecutor, @NonNull Executor mainExecutor, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("the capacity argument must be an integer greater than zero");
+        }
+        mTarget = target;
+        mPreparer = preparer;
+        mWorkerExecutor = workerExecutor;
+        mMainExecutor = mainExecutor;
+        mCapacity = capacity;
+        mEntries = new LruEntries<>(capacity);
+    }
+
+    /**
+     * 设置用来执行计算任务的串行队列，只影响之后提交的任务。
+     *
+     * @param executor 串行队列。
+     */
+    void setWorkerExecutor(@NonNull Executor executor) {
+        mWorkerExecutor = executor;
+    }
+
+    /**
+     * 获取条目的渲染模型，缓存中没有或者已经过期时在当前线程计算。
+     *
+     * @param d 条目的数据。
+     */
+    Object get(@NonNull D d) {
+        Object key = keyOf(d);
+        Entry<D> entry = mEntries.get(key);
+        if (entry != null && isReusable(entry, d)) {
+            if (entry.data != d) {
+                mEntries.put(key, new Entry<>(d, entry.model));
+            }
+            return entry.model;
+        }
+        Object model = mPreparer.prepare(d);
+        mEntries.put(key, new Entry<>(d, model));
+        return model;
+    }
+
+    /**
+     * 获取当前缓存的条目数。
+     */
+    int size() {
+        return mEntries.size();
+    }
+
+    /**
+     * 在后台为新加入的条目计算渲染模型，计算完成后合并到缓存中。
+     *
+     * @param items 新加入的条目。
+     */
+    void prepare(@NonNull Collection<D> items) {
+        submit(new ArrayList<>(items));
+    }
+
+    /**
+     * 在后台为可见区域附近的条目计算渲染模型，计算完成后合并到缓存中，刷新完成或者重新设置计算器时调用。
+     * <p>窗口以可见区域为中心，大小为缓存容量的一半，另一半留给最近绑定过的条目，所以合并时不会把屏幕上的条目挤出缓存。
+     *
+     * @param items        列表当前展示的所有条目，必须是不可变的集合。
+     * @param firstVisible 第一个可见条目的位置，还没有布局时为-1。
+     * @param lastVisible  最后一个可见条目的位置，还没有布局时为-1。
+     */
+    void prepareWindow(@NonNull List<D> items, int firstVisible, int lastVisible) {
+        int size = items.size();
+        if (size == 0) {
+            return;
+        }
+        int windowSize = Math.max(mCapacity / 2, 1);
+        int first = Math.min(Math.max(firstVisible, 0), size - 1);
+        int last = Math.min(Math.max(lastVisible, first), size - 1);
+        int end = Math.min(Math.max((first + last) / 2 - windowSize / 2, 0) + windowSize, size);
+        mWindowStart = Math.max(end - windowSize, 0);
+        mWindowEnd = end;
+        submit(items.subList(mWindowStart, mWindowEnd));
+    }
+
+    /**
+     * 列表滑动时调用，可见区域靠近上一次计算的窗口的边缘时以新的可见区域为中心重新计算窗口。
+     *
+     * @param items        列表当前展示的所有条目，必须是不可变的集合。
+     * @param firstVisible 第一个可见条目的位置。
+     * @param lastVisible  最后一个可见条目的位置。
+     */
+    void onVisibleRangeChanged(@NonNull List<D> items, int firstVisible, int lastVisible) {
+        if (firstVisible < 0) {
+            return;
+        }
+        //离窗口边缘不到四分之一个窗口时就开始计算，留出后台计算的时间。列表的两端不需要再扩展。
+        int margin = (mWindowEnd - mWindowStart) / 4;
+        if ((mWindowStart > 0 && firstVisible < mWindowStart + margin)
+                || (mWindowEnd < items.size() && lastVisible >= mWindowEnd - margin)) {
+            prepareWindow(items, firstVisible, lastVisible);
+        }
+    }
+
+    /**
+     * 丢弃被移除的条目的渲染模型。还没有完成的任务中这些条目的结果也不会再合并，其他条目的结果不受影响。
+     *
+     * @param items 被移除的条目。
+     */
+    void evict(@NonNull Collection<D> items) {
+        for (D d : items) {
+            if (d != null) {
+                Object key = keyOf(d);
+                mEntries.remove(key);
+                if (mPendingBatches > 0) {
+                    mEvictedKeys.put(key, mBatchSequence);
+                }
+            }
+        }
+    }
+
+    /**
+     * 丢弃所有的渲染模型以及还没有完成的任务的结果，数据被整体替换时调用。
+     */
+    void clear() {
+        mGeneration++;
+        mEntries.clear();
+        mEvictedKeys.clear();
+    }
+
+    /**
+     * 释放缓存，还没有完成的任务的结果都会被丢弃。
+     */
+    void release() {
+        mReleased = true;
+        mEntries.clear();
+        mEvictedKeys.clear();
+    }
+
+    private void submit(final List<D> items) {
+        if (mReleased || items.isEmpty()) {
+            return;
+        }
+        final int generation = mGeneration;
+        final int batch = ++mBatchSequence;
+        mPendingBatches++;
+        //后台任务只读这个副本，条目本身是不可变的，所以不需要加锁。
+        final Map<Object, Entry<D>> entries = new HashMap<>(mEntries);
+        mWorkerExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Map<Object, Entry<D>> prepared = new LinkedHashMap<>();
+                for (D d : items) {
+                    if (d == null) {
+                        continue;
+                    }
+                    Object key = keyOf(d);
+                    Entry<D> entry = entries.get(key);
+                    if (entry == null || !isReusable(entry, d)) {
+                        entry = new Entry<D>(d, mPreparer.prepare(d));
+                    } else if (entry.data != d) {
+                        entry = new Entry<>(d, entry.model);
+                    }
+                    prepared.put(key, entry);
+                }
+                mMainExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPrepared(prepared, batch, generation);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onPrepared(Map<Object, Entry<D>> prepared, int batch, int generation) {
+        if (mReleased) {
+            return;
+        }
+        if (generation == mGeneration) {
+            for (Map.Entry<Object, Entry<D>> e : prepared.entrySet()) {
+                Object key = e.getKey();
+                Integer evictedAt = mEvictedKeys.get(key);
+                //计算期间主线程可能已经为同一个条目计算过了，以主线程的结果为准。
+                if ((evictedAt == null || evictedAt < batch) && !mEntries.containsKey(key)) {
+                    mEntries.put(key, e.getValue());
+                }
+            }
+        }
+        if (--mPendingBatches == 0) {
+            mEvictedKeys.clear();
+        }
+    }
+
+    private Object keyOf(D d) {
+        long key = mPreparer.getItemKey(d);
+        return key == RecyclerView.NO_ID ? d : Long.valueOf(key);
+    }
+
+    private boolean isReusable(Entry<D> entry, D d) {
+        return entry.data == d || mTarget.areContentsTheSame(entry.data, d);
+    }
+
+    /**
+     * 缓存所属的适配器。
+     */
+    interface Target<D> {
+
+        /**
+         * 判断两个条目的内容是否相同，相同时可以共用渲染模型。可能会在后台线程调用。
+         *
+         * @param oldItemData 缓存中的数据。
+         * @param newItemData 当前的数据。
+         */
+        boolean areContentsTheSame(D oldItemData, D newItemData);
+    }
+
+    /**
+     * 一个条目的数据和它的渲染模型。
+     */
+    private static final class Entry<D> {
+        final D data;
+        final Object model;
+
+        Entry(D data, Object model) {
+            this.data = data;
+            this.model = model;
+        }
+    }
+
+    /**
+     * 按访问顺序排列的缓存，超出容量时丢弃最久没有用到的条目。
+     */
+    private static final class LruEntries<D> extends LinkedHashMap<Object, Entry<D>> {
+        private final int capacity;
+
+        LruEntries(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Entry<D>> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.kelin.recycleradapter;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.View;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 描述 进程内所有适配器共用的 {@link RecyclerView.RecycledViewPool}。
+ * <p>条目类型就是布局资源ID，所以不同列表中相同的ViewHolder可以互相复用，例如切换Tab时不需要重新加载布局。
+ * 同一个布局只能对应一种ViewHolder，如果某个适配器中的布局与已经注册的ViewHolder冲突，则该适配器不会使用共用的池子。
+ * <p>池子以列表的Context(通常是Activity)为范围，只有同一个Context中的列表才会共用同一个池子，所以池子中的ViewHolder
+ * 不会持有其他Activity的引用。当某个Context中最后一个使用共用池子的列表从窗口中移除时，该Context的池子会被清空并丢弃。
+ * <p>每种条目最多缓存的个数会根据所有列表中同时显示的该条目的最大个数来调整，在内存不足时会清空缓存。所有方法都必须在主线程调用。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午8:50
+ * 版本 v 1.0.0
+ */
+public final class SharedViewPool implements ComponentCallbacks2 {
+
+    private static SharedViewPool sInstance;
+    /**
+     * 每个Context的池子，以Context为键。
+     */
+    private final Map<Object, Scope> mScopes = new HashMap<>();
+    /**
+     * 每种条目类型所对应的ViewHolder。
+     */
+    private final SparseArray<Class<?>> mHolderClasses = new SparseArray<>();
+    /**
+     * 每种条目类型在同一个列表中同时显示的最大个数。
+     */
+    private final SparseIntArray mPeakVisibleCounts = new SparseIntArray();
+    private boolean mCallbacksRegistered;
+
+    SharedViewPool() {
+    }
+
+    /**
+     * 获取进程内唯一的实例。
+     */
+    public static SharedViewPool getInstance() {
+        if (sInstance == null) {
+            sInstance = new SharedViewPool();
+        }
+        return sInstance;
+    }
+
+    /**
+     * 清空所有缓存的ViewHolder。
+     */
+    public void clear() {
+        for (Scope scope : mScopes.values()) {
+            scope.pool.clear();
+        }
+    }
+
+    /**
+     * 获取某种条目类型在同一个列表中同时显示的最大个数。
+     *
+     * @param viewType 条目类型，也就是布局资源ID。
+     */
+    public int getPeakVisibleCount(int viewType) {
+        return mPeakVisibleCounts.get(viewType);
+    }
+
+    /**
+     * 让列表使用它所在的Context的池子，列表每次添加到窗口中和从窗口中移除时都会更新池子的引用计数。
+     *
+     * @param recyclerView 要设置的列表。
+     */
+    void attach(@NonNull RecyclerView recyclerView) {
+        if (!mCallbacksRegistered) {
+            mCallbacksRegistered = true;
+            recyclerView.getContext().getApplicationContext().registerComponentCallbacks(this);
+        }
+        if (recyclerView.getTag(R.id.com_kelin_zhou_tag_shared_view_pool) == null) {
+            Binding binding = new Binding();
+            recyclerView.setTag(R.id.com_kelin_zhou_tag_shared_view_pool, binding);
+            recyclerView.addOnAttachStateChangeListener(binding);
+            //列表可能还没有被添加到窗口中，这时也要先设置池子，否则第一次布局时创建的ViewHolder会被放到列表自己的池子中。
+            binding.acquire(recyclerView);
+        }
+    }
+
+    /**
+     * 让列表不再使用共用的池子。
+     *
+     * @param recyclerView 要设置的列表。
+     */
+    void detach(@NonNull RecyclerView recyclerView) {
+        Binding binding = (Binding) recyclerView.getTag(R.id.com_kelin_zhou_tag_shared_view_pool);
+        if (binding != null) {
+            recyclerView.setTag(R.id.com_kelin_zhou_tag_shared_view_pool, null);
+            recyclerView.removeOnAttachStateChangeListener(binding);
+            binding.release(recyclerView);
+            recyclerView.setRecycledViewPool(new RecyclerView.RecycledViewPool());
+        }
+    }
+
+    /**
+     * 获取某个Context的池子，并增加它的引用计数。
+     *
+     * @param scopeKey 池子的范围，通常是列表的Context。
+     */
+    RecyclerView.RecycledViewPool acquirePool(@NonNull Object scopeKey) {
+        Scope scope = mScopes.get(scopeKey);
+        if (scope == null) {
+            scope = new Scope(createPool());
+            mScopes.put(scopeKey, scope);
+        }
+        scope.references++;
+        return scope.pool;
+    }
+
+    /**
+     * 减少某个Context的池子的引用计数，计数为0时清空并丢弃该池子。
+     *
+     * @param scopeKey 池子的范围，通常是列表的Context。
+     */
+    void releasePool(@NonNull Object scopeKey) {
+        Scope scope = mScopes.get(scopeKey);
+        if (scope != null && --scope.references <= 0) {
+            mScopes.remove(scopeKey);
+            scope.pool.clear();
+        }
+    }
+
+    /**
+     * 获取当前有多少个Context的池子。
+     */
+    int getScopeCount() {
+        return mScopes.size();
+    }
+
+    private RecyclerView.RecycledViewPool createPool() {
+        RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        //空布局和加载更多的布局都是每个适配器独有的，不能被其他适配器复用。
+        pool.setMaxRecycledViews(SuperAdapter.TYPE_EMPTY_ITEM, 0);
+        pool.setMaxRecycledViews(R.layout.com_kelin_zhou_item_load_more_layout, 0);
+        for (int i = 0; i < mPeakVisibleCounts.size(); i++) {
+            pool.setMaxRecycledViews(mPeakVisibleCounts.keyAt(i), mPeakVisibleCounts.valueAt(i) + 1);
+        }
+        return pool;
+    }
+
+    /**
+     * 注册条目类型所对应的ViewHolder。
+     *
+     * @param viewType    条目类型，也就是布局资源ID。
+     * @param holderClass ViewHolder的字节码对象。
+     * @return 如果该条目类型已经被其他的ViewHolder注册过了则返回false。
+     */
+    boolean register(int viewType, @NonNull Class<?> holderClass) {
+        Class<?> registered = mHolderClasses.get(viewType);
+        if (registered == null) {
+            mHolderClasses.put(viewType, holderClass);
+            return true;
+        }
+        return registered == holderClass;
+    }
+
+    /**
+     * 一次注册多个条目类型所对应的ViewHolder。先检查全部的条目类型，只有全部没有冲突时才会注册，
+     * 所以注册失败时不会留下一部分已经注册的类型占用条目类型。
+     *
+     * @param viewTypes     条目类型，也就是布局资源ID。
+     * @param holderClasses 与条目类型一一对应的ViewHolder的字节码对象。
+     * @return 如果有任何一个条目类型已经被其他的ViewHolder注册过了，或者同一个条目类型对应了不同的ViewHolder则返回false。
+     */
+    boolean register(int[] viewTypes, Class<?>[] holderClasses) {
+        for (int i = 0; i < viewTypes.length; i++) {
+            Class<?> registered = mHolderClasses.get(viewTypes[i]);
+            if (registered != null && registered != holderClasses[i]) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (viewTypes[j] == viewTypes[i] && holderClasses[j] != holderClasses[i]) {
+                    return false;
+                }
+            }
+        }
+        for (int i = 0; i < viewTypes.length; i++) {
+            mHolderClasses.put(viewTypes[i], holderClasses[i]);
+        }
+        return true;
+    }
+
+    /**
+     * 报告某种条目在一个列表中同时显示的个数，当超过了之前的最大个数时会增大该条目的最大缓存数。
+     *
+     * @param viewType     条目类型，也就是布局资源ID。
+     * @param visibleCount 同时显示的个数。
+     */
+    void reportVisibleCount(int viewType, int visibleCount) {
+        if (visibleCount > mPeakVisibleCounts.get(viewType) && mHolderClasses.get(viewType) != null) {
+            mPeakVisibleCounts.put(viewType, visibleCount);
+            //多缓存一个，用来应对滑动时一个条目移出的同时另一个条目移入的情况。
+            for (Scope scope : mScopes.values()) {
+                scope.pool.setMaxRecycledViews(viewType, visibleCount + 1);
+            }
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        //界面刚刚不可见时保留缓存，因为用户很可能马上就会回来；其他的情况都说明内存已经比较紧张了。
+        if (level >= TRIM_MEMORY_RUNNING_LOW && level != TRIM_MEMORY_UI_HIDDEN) {
+            clear();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    /**
+     * 一个Context的池子以及正在使用它的列表的个数。
+     */
+    private static final class Scope {
+        final RecyclerView.RecycledViewPool pool;
+        int references;
+
+        Scope(RecyclerView.RecycledViewPool pool) {
+            this.pool = pool;
+        }
+    }
+
+    /**
+     * 跟随列表添加到窗口和从窗口中移除来获取和释放池子。
+     */
+    private final class Binding implements View.OnAttachStateChangeListener {
+        private boolean mAcquired;
+
+        void acquire(RecyclerView recyclerView) {
+            if (!mAcquired) {
+                mAcquired = true;
+                RecyclerView.RecycledViewPool pool = acquirePool(recyclerView.getContext());
+                if (recyclerView.getRecycledViewPool() != pool) {
+                    recyclerView.setRecycledViewPool(pool);
+                }
+            }
+        }
+
+        void release(RecyclerView recyclerView) {
+            if (mAcquired) {
+                mAcquired = false;
+                releasePool(recyclerView.getContext());
+            }
+        }
+
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            acquire((RecyclerView) v);
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            release((RecyclerView) v);
+        }
+    }
+}
@@ -24,6 +24,10 @@ public class SingleTypeAdapter<D, H extends ItemViewHolder<D>> extends EditSuper
      * 当前的条目点击监听对象。
      */
     private OnItemEventListener<D, SingleTypeAdapter<D, H>> mItemEventListener;
+    /**
+     * 所有条目共用的点击和长按监听。
+     */
+    private ClickDispatcher mClickDispatcher;
 
     public SingleTypeAdapter(@NonNull RecyclerView recyclerView, Class<? extends H> holderClass) {
         this(recyclerView, null, holderClass);
@@ -78,33 +82,48 @@ public class SingleTypeAdapter<D, H extends ItemViewHolder<D>> extends EditSuper
     }
 
     @Override
-    protected View.OnClickListener onGetClickListener(final H viewHolder) {
-        return new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                if (mItemEventListener == null) return;
-                int position = viewHolder.getLayoutPosition();
-                D object = getObject(viewHolder.getLayoutPosition());
-                if (v.getId() == viewHolder.itemView.getId() || v.getId() == viewHolder.getItemClickViewId()) {
-                    mItemEventListener.onItemClick(position, object);
-                } else {
-                    mItemEventListener.onItemChildClick(position, object, v);
-                }
-            }
-        };
+    protected View.OnClickListener onGetClickListener(H viewHolder) {
+        return getClickDispatcher();
     }
 
     @Override
-    protected View.OnLongClickListener onGetLongClickListener(final H viewHolder) {
-        return new View.OnLongClickListener() {
-            @Override
-            public boolean onLongClick(View v) {
-                if (mItemEventListener != null) {
-                    mItemEventListener.onItemLongClick(viewHolder.getLayoutPosition(), getObject(viewHolder.getLayoutPosition()));
-                }
-                return true;
+    protected View.OnLongClickListener onGetLongClickListener(H viewHolder) {
+        return getClickDispatcher();
+    }
+
+    private ClickDispatcher getClickDispatcher() {
+        if (mClickDispatcher == null) {
+            mClickDispatcher = new ClickDispatcher();
+        }
+        return mClickDispatcher;
+    }
+
+    /**
+     * 所有条目共用的点击和长按监听，通过被点击的控件找到所在的ViewHolder。
+     */
+    private class ClickDispatcher implements View.OnClickListener, View.OnLongClickListener {
+
+        @Override
+        public void onClick(View v) {
+            ItemViewHolder viewHolder = findItemViewHolder(v);
+            if (mItemEventListener == null || viewHolder == null) return;
+            int position = viewHolder.getLayoutPosition();
+            D object = getObject(position);
+            if (v.getId() == viewHolder.itemView.getId() || v.getId() == viewHolder.getItemClickViewId()) {
+                mItemEventListener.onItemClick(position, object);
+            } else {
+                mItemEventListener.onItemChildClick(position, object, v);
             }
-        };
+        }
+
+        @Override
+        public boolean onLongClick(View v) {
+            ItemViewHolder viewHolder = findItemViewHolder(v);
+            if (mItemEventListener != null && viewHolder != null) {
+                mItemEventListener.onItemLongClick(viewHolder.getLayoutPosition(), getObject(viewHolder.getLayoutPosition()));
+            }
+            return true;
+        }
     }
 
     public static abstract class OnItemEventListener<D, A extends SingleTypeAdapter> {
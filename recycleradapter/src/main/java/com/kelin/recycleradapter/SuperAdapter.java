@@ -1,9 +1,6 @@
 package com.kelin.recycleradapter;
 
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
-import android.os.Message;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -14,18 +11,25 @@ import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.helper.ItemTouchHelper;
 import android.util.Log;
+import android.util.SparseIntArray;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.LinearLayout;
+import com.kelin.recycleradapter.callback.ChangePayload;
 import com.kelin.recycleradapter.callback.ItemDragResultListener;
+import com.kelin.recycleradapter.callback.RenderModelPreparer;
+import com.kelin.recycleradapter.diff.DiffCallback;
+import com.kelin.recycleradapter.diff.DiffResult;
+import com.kelin.recycleradapter.diff.DiffStrategy;
+import com.kelin.recycleradapter.diff.KeyedDiffStrategy;
+import com.kelin.recycleradapter.diff.MyersDiffStrategy;
 import com.kelin.recycleradapter.holder.ItemViewHolder;
 import com.kelin.recycleradapter.interfaces.Orientation;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 描述 {@link android.support.v7.widget.RecyclerView} 的适配器的基类。
@@ -45,25 +49,29 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
      */
     static final int TYPE_EMPTY_ITEM = 0x0000_00f0;
     /**
-     * 当DiffUtil工作完成后所发送的消息标识。
+     * 列表为空时的条目的稳定ID。
      */
-    private static final int MSG_DISPATCH_UPDATES = 0x0000_0021;
+    static final long ID_EMPTY_ITEM = Long.MIN_VALUE;
     /**
-     * 当前页面的数据集。
+     * 加载更多条目的稳定ID。
      */
-    private List<D> mDataList;
+    static final long ID_LOAD_MORE_ITEM = Long.MIN_VALUE + 1;
     /**
-     * 用来存页面数据集的副本。
+     * 当前页面的数据集。
      */
-    private List<D> mTempList;
+    private List<D> mDataList;
     /**
-     * 当需要刷新列表时，用来比较两此数据不同的回调。
+     * 列表当前所展示的数据的快照，也就是下一次刷新时用来比较的旧数据。
      */
-    private DiffUtil.Callback mDiffUtilCallback;
+    private volatile DataSnapshot<D> mOldSnapshot = DataSnapshot.empty();
     /**
      * 与当前适配器绑定的 {@link RecyclerView} 对象。
      */
     private RecyclerView mRecyclerView;
+    /**
+     * 所有条目共用的拖拽手柄的触摸监听。
+     */
+    private View.OnTouchListener mDragHandleTouchListener;
     /**
      * 当前 {@link RecyclerView} 的宽度被均分成的份数。
      */
@@ -100,6 +108,22 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
      * 条目拖拽完成后的监听。
      */
     private ItemDragResultListener<D> mItemDragResultListener;
+    /**
+     * 当前正在进行的拖拽，拖拽过程中的移动只记录在这里，松手后才写入数据集合。
+     */
+    private DragSession mDragSession;
+    /**
+     * 网格布局时缓存占屏值的对象，线性布局时为null。
+     */
+    private CachedSpanSizeLookup mSpanSizeLookup;
+    /**
+     * 渲染模型的缓存，没有设置 {@link RenderModelPreparer} 时为null。
+     */
+    private RenderModelCache<D> mRenderModelCache;
+    /**
+     * 耗时统计，没有设置时为null，这时不会有任何额外的开销。
+     */
+    private volatile AdapterMetrics mMetrics;
     /**
      * 条目拖拽帮助对象。
      */
@@ -109,32 +133,81 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
      */
     private LoadMoreRetryClickListener mLoadMoreRetryListener;
     /**
-     * 用来执行DiffUtil任务的单线程执行器。
+     * 根据滚动速度提前触发加载更多的策略，没有设置提前量时为null。
      */
-    private ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+    private LoadMorePrefetchPolicy mLoadMorePrefetchPolicy;
     /**
-     * 用来在主线程处理DiffUtil任务的工具。
+     * 分页模式下的数据集合，没有使用分页模式时为null。
      */
-    private Handler mHandler = new Handler(Looper.getMainLooper()) {
-        @Override
-        public void handleMessage(Message msg) {
-            DiffUtil.DiffResult diffResult = (DiffUtil.DiffResult) msg.obj;
-            diffResult.dispatchUpdatesTo(SuperAdapter.this);
-            // 通知刷新了之后，要更新副本数据到最新
-            mTempList.clear();
-            mTempList.addAll(mDataList);
-        }
-    };
+    private PagedDataList<?, D> mPagedList;
+    /**
+     * 预先在后台线程加载好的条目布局，只有在调用过预加载的方法之后才会被创建。
+     */
+    private PrewarmedViewPool mPrewarmedViewPool;
+    /**
+     * 是否使用进程内共用的 {@link SharedViewPool}。
+     */
+    private boolean mViewPoolShared;
     /**
-     * DiffUtil的检索列表数据变化的任务。
+     * 每种条目当前显示在列表中的个数，只有在使用共用的池子时才会统计。
      */
-    private Runnable mRefreshRunnable = new Runnable() {
+    private SparseIntArray mAttachedCounts;
+    /**
+     * 用来执行DiffUtil任务的线程池，默认为所有适配器共用的全局实例。
+     */
+    private DiffExecutor mDiffExecutor = DiffExecutor.getDefault();
+    /**
+     * 比较新旧数据的策略。
+     */
+    private volatile DiffStrategy mDiffStrategy = new MyersDiffStrategy();
+    /**
+     * 刷新请求的调度器，负责合并和中断DiffUtil任务。
+     */
+    private RefreshScheduler<D> mRefreshScheduler = new RefreshScheduler<>(new RefreshScheduler.Target<D>() {
+        @Override
+        public DataSnapshot<D> getOldSnapshot() {
+            return mOldSnapshot;
+        }
+
         @Override
-        public void run() {
-            DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(mDiffUtilCallback);
-            mHandler.sendMessage(Message.obtain(mHandler, MSG_DISPATCH_UPDATES, diffResult));
+        public DiffCallback createDiffCallback(DataSnapshot<D> oldSnapshot, DataSnapshot<D> newSnapshot) {
+            return new SnapshotDiffCallback(oldSnapshot, newSnapshot);
         }
-    };
+
+        @Override
+        public DiffResult calculateDiff(DataSnapshot<D> oldSnapshot, DataSnapshot<D> newSnapshot, DiffCallback callback) {
+            AdapterMetrics metrics = mMetrics;
+            if (metrics == null) {
+                return SuperAdapter.this.calculateDiff(oldSnapshot, newSnapshot, callback);
+            }
+            long start = AdapterMetrics.now();
+            DiffResult diffResult = SuperAdapter.this.calculateDiff(oldSnapshot, newSnapshot, callback);
+            metrics.recordDiff(AdapterMetrics.now() - start);
+            return diffResult;
+        }
+
+        @Override
+        public boolean onDiffCalculated(DataSnapshot<D> oldSnapshot, DataSnapshot<D> newSnapshot, DiffResult diffResult) {
+            if (oldSnapshot != mOldSnapshot) {
+                //比较期间列表又被直接修改过了，这个结果已经不能用了，需要基于最新的数据重新比较。
+                notifyRefresh();
+                return false;
+            }
+            AdapterMetrics metrics = mMetrics;
+            long start = metrics == null ? 0 : AdapterMetrics.now();
+            diffResult.dispatchUpdatesTo(SuperAdapter.this);
+            if (metrics != null) {
+                metrics.recordDispatch(AdapterMetrics.now() - start);
+            }
+            // 通知刷新了之后，新数据的快照就是下一次刷新时的旧数据，不需要再复制。
+            mOldSnapshot = newSnapshot;
+            onSnapshotDispatched(newSnapshot);
+            if (mRenderModelCache != null) {
+                mRenderModelCache.prepareWindow(newSnapshot, findFirstVisibleItemPosition(), findLastVisibleItemPosition());
+            }
+            return true;
+        }
+    }, mDiffExecutor.newSerialExecutor());
 
     /**
      * 构造方法。
@@ -180,64 +253,38 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
         mRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
             @Override
             public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+                if (newState == RecyclerView.SCROLL_STATE_IDLE && mLoadMorePrefetchPolicy != null) {
+                    mLoadMorePrefetchPolicy.onScrollIdle();
+                }
                 SuperAdapter.this.onRecyclerViewScrollStateChanged(recyclerView, newState);
             }
 
             @Override
             public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                if (mPagedList != null) {
+                    mPagedList.onVisibleRangeChanged(findFirstVisibleItemPosition(), findLastVisibleItemPosition());
+                }
+                if (mRenderModelCache != null) {
+                    mRenderModelCache.onVisibleRangeChanged(mOldSnapshot, findFirstVisibleItemPosition(), findLastVisibleItemPosition());
+                }
+                if (mLoadMorePrefetchPolicy != null) {
+                    mLoadMorePrefetchPolicy.onScrolled(mOrientation == LinearLayout.VERTICAL ? dy : dx);
+                }
                 //处理loadMore
                 if (isLoadMoreUsable() && mLMM.isLoadState()) {
                     if (mLMM.isInTheLoadMore() || mLMM.isNoMoreState())
                         return;
                     int lastVisibleItemPosition = findLastVisibleItemPosition();
-                    int size = getDataList().size();
+                    int size = getDataSize();
                     int targetPosition = size - mLMM.getLoadMoreOffset();
-                    if (targetPosition <= 0 || lastVisibleItemPosition == targetPosition || lastVisibleItemPosition == size) {
+                    //快速滑动时可能会直接越过触发位置，所以只要超过了触发位置就触发。
+                    if (targetPosition <= 0 || lastVisibleItemPosition >= targetPosition || shouldPrefetchLoadMore(lastVisibleItemPosition, size)) {
                         startLoadMore();
                     }
                 }
                 SuperAdapter.this.onRecyclerViewScrolled(recyclerView, dx, dy, mLm);
             }
         });
-
-        mDiffUtilCallback = new DiffUtil.Callback() {
-            @Override
-            public int getOldListSize() {
-                return mTempList.size();
-            }
-
-            @Override
-            public int getNewListSize() {
-                return mDataList.size();
-            }
-
-            // 判断是否是同一个 item
-            @Override
-            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
-                D oldObject = getOldObject(oldItemPosition);
-                D newObject = getObject(newItemPosition);
-                return oldObject == newObject || SuperAdapter.this.areItemsTheSame(oldObject, newObject);
-            }
-
-            // 如果是同一个 item 判断内容是否相同
-            @Override
-            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-                D oldObject = getOldObject(oldItemPosition);
-                D newObject = getObject(newItemPosition);
-                return oldObject == newObject || SuperAdapter.this.areContentsTheSame(oldObject, newObject);
-            }
-
-            @Nullable
-            @Override
-            public Bundle getChangePayload(int oldItemPosition, int newItemPosition) {
-                D oldObject = getOldObject(oldItemPosition);
-                D newObject = getObject(newItemPosition);
-                if (oldObject == newObject) return null;
-                Bundle bundle = new Bundle();
-                SuperAdapter.this.getChangePayload(oldObject, newObject, bundle);
-                return bundle.size() == 0 ? null : bundle;
-            }
-        };
     }
 
     ViewGroup.MarginLayoutParams getMarginLayoutParams(@NonNull View view) {
@@ -322,18 +369,9 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
 
     protected boolean onItemMove(int fromPosition, int toPosition) {
         if (mDragEnable) {
-            if (getTotalSpanSize() > 1) {
-                if (fromPosition < toPosition) {
-                    for (int i = fromPosition; i < toPosition; i++) {
-                        Collections.swap(mDataList, i, i + 1);
-                    }
-                } else {
-                    for (int i = fromPosition; i > toPosition; i--) {
-                        Collections.swap(mDataList, i, i - 1);
-                    }
-                }
-            } else {
-                Collections.swap(mDataList, fromPosition, toPosition);
+            if (mDragSession == null || !mDragSession.move(fromPosition, toPosition)) {
+                commitDragSession();
+                moveItem(mDataList, fromPosition, toPosition);
             }
             notifyItemMoved(fromPosition, toPosition);
             return true;
@@ -342,6 +380,41 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
         }
     }
 
+    /**
+     * 将数据从一个位置移动到另一个位置，两个位置之间的数据会依次向前或向后挪动一位，与 {@link #notifyItemMoved(int, int)} 的语义一致。
+     * <p>只需要一次删除和一次插入，而不是在两个位置之间逐个交换，拖拽跨越的距离再远每一帧也只需要移动一次数组。
+     *
+     * @param list         要移动数据的集合。
+     * @param fromPosition 移动前的位置。
+     * @param toPosition   移动后的位置。
+     */
+    static <E> void moveItem(List<E> list, int fromPosition, int toPosition) {
+        if (fromPosition != toPosition) {
+            list.add(toPosition, list.remove(fromPosition));
+        }
+    }
+
+    /**
+     * 开始拖拽一个条目，之后该条目的移动只会记录位置的变化而不会修改数据集合，直到调用 {@link #commitDragSession()}。
+     *
+     * @param position 被拖拽的条目的位置。
+     */
+    void startDragSession(int position) {
+        commitDragSession();
+        mDragSession = new DragSession(position);
+    }
+
+    /**
+     * 结束拖拽，将拖拽后的顺序一次性地写入数据集合。没有正在进行的拖拽时什么也不做。
+     */
+    void commitDragSession() {
+        DragSession session = mDragSession;
+        mDragSession = null;
+        if (session != null && session.isMoved()) {
+            moveItem(mDataList, session.getFromPosition(), session.getToPosition());
+        }
+    }
+
     protected void onItemDismiss(int position) {
         if (mSwipedEnable) {
             mDataList.remove(position);
@@ -394,12 +467,17 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
                     }
                 }
             };
-            lm.setSpanSizeLookup(new GridLayoutManager.SpanSizeLookup() {
+            if (mSpanSizeLookup != null) {
+                unregisterAdapterDataObserver(mSpanSizeLookup.getInvalidationObserver());
+            }
+            mSpanSizeLookup = new CachedSpanSizeLookup() {
                 @Override
-                public int getSpanSize(int position) {
+                int computeSpanSize(int position) {
                     return getItemSpan(position);
                 }
-            });
+            };
+            registerAdapterDataObserver(mSpanSizeLookup.getInvalidationObserver());
+            lm.setSpanSizeLookup(mSpanSizeLookup);
             mLm = lm;
         } else {
             mLm = new LinearLayoutManager(recyclerView.getContext(), orientation, false) {
@@ -441,6 +519,15 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
 
     protected abstract int getItemSpanSize(int position);
 
+    /**
+     * 清空缓存的占屏值，当条目的占屏值在没有通知适配器的情况下发生了变化时调用。
+     */
+    void invalidateSpanSizeCache() {
+        if (mSpanSizeLookup != null) {
+            mSpanSizeLookup.invalidate();
+        }
+    }
+
     /**
      * 设置加载更多时显示的布局。所有布局资源的宽高应当一样。
      *
@@ -489,6 +576,39 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
         mLoadMoreListener = listener;
     }
 
+    /**
+     * 设置根据滚动速度提前触发加载更多的时间。
+     * <p>设置后会根据当前的滚动速度和条目的平均尺寸估算滚动到列表末尾还需要多长时间，当这个时间不超过该值时就会触发加载更多，
+     * 一般设置为加载一页数据所需要的时间，这样快速滑动到列表末尾时数据已经加载好了。原来根据偏移值触发的方式仍然有效。
+     *
+     * @param leadTimeMillis 提前触发的时间，单位毫秒，小于等于0表示不根据滚动速度触发。
+     */
+    public void setLoadMoreLeadTime(long leadTimeMillis) {
+        mLoadMorePrefetchPolicy = leadTimeMillis > 0 ? new LoadMorePrefetchPolicy(leadTimeMillis) : null;
+    }
+
+    /**
+     * 根据滚动速度判断是否需要提前触发加载更多。
+     *
+     * @param lastVisibleItemPosition 最后一个可见条目的位置。
+     * @param size                    数据的条数。
+     */
+    private boolean shouldPrefetchLoadMore(int lastVisibleItemPosition, int size) {
+        if (mLoadMorePrefetchPolicy == null || !mLoadMorePrefetchPolicy.isScrollingToEnd()) {
+            return false;
+        }
+        int firstVisibleItemPosition = findFirstVisibleItemPosition();
+        View firstView = mLm.findViewByPosition(firstVisibleItemPosition);
+        View lastView = mLm.findViewByPosition(lastVisibleItemPosition);
+        if (firstView == null || lastView == null) {
+            return false;
+        }
+        int extent = mOrientation == LinearLayout.VERTICAL ? lastView.getBottom() - firstView.getTop() : lastView.getRight() - firstView.getLeft();
+        //网格布局中一行有多个条目，所以按条目数而不是行数计算平均尺寸。
+        float extentPerPosition = (float) extent / (lastVisibleItemPosition - firstVisibleItemPosition + 1);
+        return mLoadMorePrefetchPolicy.shouldLoadMore(size - 1 - lastVisibleItemPosition, extentPerPosition);
+    }
+
     /**
      * 设置列表为空时显示的布局。如果你使用了该方法，则必须为你的ViewHolder提供 {@link ItemViewHolder#ItemViewHolder(View)} 构造方法，
      * 否则会出错。
@@ -545,7 +665,10 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
      * 开始加载更多。
      */
     private void startLoadMore() {
-        if (mLoadMoreListener != null) {
+        if (mPagedList != null) {
+            mLMM.setInTheLoadMore(true);
+            mPagedList.loadNext();
+        } else if (mLoadMoreListener != null) {
             Log.i("MultiTypeAdapter", "开始加载更多");
             mLMM.setInTheLoadMore(true);
             mLoadMoreListener.onLoadMore();
@@ -556,7 +679,10 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
      * 开始加载更多。
      */
     private void reloadMore() {
-        if (mLoadMoreListener != null) {
+        if (mPagedList != null) {
+            mLMM.setInTheLoadMore(true);
+            mPagedList.loadNext();
+        } else if (mLoadMoreListener != null) {
             Log.i("MultiTypeAdapter", "重新开始加载更多");
             mLMM.setInTheLoadMore(true);
             mLoadMoreListener.onReloadMore();
@@ -589,6 +715,27 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
         Log.i("MultiTypeAdapter", "加载完成");
     }
 
+    /**
+     * 进入分页模式，之前的数据会被清空，然后加载第一页数据。
+     *
+     * @param pagedList 分页模式下的数据集合。
+     */
+    final void setPagedDataList(@NonNull PagedDataList<?, D> pagedList) {
+        checkLoadMoreAvailable();
+        setDataList(pagedList);
+        mPagedList = pagedList;
+        mLMM.setLoadState();
+        notifyDataSetChanged();
+        startLoadMore();
+    }
+
+    /**
+     * 获取分页模式下内存中保留了数据的页数，没有使用分页模式时返回0。
+     */
+    public int getLoadedPageCount() {
+        return mPagedList == null ? 0 : mPagedList.getLoadedPageCount();
+    }
+
     private void checkLoadMoreAvailable() {
         if (mLMM == null) {
             throw new RuntimeException("You are not set to load more View, you can call the setLoadMoreView() method.");
@@ -597,10 +744,24 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
 
     @Override
     public int getItemCount() {
-        int size = getDataList().size();
+        int size = getDataSize();
         return size == 0 ? mEmptyLayout == null ? 0 : 1 : size + (!isLoadMoreUsable() || mLMM.noCurStateLayoutId() ? 0 : 1);
     }
 
+    /**
+     * 获取条目的稳定ID，只有在调用了 {@link #setHasStableIds(boolean)} 方法启用了稳定ID后才会被 {@link RecyclerView} 使用。
+     * 启用前请确保所有条目的 {@link #getItemKey(Object)} 都会返回有效且不重复的值。
+     *
+     * @param position 条目的位置。
+     */
+    @Override
+    public long getItemId(int position) {
+        if (isEmptyItem(position)) return ID_EMPTY_ITEM;
+        if (isLoadMoreItem(position)) return ID_LOAD_MORE_ITEM;
+        D d = getObject(position);
+        return d == null ? RecyclerView.NO_ID : getItemKey(d);
+    }
+
     @Override
     public final int getItemViewType(int position) {
         if (isEmptyItem(position)) return TYPE_EMPTY_ITEM;
@@ -625,16 +786,159 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
     @Override
     public void onBindViewHolder(VH holder, int position, List<Object> payloads) {
         if (isEmptyItem(position) || isLoadMoreItem(position)) return;
+        long start = startTrace();
+        if (mPagedList != null) {
+            mPagedList.onItemBound(position);
+        }
+        if (adoptViewHolder(holder)) {
+            onViewHolderAdopted(holder);
+        }
+        boolean partial = false;
+        ChangePayload payload;
         if (payloads == null || payloads.isEmpty()) {
-            holder.onBindData(position, getObject(position));
+            bindData(holder, position, getObject(position));
+        } else if ((payload = ChangePayload.merge(payloads)) != null) {
+            holder.onBindPartData(position, getObject(position), payload);
+            payload.recycle();
+            partial = true;
         } else {
             Object o = payloads.get(0);
             if (o instanceof Bundle) {
                 holder.onBindPartData(position, getObject(position), (Bundle) o);
+                partial = true;
             } else {
-                holder.onBindData(position, getObject(position));
+                bindData(holder, position, getObject(position));
             }
         }
+        traceBind(holder.getItemViewType(), start, partial);
+    }
+
+    /**
+     * 设置耗时统计，设置后会记录创建ViewHolder、绑定数据、比较新旧数据等操作的耗时。
+     *
+     * @param metrics {@link AdapterMetrics} 对象，可以同时设置给多个适配器，为null时不再统计。
+     */
+    public void setAdapterMetrics(@Nullable AdapterMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    /**
+     * 获取当前的耗时统计。
+     */
+    @Nullable
+    public AdapterMetrics getAdapterMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * 开始统计一次操作的耗时。
+     *
+     * @return 返回开始的时间，没有设置耗时统计时返回0。
+     */
+    final long startTrace() {
+        return mMetrics == null ? 0 : AdapterMetrics.now();
+    }
+
+    /**
+     * 记录一次创建ViewHolder的耗时。
+     *
+     * @param viewType 条目类型。
+     * @param start    {@link #startTrace()} 的返回值。
+     */
+    final void traceCreate(int viewType, long start) {
+        AdapterMetrics metrics = mMetrics;
+        if (metrics != null && start != 0) {
+            metrics.recordCreate(viewType, AdapterMetrics.now() - start);
+        }
+    }
+
+    /**
+     * 记录一次绑定数据的耗时。
+     *
+     * @param viewType 条目类型。
+     * @param start    {@link #startTrace()} 的返回值。
+     * @param partial  是否是局部绑定。
+     */
+    final void traceBind(int viewType, long start, boolean partial) {
+        AdapterMetrics metrics = mMetrics;
+        if (metrics != null && start != 0) {
+            metrics.recordBind(viewType, AdapterMetrics.now() - start, partial);
+        }
+    }
+
+    /**
+     * 记录一次根据位置查找子Adapter的操作。
+     */
+    final void traceChildLookup() {
+        AdapterMetrics metrics = mMetrics;
+        if (metrics != null) {
+            metrics.countChildLookup();
+        }
+    }
+
+    /**
+     * 完整地绑定一个条目的数据，设置了 {@link RenderModelPreparer} 时会同时传入渲染模型。
+     */
+    private void bindData(VH holder, int position, D d) {
+        Object renderModel = getRenderModel(d);
+        if (renderModel == null) {
+            holder.onBindData(position, d);
+        } else {
+            holder.onBindPreparedData(position, d, renderModel);
+        }
+    }
+
+    /**
+     * 获取条目的渲染模型，缓存中没有时在主线程计算。
+     *
+     * @param d 条目的数据。
+     * @return 没有设置 {@link RenderModelPreparer} 或者数据为null时返回null。
+     */
+    final Object getRenderModel(D d) {
+        return mRenderModelCache == null || d == null ? null : mRenderModelCache.get(d);
+    }
+
+    /**
+     * 设置渲染模型的计算器，设置后会立即在后台为可见区域附近的数据计算渲染模型。
+     *
+     * @param preparer 渲染模型的计算器，为null时不再使用渲染模型。
+     */
+    void setRenderModelPreparer(@Nullable RenderModelPreparer<D, ?> preparer) {
+        if (mRenderModelCache != null) {
+            mRenderModelCache.release();
+            mRenderModelCache = null;
+        }
+        if (preparer != null) {
+            mRenderModelCache = new RenderModelCache<>(new RenderModelCache.Target<D>() {
+                @Override
+                public boolean areContentsTheSame(D oldItemData, D newItemData) {
+                    return SuperAdapter.this.areContentsTheSame(oldItemData, newItemData);
+                }
+            }, preparer, mDiffExecutor.newSerialExecutor(), MainThreadExecutor.get(), RenderModelCache.DEFAULT_CAPACITY);
+            mRenderModelCache.prepareWindow(createSnapshot(), findFirstVisibleItemPosition(), findLastVisibleItemPosition());
+        }
+    }
+
+    /**
+     * 丢弃被移除的数据的渲染模型，没有设置 {@link RenderModelPreparer} 时什么也不做。
+     *
+     * @param datum 被移除的数据。
+     */
+    void evictRenderModels(Collection<D> datum) {
+        if (mRenderModelCache != null) {
+            mRenderModelCache.evict(datum);
+        }
+    }
+
+    /**
+     * 在后台为新加入的数据计算渲染模型，没有设置 {@link RenderModelPreparer} 时什么也不做。
+     *
+     * @param datum 新加入的数据。
+     */
+    void prepareRenderModels(Collection<D> datum) {
+        if (mRenderModelCache != null) {
+            mRenderModelCache.prepare(datum);
+        }
     }
 
     @Override
@@ -660,6 +964,17 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
      */
     protected abstract boolean areContentsTheSame(D oldItemData, D newItemData);
 
+    /**
+     * 获取条目数据的唯一标识。比较数据时两个条目都有唯一标识的话会直接比较唯一标识和数据类型，{@link KeyedDiffStrategy} 也依赖于它，
+     * 同时它也是 {@link #getItemId(int)} 的返回值。唯一标识只需要在同一种数据类型中不重复。该方法可能会在后台线程调用。
+     *
+     * @param d 条目的数据。
+     * @return 返回唯一标识，默认返回 {@link RecyclerView#NO_ID} 表示没有唯一标识。
+     */
+    protected long getItemKey(D d) {
+        return RecyclerView.NO_ID;
+    }
+
     /**
      * 获取两个位置的Item的内容不同之处。
      *
@@ -669,18 +984,238 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
      */
     protected abstract void getChangePayload(D oldItemData, D newItemData, Bundle bundle);
 
+    /**
+     * 获取两个位置的Item的内容不同之处，优先于 {@link #getChangePayload(Object, Object, Bundle)} 方法调用。
+     *
+     * @param oldItemData 旧的Item数据。
+     * @param newItemData 新的Item数据。
+     * @param payload     将发生了变化的字段标记到该参数中。
+     */
+    protected void getChangePayload(D oldItemData, D newItemData, ChangePayload payload) {
+    }
+
     /**
      * 刷新RecyclerView。如果你需要刷新列表最好调用该方法，而不应该调用 {@link #notifyDataSetChanged()} 方法，该方法是
      * 通过Google提供的 {@link DiffUtil} 工具类进行数据比较然后映射到对应的 notifyItem***() 方法的。
      */
     public void notifyRefresh() {
-        mExecutor.execute(mRefreshRunnable);
+        mRefreshScheduler.schedule(createSnapshot());
+    }
+
+    /**
+     * 设置比较新旧数据的策略，默认为 {@link MyersDiffStrategy}。如果条目都有稳定的唯一标识可以使用 {@link KeyedDiffStrategy}，
+     * 这时需要重写 {@link #getItemKey(Object)} 方法。
+     *
+     * @param strategy {@link DiffStrategy} 对象。
+     */
+    public void setDiffStrategy(@NonNull DiffStrategy strategy) {
+        mDiffStrategy = strategy;
+    }
+
+    /**
+     * 设置用来执行DiffUtil任务的线程池。默认使用 {@link DiffExecutor#getDefault()}，只有在需要与其他列表隔离的时候才需要调用该方法。
+     *
+     * @param executor {@link DiffExecutor} 对象。
+     */
+    public void setDiffExecutor(@NonNull DiffExecutor executor) {
+        if (mDiffExecutor != executor) {
+            mDiffExecutor = executor;
+            mRefreshScheduler.setExecutor(executor.newSerialExecutor());
+            if (mRenderModelCache != null) {
+                mRenderModelCache.setWorkerExecutor(executor.newSerialExecutor());
+            }
+        }
+    }
+
+    /**
+     * 获取因为 {@link #notifyRefresh()} 调用过于频繁而被合并掉的刷新请求的次数。
+     */
+    public long getCoalescedRefreshCount() {
+        return mRefreshScheduler.getCoalescedCount();
+    }
+
+    /**
+     * 获取因为有了更新的数据而被中断或丢弃的比较的次数。比较期间列表被直接修改过，导致结果过期而被丢弃的也计算在内。
+     */
+    public long getCancelledRefreshCount() {
+        return mRefreshScheduler.getCancelledCount();
+    }
+
+    /**
+     * 设置是否使用进程内共用的 {@link SharedViewPool}，默认为不使用。使用后不同列表中相同的ViewHolder可以互相复用，
+     * 适合多个Tab中的列表使用相同条目的场景。如果当前适配器中的某个布局已经被其他的ViewHolder使用了，则不会使用共用的池子。
+     *
+     * @param shared 是否使用共用的池子。
+     * @return 如果成功使用了共用的池子则返回true。
+     */
+    public boolean setViewPoolShared(boolean shared) {
+        SharedViewPool pool = SharedViewPool.getInstance();
+        mViewPoolShared = shared && registerViewTypes(pool);
+        if (mViewPoolShared) {
+            if (mAttachedCounts == null) {
+                mAttachedCounts = new SparseIntArray();
+            }
+            pool.attach(mRecyclerView);
+        } else {
+            pool.detach(mRecyclerView);
+        }
+        return mViewPoolShared;
+    }
+
+    /**
+     * 判断当前是否使用了进程内共用的 {@link SharedViewPool}。
+     */
+    public boolean isViewPoolShared() {
+        return mViewPoolShared;
+    }
+
+    /**
+     * 将当前适配器中所有的条目类型和ViewHolder注册到共用的池子中。
+     *
+     * @param pool 共用的池子。
+     * @return 如果有任何一个条目类型与已经注册的ViewHolder冲突则返回false。
+     */
+    boolean registerViewTypes(SharedViewPool pool) {
+        return false;
+    }
+
+    /**
+     * 标记ViewHolder是由当前适配器创建的，在创建ViewHolder时调用。
+     *
+     * @param holder 新创建的ViewHolder。
+     */
+    final void markViewHolderOwner(RecyclerView.ViewHolder holder) {
+        if (mViewPoolShared) {
+            holder.itemView.setTag(R.id.com_kelin_zhou_tag_view_holder_owner, this);
+        }
+    }
+
+    /**
+     * 在绑定数据之前调用，判断ViewHolder是否是从共用的池子中取到的由其他适配器创建的ViewHolder，如果是则将其标记为当前适配器的。
+     *
+     * @param holder 要绑定数据的ViewHolder。
+     * @return 如果是由其他适配器创建的则返回true，这时需要为ViewHolder重新绑定事件。
+     */
+    final boolean adoptViewHolder(RecyclerView.ViewHolder holder) {
+        if (!mViewPoolShared || holder.itemView.getTag(R.id.com_kelin_zhou_tag_view_holder_owner) == this) {
+            return false;
+        }
+        holder.itemView.setTag(R.id.com_kelin_zhou_tag_view_holder_owner, this);
+        return true;
+    }
+
+    /**
+     * 当从共用的池子中取到由其他适配器创建的ViewHolder时调用，用来重新绑定事件。
+     *
+     * @param holder 由其他适配器创建的ViewHolder。
+     */
+    void onViewHolderAdopted(VH holder) {
+    }
+
+    @Override
+    public void onViewAttachedToWindow(VH holder) {
+        if (mViewPoolShared) {
+            int viewType = holder.getItemViewType();
+            int count = mAttachedCounts.get(viewType) + 1;
+            mAttachedCounts.put(viewType, count);
+            SharedViewPool.getInstance().reportVisibleCount(viewType, count);
+        }
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(VH holder) {
+        if (mViewPoolShared) {
+            int viewType = holder.getItemViewType();
+            mAttachedCounts.put(viewType, Math.max(0, mAttachedCounts.get(viewType) - 1));
+        }
+    }
+
+    /**
+     * 获取创建ViewHolder时从预加载的池子中取到布局的次数。
+     */
+    public long getPrewarmHitCount() {
+        return mPrewarmedViewPool == null ? 0 : mPrewarmedViewPool.getHitCount();
+    }
+
+    /**
+     * 获取调用过预加载的方法之后，创建ViewHolder时池子中没有布局而只能在主线程加载的次数。
+     */
+    public long getPrewarmMissCount() {
+        return mPrewarmedViewPool == null ? 0 : mPrewarmedViewPool.getMissCount();
+    }
+
+    /**
+     * 在后台线程预先加载条目布局。
+     *
+     * @param layoutId 布局资源ID。
+     * @param count    希望预先加载的个数。
+     */
+    void prewarmItemView(@LayoutRes int layoutId, int count) {
+        if (mPrewarmedViewPool == null) {
+            mPrewarmedViewPool = new PrewarmedViewPool(mRecyclerView);
+        }
+        mPrewarmedViewPool.prewarm(layoutId, count);
+    }
+
+    /**
+     * 加载条目布局，优先使用预先加载好的布局。
+     *
+     * @param parent   布局的父容器。
+     * @param layoutId 布局资源ID。
+     */
+    View inflateItemView(ViewGroup parent, @LayoutRes int layoutId) {
+        if (mPrewarmedViewPool != null) {
+            return mPrewarmedViewPool.obtain(parent, layoutId);
+        }
+        return LayoutInflater.from(parent.getContext()).inflate(layoutId, parent, false);
+    }
+
+    /**
+     * 为当前的数据集创建快照，在每次调用 {@link #notifyRefresh()} 时调用。
+     */
+    DataSnapshot<D> createSnapshot() {
+        return DataSnapshot.of(getDataList());
+    }
+
+    /**
+     * 在后台线程比较两个快照，默认直接使用当前的比较策略。
+     *
+     * @param oldSnapshot 旧数据的快照。
+     * @param newSnapshot 新数据的快照。
+     * @param callback    比较两个快照的回调。
+     */
+    DiffResult calculateDiff(DataSnapshot<D> oldSnapshot, DataSnapshot<D> newSnapshot, DiffCallback callback) {
+        return mDiffStrategy.calculateDiff(callback);
+    }
+
+    /**
+     * 获取当前的比较策略。
+     */
+    DiffStrategy getDiffStrategy() {
+        return mDiffStrategy;
+    }
+
+    /**
+     * 获取用来执行DiffUtil任务的线程池。
+     */
+    DiffExecutor getDiffExecutor() {
+        return mDiffExecutor;
+    }
+
+    /**
+     * 当一次刷新的结果被分发到列表后调用。
+     *
+     * @param snapshot 本次刷新所使用的新数据的快照，它现在已经是列表所展示的数据了。
+     */
+    void onSnapshotDispatched(DataSnapshot<D> snapshot) {
     }
 
     @Override
     public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
-        mExecutor.shutdown();
-        mHandler.removeCallbacksAndMessages(null);
+        mRefreshScheduler.cancel();
+        if (mPrewarmedViewPool != null) {
+            mPrewarmedViewPool.clear();
+        }
     }
 
     /**
@@ -699,11 +1234,16 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
      * @param refresh 是否刷新列表。
      */
     public void setDataList(@NonNull List<D> list, boolean refresh) {
+        if (mPagedList != null && mPagedList != list) {
+            mPagedList.release();
+            mPagedList = null;
+        }
         mDataList = list;
-        if (mTempList == null) {
-            mTempList = new ArrayList<>();
-        } else {
-            mTempList.clear();
+        //新的数据与拖拽前的数据没有关系，未完成的拖拽直接丢弃。
+        mDragSession = null;
+        mOldSnapshot = DataSnapshot.empty();
+        if (mRenderModelCache != null) {
+            mRenderModelCache.clear();
         }
         if (refresh) {
             notifyRefresh();
@@ -711,45 +1251,37 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
     }
 
     /**
-     * 设置数据。
-     *
-     * @param list 数据集合。
+     * 获取当前的数据集合。拿到数据集合后就可能会修改它，所以如果正在拖拽则先将拖拽后的顺序写入数据集合。
      */
-    void addDataList(List<D> list) {
-        getDataList().addAll(list);
-        if (mLMM == null || !mLMM.isInTheLoadMore()) {
-            mTempList.addAll(list);
+    List<D> getDataList() {
+        if (mDataList == null) {
+            mDataList = new ArrayList<>();
         }
+        commitDragSession();
+        return mDataList;
     }
 
     /**
-     * 设置数据。
-     *
-     * @param d 数据集合。
+     * 获取数据的条目数，拖拽不会改变条目数，所以不需要结束拖拽。
      */
-    void addData(D d) {
-        getDataList().add(d);
-        if (mLMM == null || !mLMM.isInTheLoadMore()) {
-            mTempList.add(d);
-        }
+    private int getDataSize() {
+        return mDataList == null ? 0 : mDataList.size();
     }
 
     /**
-     * 获取当前的数据集合。
+     * 获取列表当前所展示的数据的快照。
      */
-    List<D> getDataList() {
-        if (mDataList == null) {
-            mDataList = new ArrayList<>();
-            mTempList = new ArrayList<>();
-        }
-        return mDataList;
+    DataSnapshot<D> getOldSnapshot() {
+        return mOldSnapshot;
     }
 
     /**
-     * 获取临时数据集合。
+     * 直接修改了列表的数据并已经通知了列表时，用来同步更新旧数据的快照。只能在主线程调用。
+     *
+     * @param snapshot 修改后的快照。
      */
-    List<D> getOldDataList() {
-        return mTempList;
+    void setOldSnapshot(DataSnapshot<D> snapshot) {
+        mOldSnapshot = snapshot;
     }
 
     /**
@@ -768,28 +1300,143 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
      * @return 返回 {@link D} 对象。
      */
     public D getObject(int position) {
-        List<D> dataList = getDataList();
-        if (dataList.size() > position && position >= 0) {
-            return dataList.get(position);
+        if (getDataSize() > position && position >= 0) {
+            return mDataList.get(mDragSession == null ? position : mDragSession.indexOf(position));
         }
         return null;
     }
 
+    final void startDrag(ItemViewHolder viewHolder) {
+        mItemTouchHelper.startDrag(viewHolder);
+    }
+
     /**
-     * 获取指定位置的对象。
-     *
-     * @param position 要获取对象对应的条目索引。
-     * @return 返回 {@link D} 对象。
+     * 获取所有条目共用的拖拽手柄的触摸监听，触摸时通过被触摸的控件找到所在的ViewHolder。
      */
-    private D getOldObject(int position) {
-        if (mTempList.size() > position && position >= 0) {
-            return mTempList.get(position);
+    final View.OnTouchListener getDragHandleTouchListener() {
+        if (mDragHandleTouchListener == null) {
+            mDragHandleTouchListener = new View.OnTouchListener() {
+                @Override
+                public boolean onTouch(View v, MotionEvent event) {
+                    ItemViewHolder holder = findItemViewHolder(v);
+                    if (holder != null && v.getId() == holder.getDragHandleViewId()) {
+                        startDrag(holder);
+                    }
+                    return false;
+                }
+            };
         }
-        return null;
+        return mDragHandleTouchListener;
     }
 
-    final void startDrag(ItemViewHolder viewHolder) {
-        mItemTouchHelper.startDrag(viewHolder);
+    /**
+     * 查找某个控件所在的ViewHolder，用来让所有条目共用同一个事件监听。
+     *
+     * @param view 条目的根布局或者条目中的任意子控件。
+     * @return 如果控件已经不在列表中了则返回null。
+     */
+    final ItemViewHolder findItemViewHolder(View view) {
+        RecyclerView.ViewHolder holder = mRecyclerView.findContainingViewHolder(view);
+        return holder instanceof ItemViewHolder ? (ItemViewHolder) holder : null;
+    }
+
+    /**
+     * 比较两个快照的回调，两个快照都是不可变的，所以可以在后台线程直接读取。
+     */
+    private class SnapshotDiffCallback extends DiffCallback {
+        private final DataSnapshot<D> oldSnapshot;
+        private final DataSnapshot<D> newSnapshot;
+        private final long[] oldKeys;
+        private final long[] newKeys;
+        private final Class<?>[] oldTypes;
+        private final Class<?>[] newTypes;
+
+        SnapshotDiffCallback(DataSnapshot<D> oldSnapshot, DataSnapshot<D> newSnapshot) {
+            this.oldSnapshot = oldSnapshot;
+            this.newSnapshot = newSnapshot;
+            oldKeys = keysOf(oldSnapshot);
+            oldTypes = oldSnapshot.keyTypes();
+            newKeys = keysOf(newSnapshot);
+            newTypes = newSnapshot.keyTypes();
+        }
+
+        /**
+         * 获取快照中每个条目的唯一标识，同时缓存每个条目的数据类型，每个快照只会计算一次。
+         */
+        private long[] keysOf(DataSnapshot<D> snapshot) {
+            long[] keys = snapshot.keys();
+            if (keys == null) {
+                keys = new long[snapshot.size()];
+                Class<?>[] types = new Class<?>[keys.length];
+                for (int i = 0; i < keys.length; i++) {
+                    D d = snapshot.get(i);
+                    keys[i] = d == null ? RecyclerView.NO_ID : getItemKey(d);
+                    types[i] = d == null ? null : d.getClass();
+                }
+                snapshot.setKeys(keys, types);
+            }
+            return keys;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldSnapshot.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newSnapshot.size();
+        }
+
+        // 判断是否是同一个 item
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            long oldKey = oldKeys[oldItemPosition];
+            long newKey = newKeys[newItemPosition];
+            if (oldKey != RecyclerView.NO_ID && newKey != RecyclerView.NO_ID) {
+                //唯一标识只在同一种数据类型中不重复，所以还要比较数据类型。
+                return oldKey == newKey && oldTypes[oldItemPosition] == newTypes[newItemPosition];
+            }
+            D oldObject = oldSnapshot.get(oldItemPosition);
+            D newObject = newSnapshot.get(newItemPosition);
+            return oldObject == newObject || SuperAdapter.this.areItemsTheSame(oldObject, newObject);
+        }
+
+        // 如果是同一个 item 判断内容是否相同
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            D oldObject = oldSnapshot.get(oldItemPosition);
+            D newObject = newSnapshot.get(newItemPosition);
+            return oldObject == newObject || SuperAdapter.this.areContentsTheSame(oldObject, newObject);
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            D oldObject = oldSnapshot.get(oldItemPosition);
+            D newObject = newSnapshot.get(newItemPosition);
+            if (oldObject == newObject) return null;
+            ChangePayload payload = ChangePayload.obtain();
+            SuperAdapter.this.getChangePayload(oldObject, newObject, payload);
+            if (!payload.isEmpty()) {
+                return payload;
+            }
+            payload.recycle();
+            //没有使用类型化的方式时兼容原来的Bundle的方式。
+            Bundle bundle = new Bundle();
+            SuperAdapter.this.getChangePayload(oldObject, newObject, bundle);
+            return bundle.size() == 0 ? null : bundle;
+        }
+
+        @Override
+        public long getOldItemKey(int oldItemPosition) {
+            return oldKeys[oldItemPosition];
+        }
+
+        @Override
+        public long getNewItemKey(int newItemPosition) {
+            return newKeys[newItemPosition];
+        }
     }
 
     /**
@@ -850,6 +1497,9 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
                 case ItemTouchHelper.ACTION_STATE_DRAG://拖拽，将要移动条目。
                     mLastActionPosition = viewHolder.getLayoutPosition();
                     mLastActionState = actionState;
+                    if (actionState == ItemTouchHelper.ACTION_STATE_DRAG) {
+                        startDragSession(mLastActionPosition);
+                    }
                     break;
             }
             super.onSelectedChanged(viewHolder, actionState);
@@ -858,6 +1508,10 @@ public abstract class SuperAdapter<D, VH extends ItemViewHolder<D>> extends Recy
         @Override
         public void clearView(RecyclerView recyclerView, RecyclerView.ViewHolder viewHolder) {
             super.clearView(recyclerView, viewHolder);
+            if (mLastActionState == ItemTouchHelper.ACTION_STATE_DRAG) {
+                //拖拽过程中每一帧的移动都只记录了位置，松手后才一次性地修改数据集合。
+                commitDragSession();
+            }
             if (mItemDragResultListener != null && mLastActionPosition != viewHolder.getLayoutPosition()) {
                 switch (mLastActionState) {
                     case ItemTouchHelper.ACTION_STATE_DRAG://拖拽，将要移动条目。
@@ -9,22 +9,19 @@ import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView;
 import android.util.SparseArray;
 import android.view.LayoutInflater;
-import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 
-import com.kelin.recycleradapter.holder.ItemLayout;
+import com.kelin.recycleradapter.callback.ChangePayload;
 import com.kelin.recycleradapter.holder.ItemViewHolder;
 import com.kelin.recycleradapter.holder.ViewHelper;
+import com.kelin.recycleradapter.holder.ViewHolderFactory;
 import com.kelin.recycleradapter.interfaces.EventBindInterceptor;
 import com.kelin.recycleradapter.interfaces.EventInterceptor;
 import com.kelin.recycleradapter.interfaces.LayoutItem;
 import com.kelin.recycleradapter.interfaces.ViewOperation;
 
-import java.lang.reflect.Constructor;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
 
@@ -47,17 +44,26 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
      */
     private MultiTypeAdapter mParentAdapter;
     /**
-     * 用来记录当前Adapter在RecyclerView列表中的起始位置。
+     * 用来记录当前Adapter在父级Adapter的子Adapter池中的索引，-1表示当前没有被添加到父级Adapter中。
+     * <p>当前Adapter在RecyclerView列表中的起始位置不再被直接记录，而是通过这个索引从父级Adapter中计算得到。
      */
-    int firstItemPosition;
+    int poolIndex = -1;
     /**
-     * 用来记录当前Adapter在RecyclerView列表中的结束位置。
+     * 当前Adapter的条目类型在父级Adapter中的编号，条目类型相同的子Adapter编号相同，用来计算父级Adapter的稳定ID。
      */
-    int lastItemPosition;
+    int typeIndex = -1;
+    /**
+     * 用来记录当前Adapter被移除时在RecyclerView列表中的起始位置，被移除后仍需要用它来映射刷新的位置。
+     */
+    int detachedPosition;
     /**
      * 适配器数据的观察者对象。
      */
     AdapterDataObservable mAdapterDataObservable = new AdapterDataObservable();
+    /**
+     * 用来创建ViewHolder的工厂。
+     */
+    private ViewHolderFactory<ItemViewHolder<D>> mHolderFactory;
     /**
      * 用来存放ViewHolder的字节码对象。
      */
@@ -75,6 +81,10 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
      * 当前页面的数据集。
      */
     List<D> mDataList;
+    /**
+     * 当前正在进行的拖拽，拖拽过程中的移动只记录在这里，松手后才写入数据集合。
+     */
+    DragSession mDragSession;
     /**
      * 用来拦截事件绑定的拦截器。
      */
@@ -83,6 +93,10 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
      * 用来存放悬浮条目的点击事件监听。
      */
     private ClickListenerPool mClickListenerPool;
+    /**
+     * 所有条目共用的点击和长按监听，悬浮条目仍然使用各自的监听。
+     */
+    private ClickDispatcher mClickDispatcher;
     /**
      * 用来记录是否已经被添加。
      */
@@ -108,12 +122,8 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
 
     public SuperItemAdapter(List<D> list, @NonNull Class<? extends ItemViewHolder<D>> holderClass) {
         mHolderClass = holderClass;
-        ItemLayout annotation = holderClass.getAnnotation(ItemLayout.class);
-        if (annotation != null) {
-            mItemLayoutId = annotation.value();
-        } else {
-            throw new RuntimeException("view holder's root layout is not found! You must use \"@ItemLayout(rootLayoutId = @LayoutRes int)\" notes on your ItemViewHolder class");
-        }
+        mHolderFactory = ViewHolderFactories.of(holderClass);
+        mItemLayoutId = mHolderFactory.getLayoutId();
         if (mDataList != null) {
             if (list != null) {
                 mDataList.addAll(list);
@@ -147,9 +157,24 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
     }
 
     /**
-     * 获取当前的数据集合。
+     * 获取当前Adapter在RecyclerView列表中的起始位置。
+     */
+    int getFirstItemPosition() {
+        return mParentAdapter == null ? 0 : mParentAdapter.getChildFirstItemPosition(this);
+    }
+
+    /**
+     * 获取当前Adapter在RecyclerView列表中的结束位置。
+     */
+    int getLastItemPosition() {
+        return mParentAdapter == null ? getItemCount() - 1 : mParentAdapter.getChildLastItemPosition(this);
+    }
+
+    /**
+     * 获取当前的数据集合。拿到数据集合后就可能会修改它，所以如果正在拖拽则先将拖拽后的顺序写入数据集合。
      */
     List<D> getDataList() {
+        commitDragSession();
         return mDataList;
     }
 
@@ -172,6 +197,13 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
         return mItemLayoutId;
     }
 
+    /**
+     * 获取ViewHolder的字节码对象。
+     */
+    Class<? extends ItemViewHolder<D>> getHolderClass() {
+        return mHolderClass;
+    }
+
     /**
      * 当需要创建ViewHolder的时候调用。
      *
@@ -181,14 +213,8 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
      */
     ItemViewHolder<D> onCreateViewHolder(ViewGroup parent, int viewType) {
         ItemViewHolder<D> viewHolder;
-        View itemView = LayoutInflater.from(parent.getContext()).inflate(viewType, parent, false);
-        try {
-            Constructor<? extends ItemViewHolder<D>> constructor = mHolderClass.getDeclaredConstructor(View.class);
-            constructor.setAccessible(true);
-            viewHolder = constructor.newInstance(itemView);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        View itemView = mParentAdapter != null ? mParentAdapter.inflateItemView(parent, viewType) : LayoutInflater.from(parent.getContext()).inflate(viewType, parent, false);
+        viewHolder = mHolderFactory.create(itemView);
         if (viewHolder != null) {
             bindItemClickEvent(null, viewHolder);
             return viewHolder;
@@ -217,19 +243,42 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
 
     public void onBindViewHolder(ItemViewHolder<D> holder, int position, Bundle payloads) {
         holder.mEventListener = mItemEventListener;
+        //记录绑定数据时所在的子适配器，点击时通过它直接找到数据而不需要遍历所有的子适配器。
+        holder.itemView.setTag(R.id.com_kelin_zhou_tag_item_adapter, this);
         if (payloads == null) {
-            holder.onBindData(position, getObject(position));
+            D d = getObject(position);
+            //父级Adapter设置了渲染模型的计算器时，完整绑定会同时传入渲染模型。
+            Object renderModel = mParentAdapter == null ? null : mParentAdapter.getRenderModel(d);
+            if (renderModel == null) {
+                holder.onBindData(position, d);
+            } else {
+                holder.onBindPreparedData(position, d, renderModel);
+            }
         } else {
             holder.onBindPartData(position, getObject(position), payloads);
         }
         mVisibleCount++;
     }
 
+    /**
+     * 局部绑定数据。
+     *
+     * @param holder   要绑定数据的ViewHolder。
+     * @param position 条目在当前子Adapter中的位置。
+     * @param payload  发生了变化的字段。
+     */
+    public void onBindViewHolder(ItemViewHolder<D> holder, int position, @NonNull ChangePayload payload) {
+        holder.mEventListener = mItemEventListener;
+        holder.itemView.setTag(R.id.com_kelin_zhou_tag_item_adapter, this);
+        holder.onBindPartData(position, getObject(position), payload);
+        mVisibleCount++;
+    }
+
     /**
      * 获取当前条目的总数量。
      */
     public int getItemCount() {
-        return getDataList().size();
+        return mDataList.size();
     }
 
     public abstract int getItemSpanSize();
@@ -241,58 +290,87 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
      * @return 返回 {@link D} 对象。
      */
     public D getObject(int position) {
-        List<D> dataList = getDataList();
-        if (dataList.size() > position && position >= 0) {
-            return dataList.get(position);
+        if (mDataList.size() > position && position >= 0) {
+            return getItem(position);
         }
         return null;
     }
 
-    @SuppressWarnings("unchecked")
-    private D getItemObject(int layoutPosition) {
-        return (D) mParentAdapter.getObject(layoutPosition);
+    /**
+     * 获取列表中指定位置的数据，拖拽过程中按照拖拽后的顺序获取，不会结束拖拽。
+     *
+     * @param position 条目在当前适配器中的位置。
+     */
+    D getItem(int position) {
+        return mDataList.get(mDragSession == null ? position : mDragSession.indexOf(position));
     }
 
-    @SuppressWarnings("unchecked")
     private View.OnClickListener onGetClickListener(final LayoutItem item, final ItemViewHolder viewHolder) {
         return new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                if (viewHolder.mEventListener != null) {
-                    int position = item.getLayoutPosition();
-                    SuperItemAdapter<D> itemAdapter = mParentAdapter.getChildAdapterByPosition(position);
-                    int adapterPosition = position - itemAdapter.firstItemPosition;
-                    D object = itemAdapter.getObject(adapterPosition);
-                    viewHolder.mEventListener.adapter = itemAdapter;
-
-                    if (v.getId() == item.getItemView().getId() || v.getId() == viewHolder.getItemClickViewId()) {
-                        viewHolder.mEventListener.onItemClick(position, object, adapterPosition);
-                    } else {
-                        viewHolder.mEventListener.onItemChildClick(position, object, v, adapterPosition);
-                    }
-                }
+                dispatchClick(v, item, viewHolder);
             }
         };
     }
 
-    @SuppressWarnings("unchecked")
     private View.OnLongClickListener onGetLongClickListener(final LayoutItem item) {
         return new View.OnLongClickListener() {
             @Override
             public boolean onLongClick(View v) {
-                OnItemEventListener<D> listener = item instanceof ItemViewHolder ? ((ItemViewHolder) item).mEventListener : mItemEventListener;
-                if (listener != null) {
-                    int layoutPosition = item.getLayoutPosition();
-                    listener.onItemLongClick(layoutPosition, getItemObject(layoutPosition), getAdapterPosition(layoutPosition));
-                    return true;
-                }
-                return false;
+                return dispatchLongClick(item);
             }
         };
     }
 
-    private int getAdapterPosition(int layoutPosition) {
-        return mParentAdapter.getItemAdapterPosition(layoutPosition);
+    @SuppressWarnings("unchecked")
+    private void dispatchClick(View v, LayoutItem item, ItemViewHolder viewHolder) {
+        if (viewHolder.mEventListener != null) {
+            int position = item.getLayoutPosition();
+            SuperItemAdapter<D> itemAdapter = getOwnerAdapter(item, position);
+            int adapterPosition = position - itemAdapter.getFirstItemPosition();
+            D object = itemAdapter.getObject(adapterPosition);
+            viewHolder.mEventListener.adapter = itemAdapter;
+
+            if (v.getId() == item.getItemView().getId() || v.getId() == viewHolder.getItemClickViewId()) {
+                viewHolder.mEventListener.onItemClick(position, object, adapterPosition);
+            } else {
+                viewHolder.mEventListener.onItemChildClick(position, object, v, adapterPosition);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean dispatchLongClick(LayoutItem item) {
+        OnItemEventListener<D> listener = item instanceof ItemViewHolder ? ((ItemViewHolder) item).mEventListener : mItemEventListener;
+        if (listener != null) {
+            int layoutPosition = item.getLayoutPosition();
+            SuperItemAdapter<D> itemAdapter = getOwnerAdapter(item, layoutPosition);
+            int adapterPosition = layoutPosition - itemAdapter.getFirstItemPosition();
+            listener.onItemLongClick(layoutPosition, itemAdapter.getObject(adapterPosition), adapterPosition);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 获取条目所在的子适配器。
+     * <p>条目的布局通过tag记录了绑定数据时所在的子适配器，只要该子适配器还在父级Adapter中就直接使用它，
+     * 否则（例如悬浮条目）才根据位置遍历所有的子适配器。条目在子适配器中的位置不在绑定时记录，因为前面插入或删除条目时
+     * RecyclerView并不会重新绑定后面的条目，所以总是根据子适配器的起始位置计算。
+     *
+     * @param item     被点击的条目。
+     * @param position 条目在RecyclerView中的位置。
+     */
+    @SuppressWarnings("unchecked")
+    private SuperItemAdapter<D> getOwnerAdapter(LayoutItem item, int position) {
+        if (item instanceof ItemViewHolder) {
+            Object owner = ((ItemViewHolder<D>) item).itemView.getTag(R.id.com_kelin_zhou_tag_item_adapter);
+            if (owner instanceof SuperItemAdapter && ((SuperItemAdapter<D>) owner).poolIndex >= 0) {
+                return (SuperItemAdapter<D>) owner;
+            }
+        }
+        return mParentAdapter.getChildAdapterByPosition(position);
     }
 
     final void setParent(MultiTypeAdapter parent) {
@@ -303,7 +381,7 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
         return isEmptyList() ? null : getObject(0).getClass();
     }
 
-    final void bindItemClickEvent(@Nullable ViewHelper viewHelper, @NonNull final ItemViewHolder<D> viewHolder) {
+    final void bindItemClickEvent(@Nullable ViewHelper viewHelper, @NonNull ItemViewHolder<D> viewHolder) {
         LayoutItem item;
         ViewOperation operation;
         boolean isFloatBind;
@@ -329,8 +407,11 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
                 mClickListenerPool.releaseLongClickInstance(item.getLayoutPosition(), onLongClickListener);
             }
         } else {
-            onClickListener = onGetClickListener(item, viewHolder);
-            onLongClickListener = onGetLongClickListener(item);
+            if (mClickDispatcher == null) {
+                mClickDispatcher = new ClickDispatcher();
+            }
+            onClickListener = mClickDispatcher;
+            onLongClickListener = mClickDispatcher;
         }
         if (viewHolder.clickable()) {
             View clickView;
@@ -353,48 +434,42 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
 
         //悬浮条目不允许拖拽，只有item==viewHolder才不是悬浮条的监听。
         if (viewHelper == null && viewHolder.getDragHandleViewId() != 0) {
-            viewHolder.getView(viewHolder.getDragHandleViewId()).setOnTouchListener(new View.OnTouchListener() {
-                @Override
-                public boolean onTouch(View v, MotionEvent event) {
-                    if (v.getId() == viewHolder.getDragHandleViewId()) {
-                        mParentAdapter.startDrag(viewHolder);
-                    }
-                    return false;
-                }
-            });
+            viewHolder.getView(viewHolder.getDragHandleViewId()).setOnTouchListener(mParentAdapter.getDragHandleTouchListener());
         }
     }
 
     final void mapNotifyItemInserted(int position) {
-        if (mParentAdapter != null) mParentAdapter.notifyItemInserted(position + firstItemPosition);
+        if (mParentAdapter != null) mParentAdapter.notifyItemInserted(position + getFirstItemPosition());
     }
 
     final void mapNotifyItemChanged(int position) {
-        if (mParentAdapter != null) mParentAdapter.notifyItemChanged(position + firstItemPosition);
+        if (mParentAdapter != null) mParentAdapter.notifyItemChanged(position + getFirstItemPosition());
     }
 
     final void mapNotifyItemRangeInserted(int positionStart, int itemCount) {
         if (mParentAdapter != null)
-            mParentAdapter.notifyItemRangeInserted(positionStart + firstItemPosition, itemCount);
+            mParentAdapter.notifyItemRangeInserted(positionStart + getFirstItemPosition(), itemCount);
     }
 
     private void mapNotifyItemMove(int fromPosition, int toPosition) {
-        if (mParentAdapter != null)
+        if (mParentAdapter != null) {
+            int firstItemPosition = getFirstItemPosition();
             mParentAdapter.notifyItemMoved(fromPosition + firstItemPosition, toPosition + firstItemPosition);
+        }
     }
 
     final void mapNotifyItemRemoved(int position) {
         if (mParentAdapter != null) {
-            mParentAdapter.notifyItemRemoved(position + firstItemPosition);
+            mParentAdapter.notifyItemRemoved(position + getFirstItemPosition());
         }
     }
 
     final void mapNotifyItemRangeRemoved(int positionStart, int itemCount) {
         if (isEmptyList()) {
-            positionStart = firstItemPosition;
+            positionStart = getFirstItemPosition();
 
         } else {
-            positionStart += firstItemPosition;
+            positionStart += getFirstItemPosition();
         }
         if (mParentAdapter != null) mParentAdapter.notifyItemRangeRemoved(positionStart, itemCount);
     }
@@ -431,6 +506,7 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
      */
     @CallSuper
     void onViewRecycled(ItemViewHolder holder) {
+        holder.itemView.setTag(R.id.com_kelin_zhou_tag_item_adapter, null);
         holder.onViewRecycled();
         mVisibleCount--;
     }
@@ -446,28 +522,42 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
     }
 
     boolean onItemMove(int fromPosition, int toPosition) {
-        if (getItemSpanSize() == mParentAdapter.getTotalSpanSize()) {
-            Collections.swap(mDataList, fromPosition, toPosition);
-        } else {
-            if (fromPosition < toPosition) {
-                for (int i = fromPosition; i < toPosition; i++) {
-                    Collections.swap(mDataList, i, i + 1);
-                }
-            } else {
-                for (int i = fromPosition; i > toPosition; i--) {
-                    Collections.swap(mDataList, i, i - 1);
-                }
-            }
+        if (mDragSession == null || !mDragSession.move(fromPosition, toPosition)) {
+            commitDragSession();
+            SuperAdapter.moveItem(mDataList, fromPosition, toPosition);
+            mAdapterDataObservable.move(fromPosition, toPosition);
         }
-        mAdapterDataObservable.move(fromPosition, toPosition);
         mapNotifyItemMove(fromPosition, toPosition);
         return true;
     }
 
+    /**
+     * 开始拖拽一个条目，之后该条目的移动只会记录位置的变化而不会修改数据集合，也不会通知观察者，直到调用 {@link #commitDragSession()}。
+     *
+     * @param position 被拖拽的条目在当前适配器中的位置。
+     */
+    void startDragSession(int position) {
+        commitDragSession();
+        mDragSession = new DragSession(position);
+    }
+
+    /**
+     * 结束拖拽，将拖拽后的顺序一次性地写入数据集合并通知观察者。没有正在进行的拖拽时什么也不做。
+     */
+    void commitDragSession() {
+        DragSession session = mDragSession;
+        mDragSession = null;
+        if (session != null && session.isMoved()) {
+            SuperAdapter.moveItem(mDataList, session.getFromPosition(), session.getToPosition());
+            mAdapterDataObservable.move(session.getFromPosition(), session.getToPosition());
+        }
+    }
+
     void onItemDismiss(int position) {
         boolean remove = mDataList.size() > position;
         if (remove) {
-            mAdapterDataObservable.remove(mDataList.remove(position));
+            mDataList.remove(position);
+            mAdapterDataObservable.remove(position, 1);
             mapNotifyItemRemoved(position);
         }
     }
@@ -477,15 +567,9 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
      */
     class AdapterDataObservable extends Observable<AdapterDataObserver> {
 
-        void add(int position, Object object) {
-            for (int i = mObservers.size() - 1; i >= 0; i--) {
-                mObservers.get(i).add(position, object, SuperItemAdapter.this);
-            }
-        }
-
-        void addAll(int firstPosition, Collection<D> dataList) {
+        void add(int positionStart, int itemCount) {
             for (int i = mObservers.size() - 1; i >= 0; i--) {
-                mObservers.get(i).addAll(firstPosition, dataList, SuperItemAdapter.this);
+                mObservers.get(i).add(positionStart, itemCount, SuperItemAdapter.this);
             }
         }
 
@@ -495,56 +579,41 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
             }
         }
 
-        void remove(Object d) {
+        void remove(int positionStart, int itemCount) {
             for (int i = mObservers.size() - 1; i >= 0; i--) {
-                mObservers.get(i).remove(d, SuperItemAdapter.this);
+                mObservers.get(i).remove(positionStart, itemCount, SuperItemAdapter.this);
             }
         }
 
-        void removeAll(Collection<D> dataList) {
+        void reset() {
             for (int i = mObservers.size() - 1; i >= 0; i--) {
-                mObservers.get(i).removeAll(dataList, SuperItemAdapter.this);
+                mObservers.get(i).reset(SuperItemAdapter.this);
             }
         }
     }
 
     /**
      * 当前适配器的数据观察者对象。
+     * <p>通知的时候数据集合已经被修改完毕，观察者只需要根据位置信息去更新自己的记录，而不需要再复制一份数据。
      */
     interface AdapterDataObserver {
         /**
          * 列表中新增了数据。
          *
-         * @param position 被新增的位置。
-         * @param object   新增的数据。
-         * @param adapter  当前被观察的Adapter对象。
-         */
-        void add(int position, Object object, SuperItemAdapter adapter);
-
-        /**
-         * 列表中批量新增了数据。
-         *
-         * @param firstPosition 新增的起始位置。
-         * @param dataList      新增的数据集合。
+         * @param positionStart 新增的起始位置。
+         * @param itemCount     新增的条目数。
          * @param adapter       当前被观察的Adapter对象。
          */
-        void addAll(int firstPosition, Collection dataList, SuperItemAdapter adapter);
+        void add(int positionStart, int itemCount, SuperItemAdapter adapter);
 
         /**
          * 删除了列表中的数据。
          *
-         * @param object  被删除的数据。
-         * @param adapter 当前被观察的Adapter对象。
-         */
-        void remove(Object object, SuperItemAdapter adapter);
-
-        /**
-         * 批量删除了列表中的数据。
-         *
-         * @param dataList 被删除的数据集合。
-         * @param adapter  当前被观察的Adapter对象。
+         * @param positionStart 删除的起始位置。
+         * @param itemCount     删除的条目数。
+         * @param adapter       当前被观察的Adapter对象。
          */
-        void removeAll(Collection dataList, SuperItemAdapter adapter);
+        void remove(int positionStart, int itemCount, SuperItemAdapter adapter);
 
         /**
          * 列表中的数据位置被移动。
@@ -554,6 +623,13 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
          * @param adapter      当前被观察的Adapter对象。
          */
         void move(int fromPosition, int toPosition, SuperItemAdapter adapter);
+
+        /**
+         * 列表中的数据被整体替换了。
+         *
+         * @param adapter 当前被观察的Adapter对象。
+         */
+        void reset(SuperItemAdapter adapter);
     }
 
     /**
@@ -610,6 +686,26 @@ public abstract class SuperItemAdapter<D> implements EventInterceptor {
         public abstract void onItemChildClick(int position, D d, View view, int adapterPosition);
     }
 
+    /**
+     * 所有条目共用的点击和长按监听，通过被点击的控件找到所在的ViewHolder。
+     */
+    private class ClickDispatcher implements View.OnClickListener, View.OnLongClickListener {
+
+        @Override
+        public void onClick(View v) {
+            ItemViewHolder viewHolder = mParentAdapter.findItemViewHolder(v);
+            if (viewHolder != null) {
+                dispatchClick(v, viewHolder, viewHolder);
+            }
+        }
+
+        @Override
+        public boolean onLongClick(View v) {
+            ItemViewHolder viewHolder = mParentAdapter.findItemViewHolder(v);
+            return viewHolder != null && dispatchLongClick(viewHolder);
+        }
+    }
+
     private class ClickListenerPool {
 
         SparseArray<View.OnClickListener> clickListeners = new SparseArray<>();
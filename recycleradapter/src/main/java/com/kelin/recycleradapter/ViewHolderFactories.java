@@ -0,0 +1,96 @@
+package com.kelin.recycleradapter;
+
+import android.support.annotation.LayoutRes;
+import android.view.View;
+
+import com.kelin.recycleradapter.holder.ItemLayout;
+import com.kelin.recycleradapter.holder.ItemViewHolder;
+import com.kelin.recycleradapter.holder.ViewHolderFactory;
+
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 描述 所有ViewHolder工厂的注册表。
+ * <p>优先使用注解处理器在编译时生成的工厂，没有生成的工厂时才通过反射创建ViewHolder，但注解和构造方法也只会在第一次使用时
+ * 读取一次。每个ViewHolder类只会查找一次，之后都直接从注册表中获取。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午7:50
+ * 版本 v 1.0.0
+ */
+final class ViewHolderFactories {
+
+    private static final Map<Class<?>, ViewHolderFactory<?>> FACTORIES = new HashMap<>();
+
+    private ViewHolderFactories() {
+    }
+
+    /**
+     * 获取指定ViewHolder的工厂。
+     *
+     * @param holderClass ViewHolder的字节码对象。
+     */
+    @SuppressWarnings("unchecked")
+    static <VH extends ItemViewHolder<?>> ViewHolderFactory<VH> of(Class<? extends VH> holderClass) {
+        synchronized (FACTORIES) {
+            ViewHolderFactory<?> factory = FACTORIES.get(holderClass);
+            if (factory == null) {
+                factory = findGeneratedFactory(holderClass);
+                if (factory == null) {
+                    factory = new ReflectiveFactory<>(holderClass);
+                }
+                FACTORIES.put(holderClass, factory);
+            }
+            return (ViewHolderFactory<VH>) factory;
+        }
+    }
+
+    private static ViewHolderFactory<?> findGeneratedFactory(Class<?> holderClass) {
+        try {
+            Class<?> factoryClass = Class.forName(holderClass.getName() + ViewHolderFactory.SUFFIX, true, holderClass.getClassLoader());
+            return (ViewHolderFactory<?>) factoryClass.newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (Exception e) {
+            throw new RuntimeException("unable to create the generated factory of " + holderClass.getName(), e);
+        }
+    }
+
+    /**
+     * 通过反射创建ViewHolder的工厂，在没有使用注解处理器时使用。
+     */
+    private static class ReflectiveFactory<VH extends ItemViewHolder<?>> implements ViewHolderFactory<VH> {
+        private final Constructor<? extends VH> constructor;
+        private final int layoutId;
+
+        ReflectiveFactory(Class<? extends VH> holderClass) {
+            ItemLayout annotation = holderClass.getAnnotation(ItemLayout.class);
+            if (annotation == null) {
+                throw new RuntimeException("view holder's root layout is not found! You must use \"@ItemLayout(rootLayoutId = @LayoutRes int)\" notes on your ItemViewHolder class");
+            }
+            layoutId = annotation.value();
+            try {
+                constructor = holderClass.getDeclaredConstructor(View.class);
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException(e);
+            }
+            constructor.setAccessible(true);
+        }
+
+        @LayoutRes
+        @Override
+        public int getLayoutId() {
+            return layoutId;
+        }
+
+        @Override
+        public VH create(View itemView) {
+            try {
+                return constructor.newInstance(itemView);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
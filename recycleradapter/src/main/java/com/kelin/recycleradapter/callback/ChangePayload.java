@@ -0,0 +1,136 @@
+package com.kelin.recycleradapter.callback;
+
+import java.util.List;
+
+/**
+ * 描述 局部刷新时描述数据模型哪些部分发生了变化的对象，用来代替 {@link android.os.Bundle}。
+ * <p>每个字段用一个二进制位来表示，例如：
+ * <pre>
+ *     static final int CHANGED_NAME = 1;
+ *     static final int CHANGED_AGE = 1 &lt;&lt; 1;
+ * </pre>
+ * 在 ItemViewHolder 的 getChangePayload(Object, Object, ChangePayload) 方法中通过 {@link #setChanged(int)} 标记发生了变化的字段，
+ * 然后在 onBindPartData(int, Object, ChangePayload) 方法中通过 {@link #isChanged(int)} 判断需要重新绑定哪些字段。
+ * <p>该对象是被回收复用的，绑定完成后就会被回收，所以不要在绑定之外的地方持有它的引用。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午9:15
+ * 版本 v 1.0.0
+ */
+public final class ChangePayload {
+
+    private static final int MAX_POOL_SIZE = 32;
+    private static final Object sPoolLock = new Object();
+    private static ChangePayload sPool;
+    private static int sPoolSize;
+    private ChangePayload mNext;
+    private int mFlags;
+    private Object mExtra;
+
+    private ChangePayload() {
+    }
+
+    /**
+     * 从池子中获取一个空的对象，由适配器调用。
+     */
+    public static ChangePayload obtain() {
+        synchronized (sPoolLock) {
+            if (sPool != null) {
+                ChangePayload payload = sPool;
+                sPool = payload.mNext;
+                payload.mNext = null;
+                sPoolSize--;
+                return payload;
+            }
+        }
+        return new ChangePayload();
+    }
+
+    /**
+     * 将多个对象合并为一个，所有的标记都会被合并，额外的数据以最后一个为准。只有当集合中的元素全部都是该类型时才会合并。
+     *
+     * @param payloads RecyclerView 传递过来的局部刷新的数据。
+     * @return 如果集合中有其他类型的元素则返回null，否则返回合并后的对象，其余的对象都会被回收。
+     */
+    public static ChangePayload merge(List<Object> payloads) {
+        for (int i = 0; i < payloads.size(); i++) {
+            if (!(payloads.get(i) instanceof ChangePayload)) {
+                return null;
+            }
+        }
+        ChangePayload merged = (ChangePayload) payloads.get(0);
+        for (int i = 1; i < payloads.size(); i++) {
+            ChangePayload payload = (ChangePayload) payloads.get(i);
+            if (payload != merged) {
+                merged.mFlags |= payload.mFlags;
+                if (payload.mExtra != null) {
+                    merged.mExtra = payload.mExtra;
+                }
+                payload.recycle();
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 标记某些字段发生了变化。
+     *
+     * @param flags 发生了变化的字段，可以是多个字段的组合。
+     */
+    public void setChanged(int flags) {
+        mFlags |= flags;
+    }
+
+    /**
+     * 判断某个字段是否发生了变化。
+     *
+     * @param flag 要判断的字段，如果是多个字段的组合则只要有一个发生了变化就返回true。
+     */
+    public boolean isChanged(int flag) {
+        return (mFlags & flag) != 0;
+    }
+
+    /**
+     * 获取所有发生了变化的字段。
+     */
+    public int getChangedFlags() {
+        return mFlags;
+    }
+
+    /**
+     * 设置额外的数据，用来传递无法用标记来描述的变化。
+     *
+     * @param extra 额外的数据。
+     */
+    public void setExtra(Object extra) {
+        mExtra = extra;
+    }
+
+    /**
+     * 获取额外的数据。
+     */
+    public Object getExtra() {
+        return mExtra;
+    }
+
+    /**
+     * 判断是否没有任何变化。
+     */
+    public boolean isEmpty() {
+        return mFlags == 0 && mExtra == null;
+    }
+
+    /**
+     * 回收对象，由适配器调用，回收后不能再使用。
+     */
+    public void recycle() {
+        mFlags = 0;
+        mExtra = null;
+        synchronized (sPoolLock) {
+            if (sPoolSize < MAX_POOL_SIZE) {
+                mNext = sPool;
+                sPool = this;
+                sPoolSize++;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.kelin.recycleradapter.callback;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * 描述 在后台线程为条目数据预先计算渲染模型的回调。
+ * <p>绑定数据时比较耗时的工作，例如文字的排版(PrecomputedText)、格式化、测量尺寸等，都可以放到 {@link #prepare(Object)} 中完成，
+ * 得到一个不可变的渲染模型，ViewHolder在 onBindPreparedData(int, Object, Object) 中只需要把渲染模型设置给控件即可。
+ * <p>渲染模型会按条目缓存，当条目的数据被替换后，只有 areContentsTheSame 返回false时才会重新计算。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:50
+ * 版本 v 1.0.0
+ *
+ * @param <D> 数据模型的泛型限定。
+ * @param <M> 渲染模型的泛型限定。
+ */
+public abstract class RenderModelPreparer<D, M> {
+
+    /**
+     * 为一个条目计算渲染模型。通常在后台线程调用，如果绑定时渲染模型还没有准备好则会在主线程调用，所以不要在这里访问控件。
+     *
+     * @param d 条目的数据。
+     * @return 返回不可变的渲染模型，返回的对象会被缓存并在多次绑定之间共用。
+     */
+    @WorkerThread
+    @NonNull
+    public abstract M prepare(@NonNull D d);
+
+    /**
+     * 获取条目的唯一标识，渲染模型以它为键缓存，这样数据对象被替换成新的对象后仍然能找到原来的渲染模型。
+     * 可能在任意线程调用，并且可能在列表创建任何ViewHolder之前调用。
+     *
+     * @param d 条目的数据。
+     * @return 返回唯一标识，默认返回 {@link RecyclerView#NO_ID} 表示以数据对象本身为键。
+     */
+    public long getItemKey(@NonNull D d) {
+        return RecyclerView.NO_ID;
+    }
+}
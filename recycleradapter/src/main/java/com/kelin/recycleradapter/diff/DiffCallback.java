@@ -0,0 +1,34 @@
+package com.kelin.recycleradapter.diff;
+
+import android.support.v7.util.DiffUtil;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * 描述 在 {@link DiffUtil.Callback} 的基础上增加了获取条目唯一标识的方法，供 {@link KeyedDiffStrategy} 使用。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午5:10
+ * 版本 v 1.0.0
+ */
+
+public abstract class DiffCallback extends DiffUtil.Callback {
+
+    /**
+     * 获取旧数据中指定位置的条目的唯一标识。
+     *
+     * @param oldItemPosition 旧数据中的位置。
+     * @return 返回唯一标识，如果没有则返回 {@link RecyclerView#NO_ID}。
+     */
+    public long getOldItemKey(int oldItemPosition) {
+        return RecyclerView.NO_ID;
+    }
+
+    /**
+     * 获取新数据中指定位置的条目的唯一标识。
+     *
+     * @param newItemPosition 新数据中的位置。
+     * @return 返回唯一标识，如果没有则返回 {@link RecyclerView#NO_ID}。
+     */
+    public long getNewItemKey(int newItemPosition) {
+        return RecyclerView.NO_ID;
+    }
+}
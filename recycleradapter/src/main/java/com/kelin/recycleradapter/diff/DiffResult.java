@@ -0,0 +1,51 @@
+package com.kelin.recycleradapter.diff;
+
+import android.support.annotation.NonNull;
+import android.support.v7.util.ListUpdateCallback;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * 描述 {@link DiffStrategy} 的比较结果。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午5:10
+ * 版本 v 1.0.0
+ */
+
+public abstract class DiffResult {
+
+    /**
+     * 将比较结果按顺序分发给回调。
+     *
+     * @param callback 接收更新操作的回调。
+     */
+    public abstract void dispatchUpdatesTo(@NonNull ListUpdateCallback callback);
+
+    /**
+     * 将比较结果分发给适配器。
+     *
+     * @param adapter 要更新的适配器。
+     */
+    public void dispatchUpdatesTo(@NonNull final RecyclerView.Adapter adapter) {
+        dispatchUpdatesTo(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                adapter.notifyItemRangeInserted(position, count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                adapter.notifyItemRangeRemoved(position, count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                adapter.notifyItemMoved(fromPosition, toPosition);
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                adapter.notifyItemRangeChanged(position, count, payload);
+            }
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.kelin.recycleradapter.diff;
+
+import android.support.annotation.NonNull;
+
+/**
+ * 描述 比较新旧两组数据差异的策略。可以通过 {@link com.kelin.recycleradapter.SuperAdapter#setDiffStrategy(DiffStrategy)}
+ * 为每个适配器单独指定，默认使用 {@link MyersDiffStrategy}。
+ * <p>该方法会在后台线程中被调用。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午5:10
+ * 版本 v 1.0.0
+ */
+
+public interface DiffStrategy {
+
+    /**
+     * 计算新旧两组数据的差异。
+     *
+     * @param callback 用来获取新旧两组数据信息的回调。
+     * @return 返回比较的结果。
+     */
+    @NonNull
+    DiffResult calculateDiff(@NonNull DiffCallback callback);
+}
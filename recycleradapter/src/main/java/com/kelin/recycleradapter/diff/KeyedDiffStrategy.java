@@ -0,0 +1,273 @@
+package com.kelin.recycleradapter.diff;
+
+import android.support.annotation.NonNull;
+import android.support.v7.util.ListUpdateCallback;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 描述 根据条目的唯一标识比较数据的策略，适合数据量大并且每个条目都有稳定唯一标识的列表。
+ * <p>通过散列表在线性时间内匹配新旧条目，只有不在最长递增子序列中的条目才会被当作移动，每次移动的位置通过树状数组计算，
+ * 所以总的时间复杂度为O(N log N)，与移动的条目数无关。如果有任何一个条目没有唯一标识(返回了 {@link RecyclerView#NO_ID})
+ * 或者唯一标识有重复，则会退回到构造时指定的策略，默认为 {@link MyersDiffStrategy}。唯一标识相同的新旧条目还会通过
+ * areItemsTheSame 确认，所以不同类型的条目可以使用相同的唯一标识。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午5:10
+ * 版本 v 1.0.0
+ */
+
+public class KeyedDiffStrategy implements DiffStrategy {
+
+    private static final int OP_INSERT = 0;
+    private static final int OP_REMOVE = 1;
+    private static final int OP_MOVE = 2;
+    private static final int OP_CHANGE = 3;
+    /**
+     * 无法使用唯一标识比较时所使用的策略。
+     */
+    private final DiffStrategy mFallback;
+
+    public KeyedDiffStrategy() {
+        this(new MyersDiffStrategy());
+    }
+
+    /**
+     * 构造方法。
+     *
+     * @param fallback 无法使用唯一标识比较时所使用的策略。
+     */
+    public KeyedDiffStrategy(@NonNull DiffStrategy fallback) {
+        mFallback = fallback;
+    }
+
+    @NonNull
+    @Override
+    public DiffResult calculateDiff(@NonNull DiffCallback callback) {
+        int oldSize = callback.getOldListSize();
+        int newSize = callback.getNewListSize();
+        LongIntMap newPositions = new LongIntMap(newSize);
+        for (int i = 0; i < newSize; i++) {
+            long key = callback.getNewItemKey(i);
+            if (key == RecyclerView.NO_ID || !newPositions.putIfAbsent(key, i)) {
+                return mFallback.calculateDiff(callback);
+            }
+        }
+        //旧数据中每个条目在新数据中的位置，-1表示被移除了。
+        int[] oldToNew = new int[oldSize];
+        boolean[] kept = new boolean[newSize];
+        for (int i = 0; i < oldSize; i++) {
+            long key = callback.getOldItemKey(i);
+            if (key == RecyclerView.NO_ID) {
+                return mFallback.calculateDiff(callback);
+            }
+            int newPosition = newPositions.get(key, -1);
+            if (newPosition >= 0 && !callback.areItemsTheSame(i, newPosition)) {
+                //唯一标识相同但并不是同一个条目(例如数据类型不同)，当作移除旧条目并插入新条目处理。
+                newPosition = -1;
+            }
+            if (newPosition >= 0) {
+                if (kept[newPosition]) {
+                    return mFallback.calculateDiff(callback);
+                }
+                kept[newPosition] = true;
+            }
+            oldToNew[i] = newPosition;
+        }
+        Operations operations = new Operations();
+
+        //1.从后往前移除，这样前面的位置不会受到影响。
+        int survivorCount = 0;
+        for (int i = oldSize - 1; i >= 0; ) {
+            if (oldToNew[i] < 0) {
+                int end = i;
+                while (i >= 0 && oldToNew[i] < 0) {
+                    i--;
+                }
+                operations.add(OP_REMOVE, i + 1, end - i, null);
+            } else {
+                survivorCount++;
+                i--;
+            }
+        }
+
+        //2.移除完成后剩下的条目按旧的顺序排列，只移动不在最长递增子序列中的条目。
+        int[] current = new int[survivorCount];
+        for (int i = 0, k = 0; i < oldSize; i++) {
+            if (oldToNew[i] >= 0) {
+                current[k++] = oldToNew[i];
+            }
+        }
+        boolean[] stable = longestIncreasingSubsequence(current);
+        //每个保留下来的条目在移除完成后的位置，以新位置为下标。
+        int[] survivorIndexes = new int[newSize];
+        for (int k = 0; k < survivorCount; k++) {
+            survivorIndexes[current[k]] = k;
+        }
+        //把条目分成若干组：第0组在最前面，第k+1组是第k个条目以及移动到它后面的条目，每组的条目都是连续的，
+        //所以一个条目当前的位置就是它前面所有组的条目数之和，用树状数组可以在O(log N)的时间内求出。
+        int[] groups = buildGroupTree(survivorCount);
+        int anchor = 0;
+        for (int j = 0; j < newSize; j++) {
+            if (!kept[j]) {
+                continue;
+            }
+            int group = survivorIndexes[j] + 1;
+            if (stable[group - 1]) {
+                anchor = group;
+                continue;
+            }
+            //按新位置从小到大依次移动到已经就位的条目中紧挨着的前一个条目的后面，也就是前面最近的一个不需要移动的条目所在的组的末尾。
+            int from = sumGroups(groups, group - 1);
+            addToGroup(groups, group, -1);
+            int to = sumGroups(groups, anchor);
+            addToGroup(groups, anchor, 1);
+            if (from != to) {
+                operations.add(OP_MOVE, from, to, null);
+            }
+        }
+
+        //3.这时剩下的条目已经按新的顺序排列了，从前往后插入新增的条目。
+        for (int j = 0; j < newSize; ) {
+            if (!kept[j]) {
+                int start = j;
+                while (j < newSize && !kept[j]) {
+                    j++;
+                }
+                operations.add(OP_INSERT, start, j - start, null);
+            } else {
+                j++;
+            }
+        }
+
+        //4.所有条目都已经在最终的位置上了，最后更新内容发生了变化的条目。
+        for (int i = 0; i < oldSize; i++) {
+            int newPosition = oldToNew[i];
+            if (newPosition >= 0 && !callback.areContentsTheSame(i, newPosition)) {
+                operations.add(OP_CHANGE, newPosition, 1, callback.getChangePayload(i, newPosition));
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * 创建每组的条目数的树状数组，第0组为空，其他每组有一个条目。
+     *
+     * @param survivorCount 保留下来的条目的个数。
+     * @return 返回下标从1开始的树状数组，第i组对应下标i+1。
+     */
+    private static int[] buildGroupTree(int survivorCount) {
+        int length = survivorCount + 1;
+        int[] tree = new int[length + 1];
+        for (int i = 2; i <= length; i++) {
+            tree[i] += 1;
+            int parent = i + (i & -i);
+            if (parent <= length) {
+                tree[parent] += tree[i];
+            }
+        }
+        return tree;
+    }
+
+    private static void addToGroup(int[] tree, int group, int delta) {
+        for (int i = group + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * 获取第0组到第group组(包含)的条目数之和。
+     */
+    private static int sumGroups(int[] tree, int group) {
+        int sum = 0;
+        for (int i = group + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 计算最长递增子序列，时间复杂度为O(N log N)。
+     *
+     * @param sequence 要计算的序列，其中的元素互不相同。
+     * @return 返回每个元素是否在最长递增子序列中。
+     */
+    private static boolean[] longestIncreasingSubsequence(int[] sequence) {
+        int length = sequence.length;
+        //tails[l]是长度为l+1的递增子序列的最小结尾元素的下标。
+        int[] tails = new int[length];
+        int[] previous = new int[length];
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sequence[tails[mid]] < sequence[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == size) {
+                size++;
+            }
+        }
+        boolean[] result = new boolean[length];
+        for (int i = size > 0 ? tails[size - 1] : -1; i >= 0; i = previous[i]) {
+            result[i] = true;
+        }
+        return result;
+    }
+
+    /**
+     * 按顺序记录下来的更新操作。
+     */
+    private static class Operations extends DiffResult {
+        private int[] mOperations = new int[24];
+        private int mCount;
+        private List<Object> mPayloads;
+
+        void add(int type, int first, int second, Object payload) {
+            if (mCount + 3 > mOperations.length) {
+                mOperations = Arrays.copyOf(mOperations, mOperations.length << 1);
+            }
+            mOperations[mCount++] = type;
+            mOperations[mCount++] = first;
+            mOperations[mCount++] = second;
+            if (type == OP_CHANGE) {
+                if (mPayloads == null) {
+                    mPayloads = new ArrayList<>();
+                }
+                mPayloads.add(payload);
+            }
+        }
+
+        @Override
+        public void dispatchUpdatesTo(@NonNull ListUpdateCallback callback) {
+            int payloadIndex = 0;
+            for (int i = 0; i < mCount; i += 3) {
+                int first = mOperations[i + 1];
+                int second = mOperations[i + 2];
+                switch (mOperations[i]) {
+                    case OP_INSERT:
+                        callback.onInserted(first, second);
+                        break;
+                    case OP_REMOVE:
+                        callback.onRemoved(first, second);
+                        break;
+                    case OP_MOVE:
+                        callback.onMoved(first, second);
+                        break;
+                    default:
+                        callback.onChanged(first, second, mPayloads.get(payloadIndex++));
+                        break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.kelin.recycleradapter.diff;
+
+import java.util.Arrays;
+
+/**
+ * 描述 以long为键、int为值的开放寻址散列表，避免 {@link java.util.HashMap} 装箱带来的内存开销。
+ * <p>{@link #EMPTY_KEY} 被用来标记空位，不能作为键使用。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午5:10
+ * 版本 v 1.0.0
+ */
+final class LongIntMap {
+
+    /**
+     * 用来标记空位的键。
+     */
+    static final long EMPTY_KEY = -1;
+    private final long[] mKeys;
+    private final int[] mValues;
+    private final int mMask;
+
+    /**
+     * 构造方法。容量固定为不小于期望大小两倍的2的幂，所以不需要扩容。
+     *
+     * @param expectedSize 期望存放的键值对的个数。
+     */
+    LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) << 1;
+        mKeys = new long[capacity];
+        mValues = new int[capacity];
+        mMask = capacity - 1;
+        Arrays.fill(mKeys, EMPTY_KEY);
+    }
+
+    /**
+     * 存放一个键值对。
+     *
+     * @param key   键。
+     * @param value 值。
+     * @return 如果键已经存在则返回false并且不会覆盖原来的值。
+     */
+    boolean putIfAbsent(long key, int value) {
+        int i = indexOf(key);
+        if (mKeys[i] == key) {
+            return false;
+        }
+        mKeys[i] = key;
+        mValues[i] = value;
+        return true;
+    }
+
+    /**
+     * 获取键对应的值。
+     *
+     * @param key          键。
+     * @param defaultValue 键不存在时返回的值。
+     */
+    int get(long key, int defaultValue) {
+        int i = indexOf(key);
+        return mKeys[i] == key ? mValues[i] : defaultValue;
+    }
+
+    /**
+     * 获取键所在的位置，如果键不存在则返回第一个空位。
+     */
+    private int indexOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int i = (int) (hash ^ (hash >>> 32)) & mMask;
+        while (mKeys[i] != EMPTY_KEY && mKeys[i] != key) {
+            i = (i + 1) & mMask;
+        }
+        return i;
+    }
+}
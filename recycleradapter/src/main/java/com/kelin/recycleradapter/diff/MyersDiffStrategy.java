@@ -0,0 +1,45 @@
+package com.kelin.recycleradapter.diff;
+
+import android.support.annotation.NonNull;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
+
+/**
+ * 描述 使用 {@link DiffUtil} 的Myers差分算法比较数据，时间复杂度为O(N + D²)，不需要条目有唯一标识。这是默认的策略。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午5:10
+ * 版本 v 1.0.0
+ */
+
+public class MyersDiffStrategy implements DiffStrategy {
+
+    /**
+     * 是否检测条目的移动。
+     */
+    private final boolean mDetectMoves;
+
+    public MyersDiffStrategy() {
+        this(true);
+    }
+
+    /**
+     * 构造方法。
+     *
+     * @param detectMoves 是否检测条目的移动，检测移动会额外消耗O(N²)的时间。
+     */
+    public MyersDiffStrategy(boolean detectMoves) {
+        mDetectMoves = detectMoves;
+    }
+
+    @NonNull
+    @Override
+    public DiffResult calculateDiff(@NonNull DiffCallback callback) {
+        final DiffUtil.DiffResult result = DiffUtil.calculateDiff(callback, mDetectMoves);
+        return new DiffResult() {
+            @Override
+            public void dispatchUpdatesTo(@NonNull ListUpdateCallback callback) {
+                result.dispatchUpdatesTo(callback);
+            }
+        };
+    }
+}
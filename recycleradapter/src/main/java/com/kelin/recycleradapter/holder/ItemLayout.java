@@ -1,5 +1,6 @@
 package com.kelin.recycleradapter.holder;
 
+import android.support.annotation.IdRes;
 import android.support.annotation.LayoutRes;
 
 import java.lang.annotation.ElementType;
@@ -20,4 +21,12 @@ public @interface ItemLayout {
      * 条目的布局文件。
      */
     @LayoutRes int value();
+
+    /**
+     * 绑定数据时需要操作的控件的ID，可以不设置。
+     * <p>如果在编译时使用了 recycleradapter-compiler 注解处理器，处理器会为ViewHolder生成一个子类，在创建时直接查找这些控件并保存在字段中，
+     * {@link ItemViewHolder#getView(int)} 会通过switch语句直接返回对应的字段，不再需要查询缓存或调用 {@link android.view.View#findViewById(int)}。
+     * 没有列出的ID仍然会按照原来的方式查找。
+     */
+    @IdRes int[] viewIds() default {};
 }
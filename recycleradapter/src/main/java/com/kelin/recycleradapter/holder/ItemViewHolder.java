@@ -19,6 +19,7 @@ import android.widget.TextView;
 
 import com.kelin.recycleradapter.FloatLayout;
 import com.kelin.recycleradapter.SuperItemAdapter;
+import com.kelin.recycleradapter.callback.ChangePayload;
 import com.kelin.recycleradapter.callback.NotifyCallback;
 import com.kelin.recycleradapter.interfaces.LayoutItem;
 import com.kelin.recycleradapter.interfaces.ViewOperation;
@@ -107,6 +108,34 @@ public abstract class ItemViewHolder<D> extends RecyclerView.ViewHolder implemen
     public void getChangePayload(D oldItemData, D newItemDate, Bundle bundle) {
     }
 
+    /**
+     * 由{@link com.kelin.recycleradapter.SuperAdapter} 调用，用来获取两个对象不同的部分。与 {@link #getChangePayload(Object, Object, Bundle)}
+     * 方法相比这个方法不需要创建 {@link Bundle} 对象，也没有装箱和字符串键的开销，所以应当优先重写这个方法。只有当这个方法没有标记任何变化时
+     * 才会调用 {@link #getChangePayload(Object, Object, Bundle)} 方法。如果你实现了该方法那么就必须要实现
+     * {@link #onBindPartData(int, Object, ChangePayload)} 方法，否则是没有意义的。
+     *
+     * @param oldItemData 旧的数据模型。
+     * @param newItemDate 新的数据模型。
+     * @param payload     通过 {@link ChangePayload#setChanged(int)} 方法标记发生了变化的字段。这个参数你会在
+     *                    {@link #onBindPartData(int, Object, ChangePayload)} 方法中获得。
+     * @see #onBindPartData(int, Object, ChangePayload)
+     */
+    public void getChangePayload(D oldItemData, D newItemDate, ChangePayload payload) {
+    }
+
+    /**
+     * 获取数据模型的稳定ID。默认返回 {@link RecyclerView#NO_ID}，表示没有稳定ID，这时会通过 {@link #areItemsTheSame(Object, Object)}
+     * 方法判断两个数据模型是否相同。
+     * <p>如果你的数据模型有long或int类型的唯一标识，那么重写该方法并将其返回可以大大提高比较数据的效率，同时你也可以
+     * 通过调用适配器的 setHasStableIds(true) 方法启用稳定ID。在 MultiTypeAdapter 中启用时返回值需要在 [0, 2^55) 之内。
+     *
+     * @param d 数据模型。
+     * @return 返回数据模型的稳定ID。
+     */
+    public long getStableId(D d) {
+        return RecyclerView.NO_ID;
+    }
+
     /**
      * 绑定数据的时候调用。
      *
@@ -115,6 +144,18 @@ public abstract class ItemViewHolder<D> extends RecyclerView.ViewHolder implemen
      */
     public abstract void onBindData(int position, D d);
 
+    /**
+     * 设置了 RenderModelPreparer 后绑定数据的时候调用，用来代替 {@link #onBindData(int, Object)} 方法。
+     * <p>渲染模型已经在后台线程计算好了，这里只需要把它设置给控件。该方法的默认实现是调用 {@link #onBindData(int, Object)} 方法。
+     *
+     * @param position    当前的Item索引。
+     * @param d           当前索引对应的数据对象。
+     * @param renderModel 当前条目的渲染模型，就是 RenderModelPreparer 的 prepare 方法的返回值。
+     */
+    public void onBindPreparedData(int position, D d, Object renderModel) {
+        onBindData(position, d);
+    }
+
     /**
      * 绑定数据的时候调用。与 {@link #onBindData(int, Object)} 方法不同的是，这个方法可以用来局部绑定数据。
      * 就是说当一个条目中的数据模型发生变化以后但不是展示在UI上的每个字段都发生了变化的情况下就可以通过该方法只针对部分改动过的字段进行数据绑定。
@@ -131,6 +172,20 @@ public abstract class ItemViewHolder<D> extends RecyclerView.ViewHolder implemen
         onBindData(position, d);
     }
 
+    /**
+     * 局部绑定数据的时候调用，是在 {@link #getChangePayload(Object, Object, ChangePayload)} 方法中标记了变化后才会被执行的。
+     * <p>该方法的默认实现是调用 {@link #onBindData(int, Object)} 方法，如果你希望通过局部刷新来提高效率则重写该方法。
+     *
+     * @param position 当前的Item索引。
+     * @param d        当前索引对应的数据对象。
+     * @param payload  数据模型被改变的内容，如果在绑定之前有多次刷新则是多次刷新的变化合并后的结果。该参数在绑定完成后会被回收，
+     *                 所以不要持有它的引用。
+     * @see #getChangePayload(Object, Object, ChangePayload)
+     */
+    public void onBindPartData(int position, D d, ChangePayload payload) {
+        onBindData(position, d);
+    }
+
     /**
      * 当需要绑定悬浮控件的数据的时候调用。
      * <p>
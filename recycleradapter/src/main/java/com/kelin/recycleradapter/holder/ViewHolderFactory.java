@@ -0,0 +1,34 @@
+package com.kelin.recycleradapter.holder;
+
+import android.support.annotation.LayoutRes;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * 描述 ViewHolder的工厂，用来在不使用反射的情况下创建 {@link ItemViewHolder} 对象。
+ * <p>如果在编译时使用了 recycleradapter-compiler 注解处理器，每个被 {@link ItemLayout} 注解的ViewHolder都会在同一个包下
+ * 生成一个名为 <code>类名$$ViewHolderFactory</code> 的实现类，适配器会自动使用它，否则会退回到通过反射创建ViewHolder。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午7:50
+ * 版本 v 1.0.0
+ */
+public interface ViewHolderFactory<VH extends RecyclerView.ViewHolder> {
+
+    /**
+     * 生成的工厂类的类名后缀。
+     */
+    String SUFFIX = "$$ViewHolderFactory";
+
+    /**
+     * 获取ViewHolder的布局文件，也就是 {@link ItemLayout} 注解中的值。
+     */
+    @LayoutRes
+    int getLayoutId();
+
+    /**
+     * 创建ViewHolder。
+     *
+     * @param itemView 条目的根布局。
+     */
+    VH create(View itemView);
+}
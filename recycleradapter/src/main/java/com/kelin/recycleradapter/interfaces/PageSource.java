@@ -0,0 +1,56 @@
+package com.kelin.recycleradapter.interfaces;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * 描述 分页加载的数据源。
+ * <p>每一页数据都由一个键来标识，例如页码或者上一页最后一条数据的ID。适配器会通过键加载下一页数据，也会在已经被释放的页
+ * 重新显示时通过同一个键重新加载该页，所以同一个键每次加载到的数据条数应该是相同的。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午10:40
+ * 版本 v 1.0.0
+ *
+ * @param <K> 页的键的类型。
+ * @param <D> 数据模型的类型。
+ */
+public interface PageSource<K, D> {
+
+    /**
+     * 获取第一页的键。
+     */
+    @NonNull
+    K getFirstKey();
+
+    /**
+     * 加载一页数据。可以在任意线程中加载，加载完成后也可以在任意线程中回调。
+     *
+     * @param key      要加载的页的键。
+     * @param callback 加载完成后的回调，每次加载必须且只能回调一次。
+     */
+    void loadPage(@NonNull K key, @NonNull LoadCallback<K, D> callback);
+
+    /**
+     * 加载一页数据的回调。
+     *
+     * @param <K> 页的键的类型。
+     * @param <D> 数据模型的类型。
+     */
+    interface LoadCallback<K, D> {
+
+        /**
+         * 加载成功。
+         *
+         * @param page    加载到的数据。
+         * @param nextKey 下一页的键，如果没有更多数据了则为null。重新加载已经被释放的页时会忽略该参数。
+         */
+        void onPageLoaded(@NonNull List<D> page, @Nullable K nextKey);
+
+        /**
+         * 加载失败。
+         */
+        void onPageFailed();
+    }
+}
@@ -0,0 +1,23 @@
+package com.kelin.recycleradapter;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 描述 性能测试的开关。性能测试只在命令行带上 {@code -Dbenchmark=true} 时运行，例如
+ * {@code ./gradlew :recycleradapter:testDebugUnitTest -Dbenchmark=true}，默认的单元测试任务会跳过它们。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * 没有打开性能测试开关时跳过当前测试。
+     */
+    public static void assumeEnabled() {
+        assumeTrue("benchmark disabled, run with -Dbenchmark=true", Boolean.getBoolean("benchmark"));
+    }
+}
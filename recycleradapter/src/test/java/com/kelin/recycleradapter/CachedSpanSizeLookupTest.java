@@ -0,0 +1,101 @@
+package com.kelin.recycleradapter;
+
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 描述 {@link CachedSpanSizeLookup} 的缓存与失效的单元测试。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class CachedSpanSizeLookupTest {
+
+    private CountingLookup mLookup;
+
+    @Before
+    public void setUp() {
+        mLookup = new CountingLookup();
+    }
+
+    @Test
+    public void spanSize_isComputedOncePerPosition() {
+        for (int round = 0; round < 3; round++) {
+            for (int position = 0; position < 100; position++) {
+                assertEquals(position % 3 + 1, mLookup.getSpanSize(position));
+            }
+        }
+        assertEquals(100, mLookup.computeCount);
+    }
+
+    @Test
+    public void largePositions_growTheCache() {
+        assertEquals(10000 % 3 + 1, mLookup.getSpanSize(10000));
+        assertEquals(5 % 3 + 1, mLookup.getSpanSize(5));
+        mLookup.getSpanSize(10000);
+        mLookup.getSpanSize(5);
+        assertEquals(2, mLookup.computeCount);
+    }
+
+    @Test
+    public void invalidate_recomputesWithNewValues() {
+        assertEquals(1, mLookup.getSpanSize(0));
+        mLookup.offset = 1;
+        //没有失效前仍然返回缓存的值。
+        assertEquals(1, mLookup.getSpanSize(0));
+        mLookup.invalidate();
+        assertEquals(2, mLookup.getSpanSize(0));
+        assertEquals(2, mLookup.computeCount);
+    }
+
+    @Test
+    public void everyObserverCallback_invalidates() {
+        RecyclerView.AdapterDataObserver observer = mLookup.getInvalidationObserver();
+        int expectedComputes = 1;
+        mLookup.getSpanSize(0);
+        for (int callback = 0; callback < 5; callback++) {
+            switch (callback) {
+                case 0:
+                    observer.onChanged();
+                    break;
+                case 1:
+                    observer.onItemRangeChanged(0, 1);
+                    break;
+                case 2:
+                    observer.onItemRangeInserted(0, 1);
+                    break;
+                case 3:
+                    observer.onItemRangeRemoved(0, 1);
+                    break;
+                default:
+                    observer.onItemRangeMoved(0, 1, 1);
+                    break;
+            }
+            mLookup.getSpanSize(0);
+            mLookup.getSpanSize(0);
+            assertEquals("callback " + callback, ++expectedComputes, mLookup.computeCount);
+        }
+    }
+
+    @Test
+    public void negativePosition_isNotCached() {
+        mLookup.getSpanSize(-1);
+        mLookup.getSpanSize(-1);
+        assertEquals(2, mLookup.computeCount);
+    }
+
+    private static final class CountingLookup extends CachedSpanSizeLookup {
+        int computeCount;
+        int offset;
+
+        @Override
+        int computeSpanSize(int position) {
+            computeCount++;
+            return Math.abs(position) % 3 + 1 + offset;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.kelin.recycleradapter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 描述 {@link DataSnapshot} 的单元测试，所有的修改都与 {@link ArrayList} 的结果进行比较，重点覆盖跨越数据块边界的情况。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class DataSnapshotTest {
+
+    private static final int CHUNK = DataSnapshot.CHUNK_SIZE;
+    private static final int[] SIZES = {0, 1, CHUNK - 1, CHUNK, CHUNK + 1, 2 * CHUNK - 1, 2 * CHUNK, 2 * CHUNK + 1, 5 * CHUNK + 3};
+
+    @Test
+    public void of_copiesList() {
+        for (int size : SIZES) {
+            List<Integer> model = range(0, size);
+            DataSnapshot<Integer> snapshot = DataSnapshot.of(model);
+            assertEquals(model, snapshot);
+            model.add(-1);
+            assertEquals(size, snapshot.size());
+        }
+    }
+
+    @Test
+    public void withInserted_atEveryChunkBoundary() {
+        for (int size : SIZES) {
+            for (int index : boundaries(size, true)) {
+                for (int count : new int[]{1, CHUNK - 1, CHUNK + 1, 3 * CHUNK}) {
+                    List<Integer> model = range(0, size);
+                    DataSnapshot<Integer> snapshot = DataSnapshot.of(model);
+                    List<Integer> items = range(10000, count);
+                    DataSnapshot<Integer> inserted = snapshot.withInserted(index, items);
+                    model.addAll(index, items);
+                    assertEquals(model, inserted);
+                    assertEquals(range(0, size), snapshot);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void withRemoved_acrossChunkBoundaries() {
+        for (int size : SIZES) {
+            for (int index : boundaries(size, false)) {
+                for (int count : new int[]{0, 1, 2, CHUNK - 1, CHUNK, CHUNK + 1, size}) {
+                    if (index + count > size) {
+                        continue;
+                    }
+                    List<Integer> model = range(0, size);
+                    DataSnapshot<Integer> snapshot = DataSnapshot.of(model);
+                    DataSnapshot<Integer> removed = snapshot.withRemoved(index, count);
+                    model.subList(index, index + count).clear();
+                    assertEquals(model, removed);
+                    assertEquals(range(0, size), snapshot);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void withReplaced_onlyChangesOnePosition() {
+        for (int size : SIZES) {
+            for (int index : boundaries(size, false)) {
+                List<Integer> model = range(0, size);
+                DataSnapshot<Integer> snapshot = DataSnapshot.of(model);
+                DataSnapshot<Integer> replaced = snapshot.withReplaced(index, -1);
+                model.set(index, -1);
+                assertEquals(model, replaced);
+                assertEquals(range(0, size), snapshot);
+            }
+        }
+    }
+
+    @Test
+    public void withMoved_matchesRemoveThenInsert() {
+        for (int size : new int[]{2, CHUNK, CHUNK + 1, 3 * CHUNK + 1}) {
+            for (int from : boundaries(size, false)) {
+                for (int to : boundaries(size, false)) {
+                    List<Integer> model = range(0, size);
+                    DataSnapshot<Integer> moved = DataSnapshot.of(model).withMoved(from, to);
+                    model.add(to, model.remove(from));
+                    assertEquals("from " + from + " to " + to, model, moved);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void withMoved_adjacentIsSwap() {
+        for (int size : new int[]{2, CHUNK + 1, 2 * CHUNK + 1}) {
+            for (int from : boundaries(size, false)) {
+                for (int to : new int[]{from - 1, from + 1}) {
+                    if (to < 0 || to >= size) {
+                        continue;
+                    }
+                    List<Integer> model = range(0, size);
+                    DataSnapshot<Integer> snapshot = DataSnapshot.of(model);
+                    Collections.swap(model, from, to);
+                    assertEquals(model, snapshot.withMoved(from, to));
+                    assertEquals(model, snapshot.withSwapped(from, to));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void randomEdits_matchArrayList() {
+        Random random = new Random(4);
+        List<Integer> model = range(0, 3 * CHUNK);
+        DataSnapshot<Integer> snapshot = DataSnapshot.of(model);
+        int next = 100000;
+        for (int i = 0; i < 3000; i++) {
+            int op = model.isEmpty() ? 0 : random.nextInt(4);
+            if (op == 0) {
+                int index = random.nextInt(model.size() + 1);
+                List<Integer> items = range(next, 1 + random.nextInt(CHUNK + 2));
+                next += items.size();
+                snapshot = snapshot.withInserted(index, items);
+                model.addAll(index, items);
+            } else if (op == 1) {
+                int index = random.nextInt(model.size());
+                int count = random.nextInt(Math.min(model.size() - index, CHUNK + 2) + 1);
+                snapshot = snapshot.withRemoved(index, count);
+                model.subList(index, index + count).clear();
+            } else if (op == 2) {
+                int index = random.nextInt(model.size());
+                snapshot = snapshot.withReplaced(index, next);
+                model.set(index, next++);
+            } else {
+                int from = random.nextInt(model.size());
+                int to = random.nextInt(model.size());
+                snapshot = snapshot.withMoved(from, to);
+                model.add(to, model.remove(from));
+            }
+            assertEquals(model, snapshot);
+        }
+    }
+
+    @Test
+    public void keys_surviveSegmentsButNotEdits() {
+        DataSnapshot<Integer> snapshot = DataSnapshot.of(range(0, CHUNK + 1));
+        assertNull(snapshot.keys());
+        long[] keys = new long[CHUNK + 1];
+        Class<?>[] types = new Class<?>[CHUNK + 1];
+        snapshot.setKeys(keys, types);
+        assertSame(keys, snapshot.keys());
+        assertSame(types, snapshot.keyTypes());
+        DataSnapshot<Integer> segmented = snapshot.withSegments(new int[]{1, CHUNK}, new Object[2]);
+        assertSame(keys, segmented.keys());
+        assertSame(types, segmented.keyTypes());
+        assertEquals(Arrays.asList(1, CHUNK), toList(segmented.segments()));
+        assertNull(snapshot.withReplaced(0, -1).keys());
+        assertNull(snapshot.withRemoved(0, 1).keys());
+        assertNull(snapshot.withInserted(0, Collections.singletonList(-1)).keys());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_outOfRangeThrows() {
+        DataSnapshot.of(range(0, CHUNK)).get(CHUNK);
+    }
+
+    private static List<Integer> range(int start, int count) {
+        List<Integer> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(start + i);
+        }
+        return list;
+    }
+
+    private static List<Integer> toList(int[] array) {
+        List<Integer> list = new ArrayList<>(array.length);
+        for (int value : array) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    /**
+     * 获取数据块边界附近的所有位置。
+     *
+     * @param size      快照的长度。
+     * @param inclusive 是否包含size本身，插入时可以在末尾插入。
+     */
+    private static List<Integer> boundaries(int size, boolean inclusive) {
+        List<Integer> indexes = new ArrayList<>();
+        int limit = inclusive ? size : size - 1;
+        for (int base = 0; base <= size + 1; base += CHUNK) {
+            for (int index = base - 1; index <= base + 1; index++) {
+                if (index >= 0 && index <= limit && !indexes.contains(index)) {
+                    indexes.add(index);
+                }
+            }
+        }
+        if (limit >= 0 && !indexes.contains(limit)) {
+            indexes.add(limit);
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,72 @@
+package com.kelin.recycleradapter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * 描述 快速拖拽时每一帧远距离移动的耗时，比较一次删除加一次插入与原来逐个交换的实现，同时统计父级Adapter的旧快照移动的耗时。
+ * <p>默认跳过，需要时用 {@code -Dbenchmark=true} 运行；两种移动结果一致的检查在 {@link DragMoveTest} 中。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class DragMoveBenchmark {
+
+    private static final int FRAMES = 2000;
+
+    @Before
+    public void setUp() {
+        Benchmarks.assumeEnabled();
+    }
+
+    @Test
+    public void dragFrames_10k_items() {
+        int size = 10000;
+        for (int distance : new int[]{1, 100, 1000, 5000}) {
+            run(size, distance);
+        }
+    }
+
+    private static void run(int size, int distance) {
+        List<Integer> moved = DragMoveTest.range(0, size);
+        List<Integer> swapped = DragMoveTest.range(0, size);
+        DataSnapshot<Integer> snapshot = DataSnapshot.of(moved);
+        //先各跑一遍预热。
+        drag(moved, distance);
+        dragBySwap(swapped, distance);
+
+        long start = System.nanoTime();
+        drag(moved, distance);
+        long moveNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        dragBySwap(swapped, distance);
+        long swapNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            int from = frame % 2 == 0 ? 0 : distance;
+            snapshot = snapshot.withMoved(from, distance - from);
+        }
+        long snapshotNanos = System.nanoTime() - start;
+        System.out.println(String.format("%d items, distance %5d: move %8.1f ns/frame, swap loop %10.1f ns/frame, snapshot %8.1f ns/frame",
+                size, distance, (double) moveNanos / FRAMES, (double) swapNanos / FRAMES, (double) snapshotNanos / FRAMES));
+    }
+
+    /**
+     * 在位置0和distance之间来回拖拽。
+     */
+    private static void drag(List<Integer> list, int distance) {
+        for (int frame = 0; frame < FRAMES; frame++) {
+            int from = frame % 2 == 0 ? 0 : distance;
+            SuperAdapter.moveItem(list, from, distance - from);
+        }
+    }
+
+    private static void dragBySwap(List<Integer> list, int distance) {
+        for (int frame = 0; frame < FRAMES; frame++) {
+            int from = frame % 2 == 0 ? 0 : distance;
+            DragMoveTest.swapLoop(list, from, distance - from);
+        }
+    }
+}
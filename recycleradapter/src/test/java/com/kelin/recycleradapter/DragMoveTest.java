@@ -0,0 +1,126 @@
+package com.kelin.recycleradapter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 描述 拖拽移动的单元测试。{@link MultiTypeAdapter} 中的一次移动会同时修改子Adapter的数据集合和父级Adapter的旧快照，
+ * {@link SuperAdapter} 中的一次移动会修改它自己的数据集合，这里检查远距离移动之后这三者仍然一致，并且与逐个交换的结果相同。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class DragMoveTest {
+
+    @Test
+    public void moveItem_matchesSwapLoop() {
+        int size = 3 * DataSnapshot.CHUNK_SIZE + 5;
+        for (int from : new int[]{0, 1, size / 2, size - 2, size - 1}) {
+            for (int to : new int[]{0, 1, size / 2, size - 2, size - 1}) {
+                List<Integer> moved = range(0, size);
+                SuperAdapter.moveItem(moved, from, to);
+                assertEquals("from " + from + " to " + to, swapLoop(range(0, size), from, to), moved);
+            }
+        }
+    }
+
+    @Test
+    public void dragBackAndForth_tenThousandItems_matchesSwapLoop() {
+        List<Integer> moved = range(0, 10000);
+        List<Integer> swapped = range(0, 10000);
+        DataSnapshot<Integer> snapshot = DataSnapshot.of(moved);
+        for (int frame = 0; frame < 101; frame++) {
+            int from = frame % 2 == 0 ? 0 : 5000;
+            SuperAdapter.moveItem(moved, from, 5000 - from);
+            swapLoop(swapped, from, 5000 - from);
+            snapshot = snapshot.withMoved(from, 5000 - from);
+        }
+        assertEquals(swapped, moved);
+        assertEquals(swapped, snapshot);
+    }
+
+    @Test
+    public void longDistanceMoves_keepChildSnapshotAndParentInSync() {
+        Random random = new Random(21);
+        //三个子Adapter，中间的子Adapter跨越了多个数据块。
+        List<Integer> header = range(0, 7);
+        List<Integer> child = range(1000, 10 * DataSnapshot.CHUNK_SIZE + 3);
+        List<Integer> footer = range(100000, 5);
+        List<Object> all = new ArrayList<>();
+        all.addAll(header);
+        all.addAll(child);
+        all.addAll(footer);
+        DataSnapshot<Object> parentSnapshot = DataSnapshot.of(all);
+        //SuperAdapter的数据集合。
+        List<Object> adapterList = new ArrayList<>(all);
+        int offset = header.size();
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(child.size());
+            //总是跨越至少一半的距离。
+            int to = from < child.size() / 2 ? child.size() / 2 + random.nextInt(child.size() - child.size() / 2) : random.nextInt(child.size() / 2);
+            SuperAdapter.moveItem(child, from, to);
+            parentSnapshot = parentSnapshot.withMoved(from + offset, to + offset);
+            SuperAdapter.moveItem(adapterList, from + offset, to + offset);
+
+            List<Object> expected = new ArrayList<>();
+            expected.addAll(header);
+            expected.addAll(child);
+            expected.addAll(footer);
+            assertEquals(expected, parentSnapshot);
+            assertEquals(expected, adapterList);
+        }
+    }
+
+    @Test
+    public void dragSession_commitMatchesPerFrameMoves() {
+        Random random = new Random(22);
+        int size = 5 * DataSnapshot.CHUNK_SIZE;
+        for (int round = 0; round < 50; round++) {
+            int start = random.nextInt(size);
+            DragSession session = new DragSession(start);
+            List<Integer> perFrame = range(0, size);
+            int position = start;
+            for (int frame = 0; frame < 20; frame++) {
+                int target = random.nextInt(size);
+                session.move(position, target);
+                SuperAdapter.moveItem(perFrame, position, target);
+                position = target;
+            }
+            List<Integer> committed = range(0, size);
+            SuperAdapter.moveItem(committed, session.getFromPosition(), session.getToPosition());
+            assertEquals(perFrame, committed);
+            DataSnapshot<Integer> snapshot = DataSnapshot.of(range(0, size)).withMoved(session.getFromPosition(), session.getToPosition());
+            assertEquals(perFrame, snapshot);
+        }
+    }
+
+    static List<Integer> range(int start, int count) {
+        List<Integer> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(start + i);
+        }
+        return list;
+    }
+
+    /**
+     * 原来的实现：在两个位置之间逐个交换。
+     */
+    static <E> List<E> swapLoop(List<E> list, int fromPosition, int toPosition) {
+        if (fromPosition < toPosition) {
+            for (int i = fromPosition; i < toPosition; i++) {
+                Collections.swap(list, i, i + 1);
+            }
+        } else {
+            for (int i = fromPosition; i > toPosition; i--) {
+                Collections.swap(list, i, i - 1);
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,114 @@
+package com.kelin.recycleradapter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述 {@link DragSession} 的位置映射的单元测试，拖拽过程中每个位置映射到的数据都必须与直接移动数据集合的结果一致。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class DragSessionTest {
+
+    private static final int SIZE = 20;
+
+    @Test
+    public void newSession_isIdentity() {
+        DragSession session = new DragSession(5);
+        assertFalse(session.isMoved());
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i, session.indexOf(i));
+        }
+    }
+
+    @Test
+    public void moveDown_shiftsItemsBetweenUp() {
+        DragSession session = new DragSession(2);
+        assertTrue(session.move(2, 6));
+        assertTrue(session.isMoved());
+        assertMapping(session, moved(2, 6));
+    }
+
+    @Test
+    public void moveUp_shiftsItemsBetweenDown() {
+        DragSession session = new DragSession(15);
+        assertTrue(session.move(15, 3));
+        assertMapping(session, moved(15, 3));
+    }
+
+    @Test
+    public void moveBackToStart_isIdentityAgain() {
+        DragSession session = new DragSession(7);
+        session.move(7, 12);
+        session.move(12, 0);
+        session.move(0, 7);
+        assertFalse(session.isMoved());
+        assertMapping(session, moved(7, 7));
+    }
+
+    @Test
+    public void movingAnotherItem_isRejected() {
+        DragSession session = new DragSession(4);
+        session.move(4, 8);
+        assertFalse(session.move(4, 9));
+        assertEquals(8, session.getToPosition());
+        assertEquals(4, session.getFromPosition());
+    }
+
+    @Test
+    public void firstAndLastPositions_mapCorrectly() {
+        DragSession session = new DragSession(0);
+        session.move(0, SIZE - 1);
+        assertMapping(session, moved(0, SIZE - 1));
+        session = new DragSession(SIZE - 1);
+        session.move(SIZE - 1, 0);
+        assertMapping(session, moved(SIZE - 1, 0));
+    }
+
+    @Test
+    public void randomDrags_matchPerFrameMoves() {
+        Random random = new Random(22);
+        for (int round = 0; round < 200; round++) {
+            int start = random.nextInt(SIZE);
+            DragSession session = new DragSession(start);
+            List<Integer> expected = range();
+            int position = start;
+            for (int frame = 0; frame < 10; frame++) {
+                //ItemTouchHelper在快速拖拽时可能跳过若干个位置。
+                int target = Math.max(0, Math.min(SIZE - 1, position + random.nextInt(9) - 4));
+                assertTrue(session.move(position, target));
+                SuperAdapter.moveItem(expected, position, target);
+                position = target;
+                assertMapping(session, expected);
+            }
+        }
+    }
+
+    private static void assertMapping(DragSession session, List<Integer> expected) {
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals("position " + i, (int) expected.get(i), session.indexOf(i));
+        }
+    }
+
+    private static List<Integer> moved(int from, int to) {
+        List<Integer> list = range();
+        SuperAdapter.moveItem(list, from, to);
+        return list;
+    }
+
+    private static List<Integer> range() {
+        List<Integer> list = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,113 @@
+package com.kelin.recycleradapter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 描述 {@link LatencyHistogram} 的环形缓冲区和百分位数计算的单元测试。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void empty_returnsZero() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanNanos());
+        assertEquals(0, histogram.getPercentileNanos(0.5f));
+    }
+
+    @Test
+    public void percentiles_useNearestRank() {
+        LatencyHistogram histogram = new LatencyHistogram(100);
+        //乱序记录1~100。
+        List<Long> samples = new ArrayList<>();
+        for (long i = 1; i <= 100; i++) {
+            samples.add(i);
+        }
+        Collections.shuffle(samples, new Random(25));
+        for (long sample : samples) {
+            histogram.record(sample);
+        }
+        assertEquals(1, histogram.getPercentileNanos(0));
+        assertEquals(1, histogram.getPercentileNanos(0.01f));
+        assertEquals(50, histogram.getPercentileNanos(0.5f));
+        assertEquals(90, histogram.getPercentileNanos(0.9f));
+        assertEquals(99, histogram.getPercentileNanos(0.99f));
+        assertEquals(100, histogram.getPercentileNanos(1));
+    }
+
+    @Test
+    public void percentiles_outOfRangeAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram(10);
+        histogram.record(5);
+        histogram.record(7);
+        assertEquals(5, histogram.getPercentileNanos(-1));
+        assertEquals(7, histogram.getPercentileNanos(2));
+    }
+
+    @Test
+    public void partiallyFilled_onlyUsesRecordedSamples() {
+        LatencyHistogram histogram = new LatencyHistogram(8);
+        histogram.record(30);
+        histogram.record(10);
+        histogram.record(20);
+        //没有用到的位置是0，不能参与计算。
+        assertEquals(10, histogram.getPercentileNanos(0));
+        assertEquals(20, histogram.getPercentileNanos(0.5f));
+        assertEquals(30, histogram.getPercentileNanos(1));
+    }
+
+    @Test
+    public void wrapAround_keepsOnlyRecentSamples() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        for (long i = 1; i <= 10; i++) {
+            histogram.record(i * 100);
+        }
+        //缓冲区中只剩下最后的700、800、900、1000。
+        assertEquals(700, histogram.getPercentileNanos(0));
+        assertEquals(800, histogram.getPercentileNanos(0.5f));
+        assertEquals(1000, histogram.getPercentileNanos(1));
+        //次数和平均值包括已经被覆盖掉的记录。
+        assertEquals(10, histogram.getCount());
+        assertEquals(550, histogram.getMeanNanos());
+    }
+
+    @Test
+    public void wrapAround_exactlyAtCapacity() {
+        LatencyHistogram histogram = new LatencyHistogram(3);
+        histogram.record(3);
+        histogram.record(1);
+        histogram.record(2);
+        assertEquals(1, histogram.getPercentileNanos(0));
+        assertEquals(3, histogram.getPercentileNanos(1));
+        histogram.record(9);
+        //覆盖掉最早的3。
+        assertEquals(1, histogram.getPercentileNanos(0));
+        assertEquals(2, histogram.getPercentileNanos(0.5f));
+        assertEquals(9, histogram.getPercentileNanos(1));
+    }
+
+    @Test
+    public void reset_clearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram(2);
+        histogram.record(5);
+        histogram.record(6);
+        histogram.record(7);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanNanos());
+        assertEquals(0, histogram.getPercentileNanos(0.5f));
+        histogram.record(4);
+        assertEquals(4, histogram.getPercentileNanos(0));
+        assertEquals(4, histogram.getPercentileNanos(1));
+    }
+}
@@ -0,0 +1,51 @@
+package com.kelin.recycleradapter;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * 描述 手动执行的执行器，任务只会在调用 {@link #runNext()} 或 {@link #runAll()} 时在当前线程执行，
+ * 用来在单元测试中代替后台线程和主线程，精确控制任务完成的先后顺序。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+final class ManualExecutor implements Executor {
+
+    private final Queue<Runnable> mTasks = new ArrayDeque<>();
+
+    @Override
+    public void execute(Runnable command) {
+        mTasks.add(command);
+    }
+
+    /**
+     * 获取还没有执行的任务数。
+     */
+    int pendingCount() {
+        return mTasks.size();
+    }
+
+    /**
+     * 执行最早提交的一个任务。
+     *
+     * @return 如果有任务被执行则返回true。
+     */
+    boolean runNext() {
+        Runnable task = mTasks.poll();
+        if (task == null) {
+            return false;
+        }
+        task.run();
+        return true;
+    }
+
+    /**
+     * 执行所有任务，包括执行过程中新提交的任务。
+     */
+    void runAll() {
+        while (runNext()) {
+        }
+    }
+}
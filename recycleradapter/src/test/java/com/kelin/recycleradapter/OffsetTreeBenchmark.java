@@ -0,0 +1,80 @@
+package com.kelin.recycleradapter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * 描述 {@link OffsetTree} 根据布局位置查找子Adapter的耗时，与逐个累加子Adapter条目数的线性查找进行比较。
+ * <p>需要用 {@code -Dbenchmark=true} 手动运行，两种查找结果是否一致由 {@link OffsetTreeTest} 负责。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class OffsetTreeBenchmark {
+
+    private static final int LOOKUPS = 200000;
+
+    @Before
+    public void setUp() {
+        Benchmarks.assumeEnabled();
+    }
+
+    @Test
+    public void lookup_100_1000_10000_children() {
+        for (int children : new int[]{100, 1000, 10000}) {
+            run(children);
+        }
+    }
+
+    private static void run(int children) {
+        Random random = new Random(children);
+        int[] sizes = new int[children];
+        OffsetTree tree = new OffsetTree();
+        int total = 0;
+        for (int i = 0; i < children; i++) {
+            sizes[i] = 1 + random.nextInt(20);
+            tree.add(sizes[i]);
+            total += sizes[i];
+        }
+        int[] positions = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            positions[i] = random.nextInt(total);
+        }
+        //先各跑一遍预热。
+        lookupTree(tree, positions);
+        lookupLinear(sizes, positions);
+
+        long start = System.nanoTime();
+        long checksum = lookupTree(tree, positions);
+        long treeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        checksum += lookupLinear(sizes, positions);
+        long linearNanos = System.nanoTime() - start;
+        //把校验和打印出来，避免查找被当成无用代码优化掉。
+        System.out.println(String.format("OffsetTree %6d children: tree %7.1f ns/lookup, linear %9.1f ns/lookup (checksum %d)",
+                children, (double) treeNanos / LOOKUPS, (double) linearNanos / LOOKUPS, checksum));
+    }
+
+    private static long lookupTree(OffsetTree tree, int[] positions) {
+        long checksum = 0;
+        for (int position : positions) {
+            checksum += tree.indexOf(position);
+        }
+        return checksum;
+    }
+
+    private static long lookupLinear(int[] sizes, int[] positions) {
+        long checksum = 0;
+        for (int position : positions) {
+            int index = 0;
+            int offset = 0;
+            while (offset + sizes[index] <= position) {
+                offset += sizes[index++];
+            }
+            checksum += index;
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,166 @@
+package com.kelin.recycleradapter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 描述 {@link OffsetTree} 的单元测试，所有的结果都与逐个累加区间长度的朴素实现进行比较。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class OffsetTreeTest {
+
+    @Test
+    public void add_offsetsAreRunningSums() {
+        OffsetTree tree = new OffsetTree();
+        List<Integer> model = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tree.add(i % 7);
+            model.add(i % 7);
+            assertMatches(model, tree);
+        }
+    }
+
+    @Test
+    public void set_updatesLaterOffsets() {
+        OffsetTree tree = new OffsetTree();
+        List<Integer> model = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tree.add(3);
+            model.add(3);
+        }
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            int index = random.nextInt(model.size());
+            int size = random.nextInt(10);
+            tree.set(index, size);
+            model.set(index, size);
+            assertMatches(model, tree);
+        }
+    }
+
+    @Test
+    public void remove_shiftsLaterIntervals() {
+        OffsetTree tree = new OffsetTree();
+        List<Integer> model = new ArrayList<>();
+        for (int i = 0; i < 33; i++) {
+            tree.add(i + 1);
+            model.add(i + 1);
+        }
+        Random random = new Random(2);
+        while (!model.isEmpty()) {
+            int index = random.nextInt(model.size());
+            tree.remove(index);
+            model.remove(index);
+            assertMatches(model, tree);
+        }
+    }
+
+    @Test
+    public void zeroSizeIntervals_areNeverHit() {
+        OffsetTree tree = new OffsetTree();
+        tree.add(0);
+        tree.add(2);
+        tree.add(0);
+        tree.add(0);
+        tree.add(1);
+        tree.add(0);
+        assertEquals(1, tree.indexOf(0));
+        assertEquals(1, tree.indexOf(1));
+        assertEquals(4, tree.indexOf(2));
+        assertEquals(tree.count(), tree.indexOf(3));
+        assertEquals(3, tree.total());
+    }
+
+    @Test
+    public void indexOf_outOfRangeReturnsCount() {
+        OffsetTree tree = new OffsetTree();
+        assertEquals(0, tree.indexOf(0));
+        tree.add(5);
+        assertEquals(1, tree.indexOf(-1));
+        assertEquals(1, tree.indexOf(5));
+    }
+
+    @Test
+    public void clear_thenAdd_startsFromScratch() {
+        OffsetTree tree = new OffsetTree();
+        for (int i = 0; i < 20; i++) {
+            tree.add(4);
+        }
+        tree.clear();
+        List<Integer> model = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tree.add(i);
+            model.add(i);
+        }
+        assertMatches(model, tree);
+    }
+
+    @Test
+    public void randomOperations_matchModel() {
+        OffsetTree tree = new OffsetTree();
+        List<Integer> model = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            int op = model.isEmpty() ? 0 : random.nextInt(3);
+            if (op == 0) {
+                int size = random.nextInt(4);
+                tree.add(size);
+                model.add(size);
+            } else if (op == 1) {
+                int index = random.nextInt(model.size());
+                int size = random.nextInt(4);
+                tree.set(index, size);
+                model.set(index, size);
+            } else {
+                int index = random.nextInt(model.size());
+                tree.remove(index);
+                model.remove(index);
+            }
+            assertMatches(model, tree);
+        }
+    }
+
+    @Test
+    public void indexOf_tenThousandChildren_matchesLinearScan() {
+        OffsetTree tree = new OffsetTree();
+        int[] sizes = new int[10000];
+        Random random = new Random(10000);
+        int total = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = 1 + random.nextInt(20);
+            tree.add(sizes[i]);
+            total += sizes[i];
+        }
+        for (int i = 0; i < 20000; i++) {
+            int position = random.nextInt(total);
+            int index = 0;
+            int offset = 0;
+            while (offset + sizes[index] <= position) {
+                offset += sizes[index++];
+            }
+            assertEquals(index, tree.indexOf(position));
+        }
+    }
+
+    private static void assertMatches(List<Integer> model, OffsetTree tree) {
+        assertEquals(model.size(), tree.count());
+        int offset = 0;
+        for (int i = 0; i < model.size(); i++) {
+            assertEquals(model.get(i).intValue(), tree.get(i));
+            assertEquals(offset, tree.offsetOf(i));
+            for (int position = offset; position < offset + model.get(i); position++) {
+                assertEquals(i, tree.indexOf(position));
+            }
+            offset += model.get(i);
+        }
+        assertEquals(offset, tree.total());
+        assertEquals(model.size(), tree.indexOf(offset));
+    }
+}
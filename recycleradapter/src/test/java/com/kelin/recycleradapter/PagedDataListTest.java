@@ -0,0 +1,195 @@
+package com.kelin.recycleradapter;
+
+import android.support.annotation.NonNull;
+
+import com.kelin.recycleradapter.interfaces.PageSource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 描述 {@link PagedDataList} 的单元测试。数据源不会立即回调，而是把请求记下来由测试决定以什么顺序完成，
+ * 用来验证页被释放之后，释放之前发起的重新加载即使晚到也不会把页放回内存中。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class PagedDataListTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int PAGE_COUNT = 6;
+
+    private final ManualExecutor mMain = new ManualExecutor();
+    private FakeSource mSource;
+    private RecordingTarget mTarget;
+    private PagedDataList<Integer, String> mList;
+
+    @Before
+    public void setUp() {
+        mSource = new FakeSource();
+        mTarget = new RecordingTarget();
+        mList = new PagedDataList<>(mTarget, mSource, PagedDataList.MIN_PAGES_IN_MEMORY, mMain);
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            mList.loadNext();
+            mSource.complete(0);
+            mMain.runAll();
+        }
+    }
+
+    @Test
+    public void loadNext_appendsPagesUntilNoMoreData() {
+        assertEquals(PAGE_COUNT * PAGE_SIZE, mList.size());
+        assertEquals(PAGE_COUNT, mList.getLoadedPageCount());
+        assertEquals(1, mTarget.noMoreDataCount);
+        assertEquals("59", mList.get(59));
+    }
+
+    @Test
+    public void visibleRange_keepsOnlyWindowInMemory() {
+        mList.onVisibleRangeChanged(0, 5);
+        assertEquals(3, mList.getLoadedPageCount());
+        assertNull(mList.get(30));
+        assertEquals("29", mList.get(29));
+    }
+
+    @Test
+    public void visibleRange_atLastPage_stillKeepsMaxPages() {
+        mList.onVisibleRangeChanged(55, 59);
+        assertEquals(3, mList.getLoadedPageCount());
+        assertNull(mList.get(29));
+        assertEquals("30", mList.get(30));
+    }
+
+    @Test
+    public void get_onReleasedPage_returnsPlaceholderWithoutLoading() {
+        mList.onVisibleRangeChanged(0, 5);
+        assertNull(mList.get(45));
+        assertNull(mList.get(46));
+        assertEquals(0, mSource.pendingCount());
+    }
+
+    @Test
+    public void onItemBound_reloadsReleasedPageOnce() {
+        mList.onVisibleRangeChanged(0, 5);
+        mList.onItemBound(45);
+        mList.onItemBound(46);
+        assertEquals(1, mSource.pendingCount());
+        mSource.complete(0);
+        mMain.runAll();
+        assertEquals("45", mList.get(45));
+        assertEquals(4, mList.getLoadedPageCount());
+    }
+
+    @Test
+    public void outOfOrderReloads_afterScrollingBack_dropStalePages() {
+        mList.onVisibleRangeChanged(0, 5);
+        //滑到第4页，第3到5页开始重新加载，第0到2页被释放。
+        mList.onVisibleRangeChanged(40, 45);
+        assertEquals(3, mSource.pendingCount());
+        //加载还没完成时又滑回了第0页，第3到5页的加载结果已经过期，第0到2页开始重新加载。
+        mList.onVisibleRangeChanged(0, 5);
+        assertEquals(6, mSource.pendingCount());
+        int changesBefore = mTarget.changedCount;
+
+        //按与请求相反的顺序完成，过期的结果和新的结果交错到达。
+        while (mSource.pendingCount() > 0) {
+            mSource.complete(mSource.pendingCount() - 1);
+            mMain.runAll();
+        }
+        assertEquals(3, mList.getLoadedPageCount());
+        assertEquals("0", mList.get(0));
+        assertEquals("29", mList.get(29));
+        assertNull(mList.get(30));
+        assertNull(mList.get(59));
+        //只有第0到2页的结果会通知列表。
+        assertEquals(changesBefore + 3, mTarget.changedCount);
+    }
+
+    @Test
+    public void release_dropsPendingResults() {
+        mList.onVisibleRangeChanged(0, 5);
+        mList.onItemBound(45);
+        mList.release();
+        mSource.complete(0);
+        mMain.runAll();
+        assertNull(mList.get(45));
+        assertEquals(3, mList.getLoadedPageCount());
+    }
+
+    /**
+     * 以页码为键的数据源，第n页的条目为 n*10 到 n*10+9 的字符串。
+     */
+    private static final class FakeSource implements PageSource<Integer, String> {
+        private final List<Integer> mKeys = new ArrayList<>();
+        private final List<LoadCallback<Integer, String>> mCallbacks = new ArrayList<>();
+
+        @NonNull
+        @Override
+        public Integer getFirstKey() {
+            return 0;
+        }
+
+        @Override
+        public void loadPage(@NonNull Integer key, @NonNull LoadCallback<Integer, String> callback) {
+            mKeys.add(key);
+            mCallbacks.add(callback);
+        }
+
+        int pendingCount() {
+            return mKeys.size();
+        }
+
+        /**
+         * 完成第index个还没有完成的请求。
+         */
+        void complete(int index) {
+            int key = mKeys.remove(index);
+            List<String> items = new ArrayList<>();
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                items.add(String.valueOf(key * PAGE_SIZE + i));
+            }
+            mCallbacks.remove(index).onPageLoaded(items, key + 1 < PAGE_COUNT ? key + 1 : null);
+        }
+    }
+
+    private static final class RecordingTarget implements PagedDataList.Target<String> {
+        int changedCount;
+        int noMoreDataCount;
+
+        @Override
+        public void notifyDataSetChanged() {
+        }
+
+        @Override
+        public void notifyItemRangeInserted(int positionStart, int itemCount) {
+        }
+
+        @Override
+        public void notifyItemRangeChanged(int positionStart, int itemCount) {
+            changedCount++;
+        }
+
+        @Override
+        public void notifyItemRangeRemoved(int positionStart, int itemCount) {
+        }
+
+        @Override
+        public void setLoadMoreFinished() {
+        }
+
+        @Override
+        public void setLoadMoreFailed() {
+        }
+
+        @Override
+        public void setNoMoreData() {
+            noMoreDataCount++;
+        }
+    }
+}
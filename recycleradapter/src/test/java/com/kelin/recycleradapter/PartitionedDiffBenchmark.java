@@ -0,0 +1,54 @@
+package com.kelin.recycleradapter;
+
+import com.kelin.recycleradapter.diff.KeyedDiffStrategy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * 描述 {@link PartitionedDiff} 在不同线程数下的耗时，与整个列表一起比较的耗时进行比较。
+ * <p>数据为64个分段共约10万条，每个分段最多有1%的条目发生变化。只有指定了 {@code -Dbenchmark=true} 才会运行，
+ * 同样规模的数据分段比较后能否还原出新数据在 {@link PartitionedDiffTest} 中检查。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class PartitionedDiffBenchmark {
+
+    private static final int PARTITIONS = 64;
+    private static final int PARTITION_SIZE = 1600;
+    private static final int RUNS = 5;
+
+    @Before
+    public void setUp() {
+        Benchmarks.assumeEnabled();
+    }
+
+    @Test
+    public void diff_perThreadCount() {
+        PartitionedDiffTest.Lists lists = PartitionedDiffTest.Lists.generate(new Random(1), PARTITIONS, PARTITION_SIZE, PARTITION_SIZE / 100);
+        KeyedDiffStrategy strategy = new KeyedDiffStrategy();
+        strategy.calculateDiff(lists.callback());
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            strategy.calculateDiff(lists.callback());
+        }
+        long wholeNanos = (System.nanoTime() - start) / RUNS;
+        System.out.println(String.format("%d items, whole list: %7.2f ms", lists.oldItems.size(), wholeNanos / 1e6));
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(cores, 1); threads <<= 1) {
+            DiffExecutor executor = new DiffExecutor(threads);
+            PartitionedDiff.calculateDiff(strategy, executor, lists.callback(), lists.oldSizes(), lists.newSizes());
+            start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                PartitionedDiff.calculateDiff(strategy, executor, lists.callback(), lists.oldSizes(), lists.newSizes());
+            }
+            long nanos = (System.nanoTime() - start) / RUNS;
+            System.out.println(String.format("%d items, %2d threads: %7.2f ms, %.2fx of whole list",
+                    lists.oldItems.size(), threads, nanos / 1e6, (double) wholeNanos / nanos));
+        }
+    }
+}
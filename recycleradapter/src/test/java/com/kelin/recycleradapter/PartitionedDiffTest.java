@@ -0,0 +1,287 @@
+package com.kelin.recycleradapter;
+
+import android.support.v7.util.ListUpdateCallback;
+
+import com.kelin.recycleradapter.diff.DiffCallback;
+import com.kelin.recycleradapter.diff.DiffResult;
+import com.kelin.recycleradapter.diff.DiffStrategy;
+import com.kelin.recycleradapter.diff.KeyedDiffStrategy;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 描述 {@link PartitionedDiff} 的单元测试，把合并后的结果应用到旧数据上，检查得到的结果与新数据以及整个列表一起比较的结果一致。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class PartitionedDiffTest {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 16};
+
+    @Test
+    public void editedPartitions_matchWholeListDiff() {
+        Random random = new Random(9);
+        for (int round = 0; round < 50; round++) {
+            Lists lists = Lists.generate(random, 1 + random.nextInt(12), 40, 10);
+            for (int threads : THREAD_COUNTS) {
+                check(lists, threads);
+            }
+        }
+    }
+
+    @Test
+    public void emptyAndResizedPartitions_matchWholeListDiff() {
+        Lists lists = new Lists();
+        lists.add(keys(0, 0), keys(0, 0));
+        //整个分段被清空。
+        lists.add(keys(0, 10), keys(0, 0));
+        lists.add(keys(0, 0), keys(0, 0));
+        //新增的分段。
+        lists.add(keys(100, 0), keys(100, 7));
+        //变长和变短的分段。
+        lists.add(keys(200, 5), keys(200, 12));
+        lists.add(keys(300, 12), keys(303, 5));
+        lists.add(keys(400, 0), keys(400, 0));
+        for (int threads : THREAD_COUNTS) {
+            check(lists, threads);
+        }
+    }
+
+    @Test
+    public void largePartitions_applyForEveryThreadCount() {
+        Lists lists = Lists.generate(new Random(1), 64, 1600, 16);
+        for (int threads : THREAD_COUNTS) {
+            lists.assertApplies(PartitionedDiff.calculateDiff(new KeyedDiffStrategy(), new DiffExecutor(threads),
+                    lists.callback(), lists.oldSizes(), lists.newSizes()));
+        }
+    }
+
+    @Test
+    public void manyPartitions_allAreClaimedOnce() {
+        Random random = new Random(11);
+        Lists lists = Lists.generate(random, 500, 8, 3);
+        final int[] calls = new int[1];
+        final DiffStrategy keyed = new KeyedDiffStrategy();
+        DiffStrategy counting = new DiffStrategy() {
+            @Override
+            public DiffResult calculateDiff(DiffCallback callback) {
+                synchronized (calls) {
+                    calls[0]++;
+                }
+                return keyed.calculateDiff(callback);
+            }
+        };
+        for (int i = 0; i < 20; i++) {
+            calls[0] = 0;
+            DiffResult result = PartitionedDiff.calculateDiff(counting, new DiffExecutor(4), lists.callback(), lists.oldSizes(), lists.newSizes());
+            assertEquals(lists.nonEmptyPartitionCount(), calls[0]);
+            lists.assertApplies(result);
+        }
+    }
+
+    @Test
+    public void failure_isRethrownOnCallingThread() {
+        Lists lists = Lists.generate(new Random(3), 32, 20, 5);
+        final RuntimeException error = new IllegalStateException("diff failed");
+        final DiffStrategy keyed = new KeyedDiffStrategy();
+        DiffStrategy failing = new DiffStrategy() {
+            @Override
+            public DiffResult calculateDiff(DiffCallback callback) {
+                if (callback.getNewListSize() % 3 == 0) {
+                    throw error;
+                }
+                return keyed.calculateDiff(callback);
+            }
+        };
+        for (int threads : THREAD_COUNTS) {
+            try {
+                PartitionedDiff.calculateDiff(failing, new DiffExecutor(threads), lists.callback(), lists.oldSizes(), lists.newSizes());
+                throw new AssertionError("expected the diff to fail");
+            } catch (IllegalStateException e) {
+                assertSame(error, e);
+            }
+        }
+    }
+
+    private static void check(Lists lists, int threads) {
+        DiffResult partitioned = PartitionedDiff.calculateDiff(new KeyedDiffStrategy(), new DiffExecutor(threads), lists.callback(), lists.oldSizes(), lists.newSizes());
+        List<Long> partitionedModel = lists.assertApplies(partitioned);
+        DiffResult whole = new KeyedDiffStrategy().calculateDiff(lists.callback());
+        List<Long> wholeModel = lists.assertApplies(whole);
+        assertEquals(wholeModel, partitionedModel);
+    }
+
+    static List<Long> keys(long start, int count) {
+        List<Long> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(start + i);
+        }
+        return keys;
+    }
+
+    /**
+     * 分段的新旧数据，条目以唯一标识表示，负数的唯一标识表示内容被修改过的条目。
+     */
+    static final class Lists {
+        final List<List<Long>> oldPartitions = new ArrayList<>();
+        final List<List<Long>> newPartitions = new ArrayList<>();
+        final List<Long> oldItems = new ArrayList<>();
+        final List<Long> newItems = new ArrayList<>();
+
+        /**
+         * 随机生成分段的数据，唯一标识在整个列表中不重复，条目不会跨分段移动。
+         *
+         * @param partitions 分段的个数。
+         * @param maxSize    每个分段的最大长度。
+         * @param maxEdits   每个分段的最大修改次数。
+         */
+        static Lists generate(Random random, int partitions, int maxSize, int maxEdits) {
+            Lists lists = new Lists();
+            long next = 0;
+            for (int p = 0; p < partitions; p++) {
+                List<Long> oldKeys = keys(next, random.nextInt(maxSize + 1));
+                next += oldKeys.size();
+                List<Long> newKeys = new ArrayList<>(oldKeys);
+                int edits = random.nextInt(maxEdits + 1);
+                for (int e = 0; e < edits; e++) {
+                    int op = newKeys.isEmpty() ? 0 : random.nextInt(4);
+                    if (op == 0) {
+                        newKeys.add(random.nextInt(newKeys.size() + 1), next++);
+                    } else if (op == 1) {
+                        newKeys.remove(random.nextInt(newKeys.size()));
+                    } else if (op == 2) {
+                        int index = random.nextInt(newKeys.size());
+                        long key = newKeys.get(index);
+                        newKeys.set(index, key < 0 ? key : -key - 1);
+                    } else {
+                        newKeys.add(random.nextInt(newKeys.size()), newKeys.remove(random.nextInt(newKeys.size())));
+                    }
+                }
+                lists.add(oldKeys, newKeys);
+            }
+            return lists;
+        }
+
+        void add(List<Long> oldKeys, List<Long> newKeys) {
+            oldPartitions.add(oldKeys);
+            newPartitions.add(newKeys);
+            oldItems.addAll(oldKeys);
+            newItems.addAll(newKeys);
+        }
+
+        int[] oldSizes() {
+            return sizesOf(oldPartitions);
+        }
+
+        int[] newSizes() {
+            return sizesOf(newPartitions);
+        }
+
+        int nonEmptyPartitionCount() {
+            int count = 0;
+            for (int i = 0; i < oldPartitions.size(); i++) {
+                if (!oldPartitions.get(i).isEmpty() || !newPartitions.get(i).isEmpty()) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private static int[] sizesOf(List<List<Long>> partitions) {
+            int[] sizes = new int[partitions.size()];
+            for (int i = 0; i < sizes.length; i++) {
+                sizes[i] = partitions.get(i).size();
+            }
+            return sizes;
+        }
+
+        DiffCallback callback() {
+            return new DiffCallback() {
+                @Override
+                public int getOldListSize() {
+                    return oldItems.size();
+                }
+
+                @Override
+                public int getNewListSize() {
+                    return newItems.size();
+                }
+
+                @Override
+                public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                    return getOldItemKey(oldItemPosition) == getNewItemKey(newItemPosition);
+                }
+
+                @Override
+                public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                    return oldItems.get(oldItemPosition).equals(newItems.get(newItemPosition));
+                }
+
+                @Override
+                public long getOldItemKey(int oldItemPosition) {
+                    return keyOf(oldItems.get(oldItemPosition));
+                }
+
+                @Override
+                public long getNewItemKey(int newItemPosition) {
+                    return keyOf(newItems.get(newItemPosition));
+                }
+            };
+        }
+
+        private static long keyOf(long item) {
+            return item < 0 ? -item - 1 : item;
+        }
+
+        /**
+         * 把比较结果应用到旧数据的副本上，插入和修改的位置直接填入新数据，检查结果与新数据一致。
+         *
+         * @return 返回应用后的数据，插入的条目记为null，修改过的条目记为新数据。
+         */
+        List<Long> assertApplies(DiffResult result) {
+            final List<Long> model = new ArrayList<>(oldItems);
+            result.dispatchUpdatesTo(new ListUpdateCallback() {
+                @Override
+                public void onInserted(int position, int count) {
+                    model.addAll(position, Collections.<Long>nCopies(count, null));
+                }
+
+                @Override
+                public void onRemoved(int position, int count) {
+                    model.subList(position, position + count).clear();
+                }
+
+                @Override
+                public void onMoved(int fromPosition, int toPosition) {
+                    model.add(toPosition, model.remove(fromPosition));
+                }
+
+                @Override
+                public void onChanged(int position, int count, Object payload) {
+                    for (int i = position; i < position + count; i++) {
+                        model.set(i, newItems.get(i));
+                    }
+                }
+            });
+            assertEquals(newItems.size(), model.size());
+            for (int i = 0; i < model.size(); i++) {
+                Long item = model.get(i);
+                if (item != null) {
+                    assertEquals("position " + i, newItems.get(i), item);
+                } else {
+                    assertEquals("position " + i, false, oldItems.contains(newItems.get(i)));
+                }
+            }
+            return model;
+        }
+    }
+}
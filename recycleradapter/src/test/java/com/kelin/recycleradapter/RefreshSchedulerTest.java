@@ -0,0 +1,202 @@
+package com.kelin.recycleradapter;
+
+import android.support.annotation.NonNull;
+import android.support.v7.util.ListUpdateCallback;
+
+import com.kelin.recycleradapter.diff.DiffCallback;
+import com.kelin.recycleradapter.diff.DiffResult;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 描述 {@link RefreshScheduler} 的单元测试，比较队列和主线程都是手动执行的，用来验证刷新请求的合并、中断以及过期结果的丢弃。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class RefreshSchedulerTest {
+
+    private final ManualExecutor mWorker = new ManualExecutor();
+    private final ManualExecutor mMain = new ManualExecutor();
+    private FakeTarget mTarget;
+    private RefreshScheduler<String> mScheduler;
+
+    @Before
+    public void setUp() {
+        mTarget = new FakeTarget();
+        mScheduler = new RefreshScheduler<>(mTarget, mWorker, mMain);
+    }
+
+    @Test
+    public void schedule_coalescesRequestsBeforeWorkerStarts() {
+        DataSnapshot<String> last = snapshot("c");
+        mScheduler.schedule(snapshot("a"));
+        mScheduler.schedule(snapshot("b"));
+        mScheduler.schedule(last);
+        assertEquals(1, mWorker.pendingCount());
+        runAll();
+        assertEquals(1, mTarget.diffCount);
+        assertEquals(1, mTarget.dispatched.size());
+        assertSame(last, mTarget.dispatched.get(0));
+        assertEquals(2, mScheduler.getCoalescedCount());
+        assertEquals(0, mScheduler.getCancelledCount());
+    }
+
+    @Test
+    public void schedule_interruptsRunningDiff() {
+        final DataSnapshot<String> newer = snapshot("b");
+        mTarget.duringDiff = new Runnable() {
+            @Override
+            public void run() {
+                mScheduler.schedule(newer);
+            }
+        };
+        mScheduler.schedule(snapshot("a"));
+        mWorker.runNext();
+        //第一次比较读取数据时发现了更新的请求，直接结束，不会有结果交给主线程。
+        assertEquals(0, mMain.pendingCount());
+        assertEquals(1, mScheduler.getCancelledCount());
+        runAll();
+        assertEquals(Arrays.asList(newer), mTarget.dispatched);
+        assertEquals(1, mScheduler.getCancelledCount());
+    }
+
+    @Test
+    public void dispatch_dropsResultOfOlderRequest() {
+        DataSnapshot<String> newer = snapshot("b");
+        mScheduler.schedule(snapshot("a"));
+        mWorker.runAll();
+        //结果还在等待主线程分发时又有了新的请求。
+        mScheduler.schedule(newer);
+        mMain.runAll();
+        assertEquals(0, mTarget.dispatched.size());
+        assertEquals(1, mScheduler.getCancelledCount());
+        runAll();
+        assertEquals(Arrays.asList(newer), mTarget.dispatched);
+    }
+
+    @Test
+    public void dispatch_countsResultWhoseOldSnapshotIsStale() {
+        mTarget.stale = true;
+        mScheduler.schedule(snapshot("a"));
+        runAll();
+        assertEquals(0, mTarget.dispatched.size());
+        assertEquals(1, mScheduler.getCancelledCount());
+    }
+
+    @Test
+    public void cancel_dropsPendingRequestAndComputedResult() {
+        mScheduler.schedule(snapshot("a"));
+        mWorker.runAll();
+        mScheduler.schedule(snapshot("b"));
+        mScheduler.cancel();
+        runAll();
+        assertEquals(0, mTarget.dispatched.size());
+        //只有已经比较完成的那一次需要丢弃，被取消的请求根本没有开始比较。
+        assertEquals(1, mTarget.diffCount);
+        assertEquals(1, mScheduler.getCancelledCount());
+    }
+
+    @Test
+    public void schedule_afterDispatch_diffsAgainstDispatchedSnapshot() {
+        DataSnapshot<String> first = snapshot("a");
+        mScheduler.schedule(first);
+        runAll();
+        mScheduler.schedule(snapshot("a", "b"));
+        runAll();
+        assertEquals(2, mTarget.dispatched.size());
+        assertSame(first, mTarget.lastOldSnapshot);
+    }
+
+    private void runAll() {
+        while (mWorker.pendingCount() > 0 || mMain.pendingCount() > 0) {
+            mWorker.runAll();
+            mMain.runAll();
+        }
+    }
+
+    private static DataSnapshot<String> snapshot(String... items) {
+        return DataSnapshot.of(Arrays.asList(items));
+    }
+
+    private static final class FakeTarget implements RefreshScheduler.Target<String> {
+        final List<DataSnapshot<String>> dispatched = new ArrayList<>();
+        DataSnapshot<String> oldSnapshot = DataSnapshot.empty();
+        DataSnapshot<String> lastOldSnapshot;
+        /**
+         * 在下一次比较读取数据之前执行一次的任务。
+         */
+        Runnable duringDiff;
+        /**
+         * 为true时模拟比较期间列表被直接修改过的情况。
+         */
+        boolean stale;
+        int diffCount;
+
+        @Override
+        public DataSnapshot<String> getOldSnapshot() {
+            return oldSnapshot;
+        }
+
+        @Override
+        public DiffCallback createDiffCallback(final DataSnapshot<String> oldSnapshot, final DataSnapshot<String> newSnapshot) {
+            return new DiffCallback() {
+                @Override
+                public int getOldListSize() {
+                    return oldSnapshot.size();
+                }
+
+                @Override
+                public int getNewListSize() {
+                    return newSnapshot.size();
+                }
+
+                @Override
+                public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                    return oldSnapshot.get(oldItemPosition).equals(newSnapshot.get(newItemPosition));
+                }
+
+                @Override
+                public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        public DiffResult calculateDiff(DataSnapshot<String> oldSnapshot, DataSnapshot<String> newSnapshot, DiffCallback callback) {
+            diffCount++;
+            lastOldSnapshot = oldSnapshot;
+            if (duringDiff != null) {
+                Runnable task = duringDiff;
+                duringDiff = null;
+                task.run();
+            }
+            //比较的内容无关紧要，只需要通过回调读取一次数据，让中断检查有机会发生。
+            callback.areContentsTheSame(0, 0);
+            return new DiffResult() {
+                @Override
+                public void dispatchUpdatesTo(@NonNull ListUpdateCallback callback) {
+                }
+            };
+        }
+
+        @Override
+        public boolean onDiffCalculated(DataSnapshot<String> oldSnapshot, DataSnapshot<String> newSnapshot, DiffResult diffResult) {
+            if (stale) {
+                return false;
+            }
+            this.oldSnapshot = newSnapshot;
+            dispatched.add(newSnapshot);
+            return true;
+        }
+    }
+}
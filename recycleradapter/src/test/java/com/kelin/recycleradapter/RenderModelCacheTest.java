@@ -0,0 +1,254 @@
+package com.kelin.recycleradapter;
+
+import com.kelin.recycleradapter.callback.RenderModelPreparer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 描述 {@link RenderModelCache} 的单元测试，后台线程和主线程都用手动执行的队列代替，这样可以控制任务完成的先后顺序。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class RenderModelCacheTest {
+
+    private final ManualExecutor mWorker = new ManualExecutor();
+    private final ManualExecutor mMain = new ManualExecutor();
+    private CountingPreparer mPreparer;
+    private RenderModelCache<Item> mCache;
+
+    @Before
+    public void setUp() {
+        mPreparer = new CountingPreparer();
+        mCache = newCache(16);
+    }
+
+    @Test
+    public void get_computesOnceAndReusesForEqualContents() {
+        Item item = new Item(1, "a");
+        Object model = mCache.get(item);
+        assertSame(model, mCache.get(item));
+        //数据对象被替换成内容相同的新对象后仍然使用原来的渲染模型。
+        assertSame(model, mCache.get(new Item(1, "a")));
+        assertEquals(1, mPreparer.count);
+        //内容发生变化后重新计算。
+        assertNotSame(model, mCache.get(new Item(1, "b")));
+        assertEquals(2, mPreparer.count);
+    }
+
+    @Test
+    public void keys_comeFromPreparerWithoutAnyHolder() {
+        mCache.prepareWindow(Arrays.asList(new Item(1, "a"), new Item(2, "b")), 0, 1);
+        runAll();
+        assertEquals(2, mPreparer.count);
+        //在创建任何ViewHolder之前准备好的渲染模型，在第一次绑定新的数据对象时就能命中。
+        mCache.get(new Item(1, "a"));
+        mCache.get(new Item(2, "b"));
+        assertEquals(2, mPreparer.count);
+    }
+
+    @Test
+    public void prepareWindow_mergesWithEarlierResults() {
+        Item first = new Item(1, "a");
+        Item second = new Item(2, "b");
+        mCache.prepare(Collections.singletonList(first));
+        mCache.prepareWindow(Collections.singletonList(second), 0, 0);
+        runAll();
+        assertEquals(2, mCache.size());
+        mCache.get(first);
+        mCache.get(second);
+        assertEquals(2, mPreparer.count);
+    }
+
+    @Test
+    public void prepareWindow_keepsModelsOutsideTheWindow() {
+        //屏幕上已经绑定过的条目不在新窗口中时也不会被丢弃。
+        Item onScreen = new Item(1, "a");
+        Object model = mCache.get(onScreen);
+        mCache.prepareWindow(Collections.singletonList(new Item(2, "b")), 0, 0);
+        runAll();
+        assertSame(model, mCache.get(onScreen));
+        assertEquals(2, mCache.size());
+    }
+
+    @Test
+    public void prepareWindow_preparesHalfCapacityAroundVisibleRange() {
+        mCache = newCache(10);
+        List<Item> items = items(100);
+        mCache.prepareWindow(items, 50, 52);
+        runAll();
+        assertEquals(5, mPreparer.count);
+        for (int i = 49; i < 54; i++) {
+            mCache.get(items.get(i));
+        }
+        assertEquals(5, mPreparer.count);
+    }
+
+    @Test
+    public void prepareWindow_clampsToListEnds() {
+        mCache = newCache(10);
+        List<Item> items = items(100);
+        mCache.prepareWindow(items, 98, 99);
+        runAll();
+        for (int i = 95; i < 100; i++) {
+            mCache.get(items.get(i));
+        }
+        assertEquals(5, mPreparer.count);
+    }
+
+    @Test
+    public void onVisibleRangeChanged_movesWindowOnlyNearItsEdge() {
+        mCache = newCache(40);
+        List<Item> items = items(1000);
+        mCache.prepareWindow(items, 100, 105);
+        runAll();
+        //窗口为[92, 112)，离边缘还有四分之一个窗口以上时不重新计算。
+        mCache.onVisibleRangeChanged(items, 98, 104);
+        assertEquals(0, mWorker.pendingCount());
+        //新窗口为[96, 116)，只有112到115是新计算的。
+        mCache.onVisibleRangeChanged(items, 104, 109);
+        assertEquals(1, mWorker.pendingCount());
+        runAll();
+        mCache.get(items.get(115));
+        assertEquals(24, mPreparer.count);
+    }
+
+    @Test
+    public void prepare_keepsModelsComputedOnMainThreadMeanwhile() {
+        Item item = new Item(1, "a");
+        mCache.prepare(Collections.singletonList(item));
+        Object model = mCache.get(item);
+        runAll();
+        assertSame(model, mCache.get(item));
+    }
+
+    @Test
+    public void evict_dropsOnlyEvictedKeysOfPendingResults() {
+        Item removed = new Item(2, "b");
+        mCache.get(new Item(1, "a"));
+        mCache.prepare(Arrays.asList(removed, new Item(3, "c")));
+        mCache.evict(Arrays.asList(new Item(1, "a"), removed));
+        runAll();
+        //1号条目被直接丢弃，2号条目的计算结果晚到也不会合并进来，3号条目不受影响。
+        assertEquals(1, mCache.size());
+        int count = mPreparer.count;
+        mCache.get(new Item(3, "c"));
+        assertEquals(count, mPreparer.count);
+    }
+
+    @Test
+    public void evict_doesNotAffectTasksSubmittedAfterwards() {
+        Item item = new Item(1, "a");
+        mCache.prepare(Collections.singletonList(item));
+        mCache.evict(Collections.singletonList(item));
+        //同一个条目被移除后又加了回来。
+        mCache.prepare(Collections.singletonList(item));
+        runAll();
+        assertEquals(1, mCache.size());
+    }
+
+    @Test
+    public void setWorkerExecutor_usedForLaterTasks() {
+        ManualExecutor worker = new ManualExecutor();
+        mCache.setWorkerExecutor(worker);
+        mCache.prepare(Collections.singletonList(new Item(1, "a")));
+        assertEquals(0, mWorker.pendingCount());
+        assertEquals(1, worker.pendingCount());
+        worker.runAll();
+        mMain.runAll();
+        assertEquals(1, mCache.size());
+    }
+
+    @Test
+    public void clear_dropsEverything() {
+        mCache.get(new Item(1, "a"));
+        mCache.prepare(Collections.singletonList(new Item(2, "b")));
+        mCache.clear();
+        runAll();
+        assertEquals(0, mCache.size());
+    }
+
+    @Test
+    public void release_dropsPendingResults() {
+        mCache.prepare(Collections.singletonList(new Item(1, "a")));
+        mWorker.runAll();
+        mCache.release();
+        mMain.runAll();
+        assertEquals(0, mCache.size());
+    }
+
+    @Test
+    public void capacity_evictsLeastRecentlyUsed() {
+        mCache = newCache(3);
+        Item first = new Item(1, "a");
+        mCache.get(first);
+        mCache.get(new Item(2, "b"));
+        mCache.get(new Item(3, "c"));
+        //访问后1号条目变成最近用过的，加入4号条目时丢弃的是2号。
+        mCache.get(first);
+        mCache.get(new Item(4, "d"));
+        assertEquals(3, mCache.size());
+        int count = mPreparer.count;
+        mCache.get(first);
+        assertEquals(count, mPreparer.count);
+        mCache.get(new Item(2, "b"));
+        assertEquals(count + 1, mPreparer.count);
+    }
+
+    private RenderModelCache<Item> newCache(int capacity) {
+        return new RenderModelCache<>(new RenderModelCache.Target<Item>() {
+            @Override
+            public boolean areContentsTheSame(Item oldItemData, Item newItemData) {
+                return oldItemData.content.equals(newItemData.content);
+            }
+        }, mPreparer, mWorker, mMain, capacity);
+    }
+
+    private static List<Item> items(int count) {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new Item(i, "x"));
+        }
+        return items;
+    }
+
+    private void runAll() {
+        mWorker.runAll();
+        mMain.runAll();
+    }
+
+    private static final class Item {
+        final long id;
+        final String content;
+
+        Item(long id, String content) {
+            this.id = id;
+            this.content = content;
+        }
+    }
+
+    private static final class CountingPreparer extends RenderModelPreparer<Item, Object> {
+        int count;
+
+        @Override
+        public Object prepare(Item item) {
+            count++;
+            return new Object();
+        }
+
+        @Override
+        public long getItemKey(Item item) {
+            return item.id;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.kelin.recycleradapter;
+
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述 {@link SharedViewPool} 按Context划分池子以及列表添加到窗口和从窗口中移除时的引用计数的单元测试。
+ * 列表添加到窗口时会调用 {@link SharedViewPool#acquirePool(Object)}，移除时会调用 {@link SharedViewPool#releasePool(Object)}，
+ * 这里用普通的对象代替Context。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class SharedViewPoolTest {
+
+    private final SharedViewPool mPool = new SharedViewPool();
+    private final Object mActivity = new Object();
+    private final Object mOtherActivity = new Object();
+
+    @Test
+    public void register_sameViewTypeWithDifferentHoldersInOneBatch_fails() {
+        assertFalse(mPool.register(new int[]{1, 2, 1}, new Class<?>[]{String.class, Integer.class, Long.class}));
+        assertTrue(mPool.register(new int[]{1, 2, 1}, new Class<?>[]{String.class, Integer.class, String.class}));
+    }
+
+    @Test
+    public void sameContext_sharesOnePool() {
+        RecyclerView.RecycledViewPool first = mPool.acquirePool(mActivity);
+        RecyclerView.RecycledViewPool second = mPool.acquirePool(mActivity);
+        assertSame(first, second);
+        assertEquals(1, mPool.getScopeCount());
+    }
+
+    @Test
+    public void differentContexts_neverSharePools() {
+        RecyclerView.RecycledViewPool first = mPool.acquirePool(mActivity);
+        RecyclerView.RecycledViewPool second = mPool.acquirePool(mOtherActivity);
+        assertNotSame(first, second);
+        assertEquals(2, mPool.getScopeCount());
+    }
+
+    @Test
+    public void lastDetach_dropsThePool() {
+        RecyclerView.RecycledViewPool pool = mPool.acquirePool(mActivity);
+        mPool.acquirePool(mActivity);
+        mPool.acquirePool(mOtherActivity);
+
+        mPool.releasePool(mActivity);
+        assertEquals(2, mPool.getScopeCount());
+        assertSame(pool, mPool.acquirePool(mActivity));
+        mPool.releasePool(mActivity);
+
+        //最后一个列表从窗口中移除后池子被丢弃，其他Context的池子不受影响。
+        mPool.releasePool(mActivity);
+        assertEquals(1, mPool.getScopeCount());
+        mPool.releasePool(mOtherActivity);
+        assertEquals(0, mPool.getScopeCount());
+    }
+
+    @Test
+    public void reattach_afterLastDetach_getsNewPool() {
+        RecyclerView.RecycledViewPool pool = mPool.acquirePool(mActivity);
+        mPool.releasePool(mActivity);
+        RecyclerView.RecycledViewPool reattached = mPool.acquirePool(mActivity);
+        assertNotSame(pool, reattached);
+        assertEquals(1, mPool.getScopeCount());
+    }
+
+    @Test
+    public void releaseWithoutAcquire_isIgnored() {
+        mPool.releasePool(mActivity);
+        assertEquals(0, mPool.getScopeCount());
+        RecyclerView.RecycledViewPool pool = mPool.acquirePool(mActivity);
+        mPool.releasePool(mOtherActivity);
+        assertSame(pool, mPool.acquirePool(mActivity));
+    }
+}
@@ -0,0 +1,109 @@
+package com.kelin.recycleradapter.diff;
+
+import android.support.v7.util.ListUpdateCallback;
+
+import com.kelin.recycleradapter.Benchmarks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.kelin.recycleradapter.diff.KeyedDiffStrategyTest.Item;
+import static com.kelin.recycleradapter.diff.KeyedDiffStrategyTest.ItemCallback;
+
+/**
+ * 描述 {@link KeyedDiffStrategy} 与 {@link MyersDiffStrategy}(也就是DiffUtil)在1k、10k、100k条数据时的耗时比较。
+ * <p>每种数据量都测试三种变化：约1%的条目被插入、移除、修改或移动，整体倒序以及随机打乱。后两种情况下DiffUtil的耗时是
+ * O(N²)的，所以只在1k条数据时测试。
+ * <p>默认不运行，加上 {@code -Dbenchmark=true} 后耗时会输出到测试日志；大数据量下比较结果的正确性见 {@link KeyedDiffStrategyTest}。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class KeyedDiffStrategyBenchmark {
+
+    private static final int MYERS_REORDER_LIMIT = 1000;
+
+    @Before
+    public void setUp() {
+        Benchmarks.assumeEnabled();
+    }
+
+    @Test
+    public void diff_1k_10k_100k() {
+        for (int size : new int[]{1000, 10000, 100000}) {
+            Random random = new Random(size);
+            List<Item> oldItems = KeyedDiffStrategyTest.items(0, size);
+            run("1% edits", oldItems, edit(oldItems, size / 100, random), true);
+            List<Item> reversed = new ArrayList<>(oldItems);
+            Collections.reverse(reversed);
+            run("reversed", oldItems, reversed, size <= MYERS_REORDER_LIMIT);
+            List<Item> shuffled = new ArrayList<>(oldItems);
+            Collections.shuffle(shuffled, random);
+            run("shuffled", oldItems, shuffled, size <= MYERS_REORDER_LIMIT);
+        }
+    }
+
+    private static void run(String name, List<Item> oldItems, List<Item> newItems, boolean withMyers) {
+        long keyedNanos = measure(new KeyedDiffStrategy(), oldItems, newItems);
+        String myers = withMyers ? String.format("%10.2f ms", measure(new MyersDiffStrategy(), oldItems, newItems) / 1e6) : "   skipped";
+        System.out.println(String.format("%7d items, %-8s: keyed %8.2f ms, DiffUtil %s",
+                oldItems.size(), name, keyedNanos / 1e6, myers));
+    }
+
+    /**
+     * 预热一次后取三次的平均耗时，包括计算和分发。
+     */
+    private static long measure(DiffStrategy strategy, List<Item> oldItems, List<Item> newItems) {
+        ListUpdateCallback callback = new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+            }
+        };
+        strategy.calculateDiff(new ItemCallback(oldItems, newItems)).dispatchUpdatesTo(callback);
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            strategy.calculateDiff(new ItemCallback(oldItems, newItems)).dispatchUpdatesTo(callback);
+        }
+        return (System.nanoTime() - start) / 3;
+    }
+
+    private static List<Item> edit(List<Item> oldItems, int edits, Random random) {
+        List<Item> newItems = new ArrayList<>(oldItems);
+        long next = oldItems.size();
+        for (int e = 0; e < edits; e++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    newItems.add(random.nextInt(newItems.size() + 1), new Item(next++, 0));
+                    break;
+                case 1:
+                    newItems.remove(random.nextInt(newItems.size()));
+                    break;
+                case 2:
+                    int index = random.nextInt(newItems.size());
+                    newItems.set(index, new Item(newItems.get(index).key, 1));
+                    break;
+                default:
+                    newItems.add(random.nextInt(newItems.size()), newItems.remove(random.nextInt(newItems.size())));
+                    break;
+            }
+        }
+        return newItems;
+    }
+}
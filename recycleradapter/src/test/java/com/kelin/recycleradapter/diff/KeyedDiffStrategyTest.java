@@ -0,0 +1,279 @@
+package com.kelin.recycleradapter.diff;
+
+import android.support.v7.util.ListUpdateCallback;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 描述 {@link KeyedDiffStrategy} 的单元测试，把比较结果依次应用到旧数据上，检查得到的结果和新数据一致。
+ * 创建人 kelin
+ * 创建时间 2026/10/18  下午11:59
+ * 版本 v 1.0.0
+ */
+public class KeyedDiffStrategyTest {
+
+    @Test
+    public void identicalLists_produceNoUpdates() {
+        List<Item> items = items(0, 100);
+        Recorder recorder = diff(items, items);
+        assertEquals(0, recorder.operationCount);
+    }
+
+    @Test
+    public void appendOnly_producesSingleInsert() {
+        List<Item> oldItems = items(0, 100);
+        List<Item> newItems = items(0, 150);
+        Recorder recorder = diff(oldItems, newItems);
+        assertEquals(1, recorder.operationCount);
+        assertEquals(0, recorder.moveCount);
+    }
+
+    @Test
+    public void reversed_matchesNewList() {
+        List<Item> oldItems = items(0, 500);
+        List<Item> newItems = new ArrayList<>(oldItems);
+        Collections.reverse(newItems);
+        Recorder recorder = diff(oldItems, newItems);
+        //最长递增子序列只有一个条目，其余的都要移动。
+        assertEquals(499, recorder.moveCount);
+    }
+
+    @Test
+    public void singleLongDistanceMove_isOneMove() {
+        List<Item> oldItems = items(0, 1000);
+        List<Item> newItems = new ArrayList<>(oldItems);
+        newItems.add(newItems.remove(0));
+        Recorder recorder = diff(oldItems, newItems);
+        assertEquals(1, recorder.moveCount);
+        newItems = new ArrayList<>(oldItems);
+        newItems.add(0, newItems.remove(999));
+        recorder = diff(oldItems, newItems);
+        assertEquals(1, recorder.moveCount);
+    }
+
+    @Test
+    public void changedContents_areDispatchedAtNewPositions() {
+        List<Item> oldItems = items(0, 10);
+        List<Item> newItems = new ArrayList<>(oldItems);
+        newItems.set(3, new Item(3, 1));
+        newItems.add(0, newItems.remove(3));
+        newItems.remove(5);
+        diff(oldItems, newItems);
+    }
+
+    @Test
+    public void randomEdits_matchNewList() {
+        Random random = new Random(7);
+        for (int round = 0; round < 300; round++) {
+            List<Item> oldItems = items(0, random.nextInt(200));
+            List<Item> newItems = new ArrayList<>(oldItems);
+            int next = 1000;
+            int edits = random.nextInt(40);
+            for (int e = 0; e < edits; e++) {
+                int op = newItems.isEmpty() ? 0 : random.nextInt(4);
+                if (op == 0) {
+                    newItems.add(random.nextInt(newItems.size() + 1), new Item(next++, 0));
+                } else if (op == 1) {
+                    newItems.remove(random.nextInt(newItems.size()));
+                } else if (op == 2) {
+                    int index = random.nextInt(newItems.size());
+                    newItems.set(index, new Item(newItems.get(index).key, 1));
+                } else {
+                    newItems.add(random.nextInt(newItems.size()), newItems.remove(random.nextInt(newItems.size())));
+                }
+            }
+            if (random.nextInt(10) == 0) {
+                Collections.shuffle(newItems, random);
+            }
+            diff(oldItems, newItems);
+        }
+    }
+
+    @Test
+    public void shuffled_tenThousandItems_matchesNewList() {
+        List<Item> oldItems = items(0, 10000);
+        List<Item> newItems = new ArrayList<>(oldItems);
+        Collections.shuffle(newItems, new Random(10000));
+        newItems.subList(0, 100).clear();
+        newItems.addAll(5000, items(20000, 100));
+        diff(oldItems, newItems);
+    }
+
+    @Test
+    public void sameKeyDifferentItem_isRemovedAndInserted() {
+        final List<Item> oldItems = items(0, 5);
+        List<Item> newItems = new ArrayList<>(oldItems);
+        //同一个唯一标识的新条目被 areItemsTheSame 判定为不同的条目，例如数据类型不同。
+        newItems.set(2, new Item(2, 0));
+        Recorder recorder = new Recorder(oldItems);
+        new KeyedDiffStrategy().calculateDiff(new ItemCallback(oldItems, newItems) {
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return newItemPosition != 2 && super.areItemsTheSame(oldItemPosition, newItemPosition);
+            }
+        }).dispatchUpdatesTo(recorder);
+        assertEquals(2, recorder.operationCount);
+        assertEquals(null, recorder.model.get(2));
+    }
+
+    @Test
+    public void missingKey_fallsBack() {
+        final List<Item> oldItems = items(0, 3);
+        final List<Item> newItems = items(0, 4);
+        final boolean[] fallback = new boolean[1];
+        DiffStrategy strategy = new KeyedDiffStrategy(new DiffStrategy() {
+            @Override
+            public DiffResult calculateDiff(DiffCallback callback) {
+                fallback[0] = true;
+                return new KeyedDiffStrategy().calculateDiff(callback);
+            }
+        });
+        strategy.calculateDiff(new ItemCallback(oldItems, newItems) {
+            @Override
+            public long getNewItemKey(int newItemPosition) {
+                return newItemPosition == 3 ? -1 : super.getNewItemKey(newItemPosition);
+            }
+        });
+        assertTrue(fallback[0]);
+    }
+
+    /**
+     * 比较两个列表，并检查把比较结果应用到旧数据后和新数据一致。
+     */
+    static Recorder diff(List<Item> oldItems, List<Item> newItems) {
+        Recorder recorder = new Recorder(oldItems);
+        new KeyedDiffStrategy().calculateDiff(new ItemCallback(oldItems, newItems)).dispatchUpdatesTo(recorder);
+        recorder.assertMatches(oldItems, newItems);
+        return recorder;
+    }
+
+    static List<Item> items(int start, int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new Item(start + i, 0));
+        }
+        return items;
+    }
+
+    /**
+     * 测试用的条目，key是唯一标识，version不同表示内容发生了变化。
+     */
+    static final class Item {
+        final long key;
+        final int version;
+
+        Item(long key, int version) {
+            this.key = key;
+            this.version = version;
+        }
+    }
+
+    static class ItemCallback extends DiffCallback {
+        private final List<Item> mOldItems;
+        private final List<Item> mNewItems;
+
+        ItemCallback(List<Item> oldItems, List<Item> newItems) {
+            mOldItems = oldItems;
+            mNewItems = newItems;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return mOldItems.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return mNewItems.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return mOldItems.get(oldItemPosition).key == mNewItems.get(newItemPosition).key;
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return mOldItems.get(oldItemPosition).version == mNewItems.get(newItemPosition).version;
+        }
+
+        @Override
+        public long getOldItemKey(int oldItemPosition) {
+            return mOldItems.get(oldItemPosition).key;
+        }
+
+        @Override
+        public long getNewItemKey(int newItemPosition) {
+            return mNewItems.get(newItemPosition).key;
+        }
+    }
+
+    /**
+     * 把更新操作应用到旧数据的副本上，插入的位置用null占位。
+     */
+    static final class Recorder implements ListUpdateCallback {
+        final List<Item> model;
+        final Set<Integer> changed = new HashSet<>();
+        int operationCount;
+        int moveCount;
+
+        Recorder(List<Item> oldItems) {
+            model = new ArrayList<>(oldItems);
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            operationCount++;
+            model.addAll(position, Collections.<Item>nCopies(count, null));
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            operationCount++;
+            model.subList(position, position + count).clear();
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            operationCount++;
+            moveCount++;
+            model.add(toPosition, model.remove(fromPosition));
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            operationCount++;
+            for (int i = position; i < position + count; i++) {
+                changed.add(i);
+            }
+        }
+
+        void assertMatches(List<Item> oldItems, List<Item> newItems) {
+            Set<Long> oldKeys = new HashSet<>();
+            for (Item item : oldItems) {
+                oldKeys.add(item.key);
+            }
+            assertEquals(newItems.size(), model.size());
+            for (int i = 0; i < newItems.size(); i++) {
+                Item expected = newItems.get(i);
+                Item actual = model.get(i);
+                if (actual == null) {
+                    assertTrue("position " + i + " should not be inserted", !oldKeys.contains(expected.key));
+                } else {
+                    assertEquals("position " + i, expected.key, actual.key);
+                    assertEquals("position " + i, actual.version != expected.version, changed.contains(i));
+                }
+            }
+        }
+    }
+}